@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Class representing an interval index over project application windows.
+ * <p>
+ * Windows are kept sorted by opening day with the latest closing day of every subtree of the implicit
+ * balanced tree over that order, so that overlap and stabbing queries skip every subtree that closes
+ * too early or opens too late. Closing days are indexed separately for "closing soon" queries.
+ * Projects whose dates cannot be parsed are left out.
+ */
+class ApplicationWindowIndex {
+    private final Project[] projects;
+    private final int[] opening;
+    private final int[] closing;
+    private final int[] maxClosing;
+    private final NavigableMap<Integer, List<Project>> byClosingDay = new TreeMap<>();
+
+    /**
+     * Instantiates a new Application window index.
+     *
+     * @param projects the projects to index
+     */
+    public ApplicationWindowIndex(List<Project> projects) {
+        List<Project> dated = new ArrayList<>();
+        for (Project project : projects) {
+            if (project.hasValidWindow()) {
+                dated.add(project);
+                byClosingDay.computeIfAbsent(project.getClosingDay(), k -> new ArrayList<>()).add(project);
+            }
+        }
+        dated.sort(Comparator.comparingInt(Project::getOpeningDay));
+        int n = dated.size();
+        this.projects = dated.toArray(new Project[0]);
+        this.opening = new int[n];
+        this.closing = new int[n];
+        this.maxClosing = new int[n];
+        for (int i = 0; i < n; i++) {
+            opening[i] = this.projects[i].getOpeningDay();
+            closing[i] = this.projects[i].getClosingDay();
+        }
+        buildMaxClosing(0, n - 1);
+    }
+
+    private int buildMaxClosing(int lo, int hi) {
+        if (lo > hi) {
+            return Integer.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        maxClosing[mid] = Math.max(closing[mid], Math.max(buildMaxClosing(lo, mid - 1), buildMaxClosing(mid + 1, hi)));
+        return maxClosing[mid];
+    }
+
+    /**
+     * Gets the projects accepting applications on a day.
+     *
+     * @param epochDay the day
+     * @return the projects, by opening day
+     */
+    public List<Project> openOn(int epochDay) {
+        return overlapping(epochDay, epochDay);
+    }
+
+    /**
+     * Gets the projects whose application window shares at least one day with the given window.
+     *
+     * @param fromDay the first day of the window
+     * @param toDay   the last day of the window
+     * @return the projects, by opening day
+     */
+    public List<Project> overlapping(int fromDay, int toDay) {
+        List<Project> result = new ArrayList<>();
+        collect(0, projects.length - 1, fromDay, toDay, result);
+        return result;
+    }
+
+    private void collect(int lo, int hi, int fromDay, int toDay, List<Project> result) {
+        if (lo > hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxClosing[mid] < fromDay) {
+            return;
+        }
+        collect(lo, mid - 1, fromDay, toDay, result);
+        if (opening[mid] > toDay) {
+            return;
+        }
+        if (closing[mid] >= fromDay) {
+            result.add(projects[mid]);
+        }
+        collect(mid + 1, hi, fromDay, toDay, result);
+    }
+
+    /**
+     * Gets the projects whose application window closes within the given days, inclusive.
+     *
+     * @param fromDay the first day
+     * @param toDay   the last day
+     * @return the projects, by closing day
+     */
+    public List<Project> closingBetween(int fromDay, int toDay) {
+        List<Project> result = new ArrayList<>();
+        if (fromDay <= toDay) {
+            byClosingDay.subMap(fromDay, true, toDay, true).values().forEach(result::addAll);
+        }
+        return result;
+    }
+}
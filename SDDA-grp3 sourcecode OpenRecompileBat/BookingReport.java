@@ -0,0 +1,233 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class representing the report of the owners who booked a flat, joined with their user records.
+ * <p>
+ * A report is selected by space separated {@code key:value} clauses in the same form as the project
+ * filters, for example {@code type:2-Room project:"Acacia Breeze" marital:Married age:21-35}.
+ * <ul>
+ *     <li>{@code type:} flat types separated by {@code |}, {@code 2} and {@code 3} are short for 2-Room and 3-Room</li>
+ *     <li>{@code project:} project names separated by {@code |}</li>
+ *     <li>{@code marital:} a marital status</li>
+ *     <li>{@code age:} one of {@code <N}, {@code <=N}, {@code >N}, {@code >=N}, {@code N-M} or {@code N}</li>
+ * </ul>
+ * Owners are looked up by name in a hash index of the applicant and officer lists, which is only built
+ * again after either list changed; an owner in neither list is left out. The projects are joined as a
+ * parallel stream, and each worker formats the rows of its project into a chunk that is handed to the
+ * output once it grows past 64K characters, so the report is never held whole however many rows it has.
+ * The rows of a project are written in order, but the chunks of different projects may be interleaved.
+ */
+class BookingReport {
+    static final String[] COLUMNS = {"Project", "Neighbourhood", "Flat Type", "Price", "Name", "NRIC", "Age", "Marital Status"};
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    private final Set<String> flatTypes = new HashSet<>();
+    private final Set<String> projectNames = new HashSet<>();
+    private String maritalStatus;
+    private int minAge = Integer.MIN_VALUE;
+    private int maxAge = Integer.MAX_VALUE;
+
+    private BookingReport() {
+    }
+
+    /**
+     * Compiles the selection of a report.
+     *
+     * @param text the clauses, blank for every booking
+     * @return the report
+     * @throws IllegalArgumentException if a clause is not valid
+     */
+    static BookingReport parse(String text) {
+        BookingReport report = new BookingReport();
+        if (text == null || text.trim().isEmpty()) {
+            return report;
+        }
+        for (String clause : FilterExpression.tokenize(text.trim())) {
+            report.addClause(clause);
+        }
+        return report;
+    }
+
+    private void addClause(String clause) {
+        int colon = clause.indexOf(':');
+        if (colon <= 0 || colon == clause.length() - 1) {
+            throw new IllegalArgumentException("Expected key:value but found " + clause);
+        }
+        String key = clause.substring(0, colon).toLowerCase();
+        String value = clause.substring(colon + 1);
+        switch (key) {
+            case "type":
+                for (String flatType : value.split("\\|")) {
+                    flatTypes.add(flatType.equals("2") ? "2-Room" : flatType.equals("3") ? "3-Room" : flatType);
+                }
+                break;
+            case "project":
+                for (String projectName : value.split("\\|")) {
+                    projectNames.add(projectName.toLowerCase());
+                }
+                break;
+            case "marital":
+                maritalStatus = value;
+                break;
+            case "age":
+                addAgeCondition(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown report key " + key);
+        }
+    }
+
+    private void addAgeCondition(String value) {
+        try {
+            if (value.startsWith("<=")) {
+                maxAge = Math.min(maxAge, Integer.parseInt(value.substring(2)));
+            } else if (value.startsWith(">=")) {
+                minAge = Math.max(minAge, Integer.parseInt(value.substring(2)));
+            } else if (value.startsWith("<")) {
+                maxAge = Math.min(maxAge, Integer.parseInt(value.substring(1)) - 1);
+            } else if (value.startsWith(">")) {
+                minAge = Math.max(minAge, Integer.parseInt(value.substring(1)) + 1);
+            } else if (value.indexOf('-') > 0) {
+                int dash = value.indexOf('-');
+                minAge = Math.max(minAge, Integer.parseInt(value.substring(0, dash)));
+                maxAge = Math.min(maxAge, Integer.parseInt(value.substring(dash + 1)));
+            } else {
+                int age = Integer.parseInt(value);
+                minAge = Math.max(minAge, age);
+                maxAge = Math.min(maxAge, age);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid age condition " + value);
+        }
+    }
+
+    /**
+     * Writes the report. The output is flushed but not closed.
+     *
+     * @param out    the output
+     * @param format the format of the output
+     * @return the number of rows written
+     * @throws IOException if the output cannot be written
+     */
+    long write(Writer out, ReportFormat format) throws IOException {
+        List<Map<String, List<User>>> indexes = List.of(
+                DataModel.users("ApplicantList.csv", Applicant.class).derived("byName", BookingReport::indexByName),
+                DataModel.users("OfficerList.csv", Officer.class).derived("byName", BookingReport::indexByName));
+        List<Project> projects = new ArrayList<>();
+        FileHandler.forEachProject("ProjectList.csv", p -> {
+            if (projectNames.isEmpty() || projectNames.contains(p.getProjectName().toLowerCase())) {
+                projects.add(p);
+            }
+        });
+
+        Output output = new Output(out, format.separator());
+        out.write(format.header(COLUMNS));
+        try {
+            projects.parallelStream().forEach(project -> writeProject(project, indexes, format, output));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write(format.footer());
+        out.flush();
+        return output.rows;
+    }
+
+    private void writeProject(Project project, List<Map<String, List<User>>> indexes, ReportFormat format, Output output) {
+        Chunk chunk = new Chunk(format.separator());
+        for (int type = 1; type <= 2; type++) {
+            String flatType = type == 1 ? project.getType1() : project.getType2();
+            if (!flatTypes.isEmpty() && !flatTypes.contains(flatType)) {
+                continue;
+            }
+            int price = type == 1 ? project.getPriceType1() : project.getPriceType2();
+            project.forEachBooked(type, name -> {
+                for (Map<String, List<User>> index : indexes) {
+                    for (User owner : index.getOrDefault(name, Collections.emptyList())) {
+                        if (!matches(owner)) {
+                            continue;
+                        }
+                        chunk.next();
+                        format.row(COLUMNS, new Object[]{project.getProjectName(), project.getNeighborhood(), flatType, price,
+                                owner.getName(), owner.getNric(), owner.getAge(), owner.getMaritalStatus()}, chunk.text);
+                        if (chunk.text.length() >= CHUNK_CHARS) {
+                            output.write(chunk);
+                        }
+                    }
+                }
+            });
+        }
+        output.write(chunk);
+    }
+
+    private boolean matches(User owner) {
+        return owner.getAge() >= minAge && owner.getAge() <= maxAge
+                && (maritalStatus == null || owner.getMaritalStatus().equalsIgnoreCase(maritalStatus));
+    }
+
+    private static Map<String, List<User>> indexByName(List<? extends User> users) {
+        Map<String, List<User>> index = new HashMap<>(users.size() * 2);
+        for (User user : users) {
+            index.computeIfAbsent(user.getName(), k -> new ArrayList<>(1)).add(user);
+        }
+        return index;
+    }
+
+    /**
+     * The rows formatted by one worker and not yet written.
+     */
+    private static final class Chunk {
+        private final String separator;
+        private final StringBuilder text = new StringBuilder();
+        private int rows;
+
+        private Chunk(String separator) {
+            this.separator = separator;
+        }
+
+        private void next() {
+            if (rows++ > 0) {
+                text.append(separator);
+            }
+        }
+    }
+
+    /**
+     * The output shared by the workers, written one chunk at a time.
+     */
+    private static final class Output {
+        private final Writer out;
+        private final String separator;
+        private long rows;
+
+        private Output(Writer out, String separator) {
+            this.out = out;
+            this.separator = separator;
+        }
+
+        private synchronized void write(Chunk chunk) {
+            if (chunk.rows == 0) {
+                return;
+            }
+            try {
+                if (rows > 0) {
+                    out.write(separator);
+                }
+                out.append(chunk.text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows += chunk.rows;
+            chunk.text.setLength(0);
+            chunk.rows = 0;
+        }
+    }
+}
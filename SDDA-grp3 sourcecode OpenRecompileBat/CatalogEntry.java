@@ -0,0 +1,60 @@
+/**
+ * Class representing a single flat type offered by a project in the catalog
+ */
+class CatalogEntry {
+    private final Project project;
+    private final String typeDesignation;
+    private final int ordinal;
+    private final int price;
+
+    /**
+     * Instantiates a new Catalog entry.
+     *
+     * @param project         The project offering the flat type
+     * @param typeDesignation The flat type designation ("Type1" or "Type2")
+     * @param ordinal         The position of the project in the catalog it was indexed from
+     */
+    public CatalogEntry(Project project, String typeDesignation, int ordinal) {
+        this.project = project;
+        this.typeDesignation = typeDesignation;
+        this.ordinal = ordinal;
+        this.price = typeDesignation.equals("Type1") ? project.getPriceType1() : project.getPriceType2();
+    }
+
+    /**
+     * Gets project.
+     *
+     * @return the project
+     */
+    public Project getProject() { return project; }
+
+    /**
+     * Gets type designation.
+     *
+     * @return the type designation
+     */
+    public String getTypeDesignation() { return typeDesignation; }
+
+    /**
+     * Gets ordinal.
+     *
+     * @return the ordinal
+     */
+    public int getOrdinal() { return ordinal; }
+
+    /**
+     * Gets the price of the flat type at the time it was indexed.
+     *
+     * @return the price
+     */
+    public int getPrice() { return price; }
+
+    /**
+     * Gets flat type name, e.g. "2-Room".
+     *
+     * @return the flat type
+     */
+    public String getFlatType() {
+        return typeDesignation.equals("Type1") ? project.getType1() : project.getType2();
+    }
+}
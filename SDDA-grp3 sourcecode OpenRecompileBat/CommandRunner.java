@@ -0,0 +1,483 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Class representing the headless command mode of the system.
+ * <p>
+ * Reads one operation per line and runs it through the same operations as the menus, with one session
+ * that logins replace. A line is either words, the operation followed by its parameters in order
+ * ({@code apply "Slay Town" 2-Room}), or a JSON object naming them
+ * ({@code {"op":"apply","project":"Slay Town","type":"2-Room"}}). Blank lines and lines starting with #
+ * are skipped. Every command is reported with its outcome and time, followed by a summary per operation.
+ * <pre>
+ * login nric password          logout
+ * apply project type           withdraw
+ * enquire project text         reply applicant project reply [enquiry]
+ * approve project applicant    approve-withdrawal project applicant
+ * settle-withdrawals [project] [type]
+ * book project applicant       toggle-visibility project
+ * register-officer project     approve-officer project officer
+ * reject-officer project officer
+ * change-password password     change-filter filter
+ * projects                     enquiries
+ * stats                        report format file [filter]
+ * dashboard
+ * </pre>
+ */
+class CommandRunner {
+    private static final Map<String, String[]> PARAMETERS = new LinkedHashMap<>();
+
+    static {
+        PARAMETERS.put("login", new String[]{"nric", "password"});
+        PARAMETERS.put("logout", new String[0]);
+        PARAMETERS.put("apply", new String[]{"project", "type"});
+        PARAMETERS.put("withdraw", new String[0]);
+        PARAMETERS.put("enquire", new String[]{"project", "text"});
+        PARAMETERS.put("reply", new String[]{"applicant", "project", "reply", "enquiry"});
+        PARAMETERS.put("approve", new String[]{"project", "applicant"});
+        PARAMETERS.put("approve-withdrawal", new String[]{"project", "applicant"});
+        PARAMETERS.put("settle-withdrawals", new String[]{"project", "type"});
+        PARAMETERS.put("book", new String[]{"project", "applicant"});
+        PARAMETERS.put("toggle-visibility", new String[]{"project"});
+        PARAMETERS.put("register-officer", new String[]{"project"});
+        PARAMETERS.put("approve-officer", new String[]{"project", "officer"});
+        PARAMETERS.put("reject-officer", new String[]{"project", "officer"});
+        PARAMETERS.put("change-password", new String[]{"password"});
+        PARAMETERS.put("change-filter", new String[]{"filter"});
+        PARAMETERS.put("projects", new String[0]);
+        PARAMETERS.put("enquiries", new String[0]);
+        PARAMETERS.put("stats", new String[0]);
+        PARAMETERS.put("report", new String[]{"format", "file", "filter"});
+        PARAMETERS.put("dashboard", new String[0]);
+    }
+
+    private final PrintStream out;
+    private final boolean quiet;
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private User user;
+
+    /**
+     * Instantiates a new Command runner.
+     *
+     * @param out   The stream outcomes and the summary are written to
+     * @param quiet Whether only the summary is written
+     */
+    public CommandRunner(PrintStream out, boolean quiet) {
+        this.out = out;
+        this.quiet = quiet;
+    }
+
+    /**
+     * Runs a script file, or standard input if the name is -, and prints the summary.
+     *
+     * @param source the file name or -
+     * @param quiet  whether only the summary is printed
+     */
+    public static void runScript(String source, boolean quiet) {
+        CommandRunner runner = new CommandRunner(System.out, quiet);
+        try (InputStream stream = source.equals("-") ? System.in : new FileInputStream(source);
+             BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            runner.run(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Runs every command of a script and prints the summary.
+     *
+     * @param in the script
+     * @throws IOException if the script cannot be read
+     */
+    public void run(BufferedReader in) throws IOException {
+        long started = System.nanoTime();
+        int lineNumber = 0;
+        int commands = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            commands++;
+            String op = "?";
+            String outcome;
+            boolean ok;
+            long start = System.nanoTime();
+            try {
+                Map<String, String> command = parse(trimmed);
+                op = command.get("op");
+                outcome = execute(op, command);
+                ok = true;
+            } catch (IllegalArgumentException | IllegalStateException | RejectedExecutionException e) {
+                outcome = e.getMessage();
+                ok = false;
+            } catch (RuntimeException e) {
+                // an unexpected failure fails this command only, the replay and its summary go on
+                outcome = e.toString();
+                ok = false;
+            }
+            long elapsed = System.nanoTime() - start;
+            stats.computeIfAbsent(op, k -> new OperationStats()).record(elapsed, ok);
+            if (!quiet) {
+                out.printf("%d %s %s %d us%s%n", lineNumber, op, ok ? "ok" : "error", elapsed / 1_000,
+                        outcome == null || outcome.isEmpty() ? "" : " " + outcome);
+            }
+        }
+        out.flush();
+        printSummary(commands, System.nanoTime() - started);
+    }
+
+    private void printSummary(int commands, long elapsed) {
+        TableRenderer table = TableRenderer.forStream(out);
+        table.begin(String.format("%d commands in %d ms", commands, elapsed / 1_000_000),
+                "Operation", "Count", "Failed", "Mean (us)", "Max (us)", "Total (ms)");
+        stats.forEach((op, s) -> table.row(op, s.count, s.failed, s.totalNanos / s.count / 1_000,
+                s.maxNanos / 1_000, s.totalNanos / 1_000_000));
+        table.render();
+    }
+
+    private String execute(String op, Map<String, String> command) {
+        switch (op) {
+            case "login": {
+                user = null;
+                User found = LoginManager.findUserByNRIC(require(command, "nric"));
+                if (found == null) {
+                    throw new IllegalArgumentException("User not exist!");
+                }
+                if (!LoginManager.authenticate(found, require(command, "password"))) {
+                    throw new IllegalStateException("Wrong password!");
+                }
+                user = found;
+                return found.getName();
+            }
+            case "logout":
+                user = null;
+                return "";
+            case "apply":
+                SDDA_grp3.applyForProject(requireUser(op, User.class), require(command, "project"), require(command, "type"));
+                return "";
+            case "withdraw":
+                SDDA_grp3.withdrawApplication(requireUser(op, User.class));
+                return "";
+            case "enquire":
+                SDDA_grp3.submitEnquiry(requireUser(op, User.class), require(command, "project"), require(command, "text"));
+                return "";
+            case "reply":
+                SDDA_grp3.replyToEnquiry(requireUser(op, User.class), require(command, "applicant"),
+                        require(command, "project"), command.get("enquiry"), require(command, "reply"));
+                return "";
+            case "approve":
+                SDDA_grp3.approveApplication(requireUser(op, Manager.class), require(command, "project"),
+                        require(command, "applicant"));
+                return "";
+            case "approve-withdrawal": {
+                List<String> promoted = SDDA_grp3.approveWithdrawal(requireUser(op, Manager.class), require(command, "project"),
+                        require(command, "applicant"));
+                return promoted.isEmpty() ? "" : "Promoted " + String.join(", ", promoted);
+            }
+            case "settle-withdrawals":
+                return SDDA_grp3.settleWithdrawals(requireUser(op, Manager.class), command.get("project"),
+                        command.get("type")).toString();
+            case "book": {
+                int position = SDDA_grp3.bookFlat(requireUser(op, Officer.class), require(command, "project"), require(command, "applicant"));
+                return position == 0 ? "Booked" : "Waitlisted at " + position;
+            }
+            case "register-officer":
+                SDDA_grp3.registerOfficer(requireUser(op, Officer.class), require(command, "project"));
+                return "";
+            case "approve-officer":
+                SDDA_grp3.approveOfficer(requireUser(op, Manager.class), require(command, "project"), require(command, "officer"));
+                return "";
+            case "reject-officer":
+                SDDA_grp3.rejectOfficer(requireUser(op, Manager.class), require(command, "project"), require(command, "officer"));
+                return "";
+            case "toggle-visibility": {
+                Project project = SDDA_grp3.toggleProjectVisibility(requireUser(op, Manager.class), require(command, "project"));
+                return project.getVisibility() ? "Visible" : "Hidden";
+            }
+            case "change-password": {
+                User current = requireUser(op, User.class);
+                current.setPassword(PasswordHasher.hash(require(command, "password")));
+                if (!FileHandler.updateUser(current)) {
+                    throw new IllegalStateException("Password change failed.");
+                }
+                return "";
+            }
+            case "change-filter": {
+                User current = requireUser(op, User.class);
+                String filter = require(command, "filter");
+                FilterExpression.parse(filter);
+                current.setFilter(filter);
+                if (!FileHandler.updateUser(current)) {
+                    throw new IllegalStateException("Failed to update filter.");
+                }
+                return "";
+            }
+            case "projects": {
+                User current = requireUser(op, User.class);
+                int count = current instanceof Manager
+                        ? FileHandler.selectProjects("ProjectList.csv", current.getCompiledFilter(), false).size()
+                        : SDDA_grp3.eligibleEntries(current).size();
+                return count + " projects";
+            }
+            case "enquiries": {
+                Predicate<Enquiry> visible = SDDA_grp3.enquiryVisibility(requireUser(op, User.class));
+                AtomicInteger count = new AtomicInteger();
+                FileHandler.forEachEnquiry(e -> {
+                    if (visible.test(e)) {
+                        count.incrementAndGet();
+                    }
+                });
+                return count + " enquiries";
+            }
+            case "stats":
+                requireUser(op, Manager.class);
+                out.flush();
+                TableRenderer table = TableRenderer.forStream(out);
+                SDDA_grp3.renderApplicants(table);
+                DataModel.render(table);
+                WriteBehind.render(table);
+                Metrics.render(table);
+                return "";
+            case "dashboard": {
+                List<ProjectCounters> counters = SDDA_grp3.dashboard(requireUser(op, Manager.class));
+                out.flush();
+                ProjectCounters.render(TableRenderer.forStream(out), counters);
+                return counters.size() + " projects";
+            }
+            case "report": {
+                Manager manager = requireUser(op, Manager.class);
+                String filter = command.getOrDefault("filter", "");
+                String format = require(command, "format");
+                String file = require(command, "file");
+                ReportFormat.forName(format);
+                BookingReport.parse(filter);
+                long rows;
+                try (Writer report = new BufferedWriter(new FileWriter(file))) {
+                    rows = SDDA_grp3.exportBookingReport(manager, filter, format, report);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to write report: " + e.getMessage());
+                }
+                return rows + " rows";
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command " + op);
+        }
+    }
+
+    private <T extends User> T requireUser(String op, Class<T> role) {
+        if (user == null) {
+            throw new IllegalStateException(op + " requires a login");
+        }
+        if (!role.isInstance(user)) {
+            throw new IllegalStateException(op + " requires a " + role.getSimpleName() + " login");
+        }
+        return role.cast(user);
+    }
+
+    private static String require(Map<String, String> command, String name) {
+        String value = command.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Parses a command line in either form into its parameters, with the operation under "op".
+     *
+     * @param line the line
+     * @return the parameters
+     * @throws IllegalArgumentException if the line cannot be parsed
+     */
+    static Map<String, String> parse(String line) {
+        if (line.startsWith("{")) {
+            Map<String, String> command = parseJson(line);
+            if (!command.containsKey("op")) {
+                throw new IllegalArgumentException("Missing op");
+            }
+            return command;
+        }
+        List<String> words = words(line);
+        String op = words.get(0);
+        String[] names = PARAMETERS.get(op);
+        if (names == null) {
+            throw new IllegalArgumentException("Unknown command " + op);
+        }
+        if (words.size() - 1 > names.length) {
+            throw new IllegalArgumentException(op + " takes at most " + names.length + " parameters");
+        }
+        Map<String, String> command = new HashMap<>();
+        command.put("op", op);
+        for (int i = 1; i < words.size(); i++) {
+            command.put(names[i - 1], words.get(i));
+        }
+        return command;
+    }
+
+    private static List<String> words(String line) {
+        List<String> words = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean inWord = false;
+        for (char c : line.toCharArray()) {
+            if (c == '"') {
+                quoted = !quoted;
+                inWord = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inWord) {
+                    words.add(current.toString());
+                    current.setLength(0);
+                    inWord = false;
+                }
+            } else {
+                current.append(c);
+                inWord = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (inWord) {
+            words.add(current.toString());
+        }
+        return words;
+    }
+
+    /**
+     * Parses a flat JSON object. Strings, numbers and booleans are kept as text and nulls are left out.
+     */
+    private static Map<String, String> parseJson(String text) {
+        Map<String, String> values = new HashMap<>();
+        int[] pos = {1};
+        skipSpace(text, pos);
+        if (peek(text, pos) == '}') {
+            return values;
+        }
+        while (true) {
+            skipSpace(text, pos);
+            String key = readString(text, pos);
+            skipSpace(text, pos);
+            expect(text, pos, ':');
+            skipSpace(text, pos);
+            String value;
+            if (peek(text, pos) == '"') {
+                value = readString(text, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < text.length() && ",} \t".indexOf(text.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                value = text.substring(start, pos[0]);
+                if (value.isEmpty() || value.startsWith("{") || value.startsWith("[")) {
+                    throw new IllegalArgumentException("Unsupported value for " + key);
+                }
+                if (value.equals("null")) {
+                    value = null;
+                }
+            }
+            if (value != null) {
+                values.put(key, value);
+            }
+            skipSpace(text, pos);
+            char next = peek(text, pos);
+            pos[0]++;
+            if (next == '}') {
+                return values;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("Expected , or } at " + (pos[0] - 1));
+            }
+        }
+    }
+
+    private static String readString(String text, int[] pos) {
+        expect(text, pos, '"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            char c = peek(text, pos);
+            pos[0]++;
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = peek(text, pos);
+            pos[0]++;
+            switch (escaped) {
+                case 'n': value.append('\n'); break;
+                case 't': value.append('\t'); break;
+                case 'r': value.append('\r'); break;
+                case 'b': value.append('\b'); break;
+                case 'f': value.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > text.length()) {
+                        throw new IllegalArgumentException("Invalid escape at " + pos[0]);
+                    }
+                    value.append((char) Integer.parseInt(text.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default: value.append(escaped);
+            }
+        }
+    }
+
+    private static char peek(String text, int[] pos) {
+        if (pos[0] >= text.length()) {
+            throw new IllegalArgumentException("Unexpected end of line");
+        }
+        return text.charAt(pos[0]);
+    }
+
+    private static void expect(String text, int[] pos, char c) {
+        if (peek(text, pos) != c) {
+            throw new IllegalArgumentException("Expected " + c + " at " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    private static void skipSpace(String text, int[] pos) {
+        while (pos[0] < text.length() && Character.isWhitespace(text.charAt(pos[0]))) {
+            pos[0]++;
+        }
+    }
+
+    /**
+     * Timing of one operation over a run.
+     */
+    private static class OperationStats {
+        long count;
+        long failed;
+        long totalNanos;
+        long maxNanos;
+
+        void record(long nanos, boolean ok) {
+            count++;
+            if (!ok) {
+                failed++;
+            }
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+}
@@ -0,0 +1,593 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Class representing the in-memory model of the data files.
+ * <p>
+ * Each data file is parsed once into a store that FileHandler reads from, and the store is replaced
+ * whenever FileHandler writes the file. Callers always get copies, so a change to a project or user only
+ * reaches the model once it is saved. {@link #preload()} parses every file concurrently at startup; a
+ * store that is still loading only blocks the callers that need it, and a store that was not preloaded
+ * is loaded by its first caller.
+ * <p>
+ * Files edited outside the system are picked up through {@link DataWatcher}, which marks the stores of
+ * changed files as dirty. A dirty store is refreshed by the watcher once the edits settle, or at once by
+ * the next caller that reads it, so nobody reads a stale row. Refreshing compares the new rows with the
+ * old ones by key, the NRIC of a user or the name of a project, and keeps the objects and index of rows
+ * that did not change.
+ */
+final class DataModel {
+    private static final int PRELOAD_THREADS =
+            Integer.getInteger("sdda.preload.threads", Math.min(4, Math.max(2, Runtime.getRuntime().availableProcessors())));
+    private static final Map<String, Store<?>> stores = new ConcurrentHashMap<>();
+
+    private DataModel() {
+    }
+
+    /**
+     * Starts loading the user lists, the projects and the enquiries on a small pool and returns at once.
+     * Sharded projects are loaded one store per shard.
+     */
+    static void preload() {
+        List<Store<?>> all = new ArrayList<>(List.of(
+                users("ApplicantList.csv", Applicant.class),
+                users("OfficerList.csv", Officer.class),
+                users("ManagerList.csv", Manager.class),
+                enquiries()));
+        ProjectShards shards = ProjectShards.forList("ProjectList.csv");
+        if (shards == null) {
+            all.add(projects("ProjectList.csv"));
+        } else {
+            all.addAll(shards.stores(Collections.emptySet()));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(PRELOAD_THREADS, all.size()), r -> {
+            Thread t = new Thread(r, "preload");
+            t.setDaemon(true);
+            return t;
+        });
+        for (Store<?> store : all) {
+            store.loadOn(pool);
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Gets the store of a user list.
+     *
+     * @param <T>       the user type
+     * @param filename  the filename of the list
+     * @param userClass the user class
+     * @return the store
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends User> Store<T> users(String filename, Class<T> userClass) {
+        UserRecordStore records = UserRecordStore.forList(filename);
+        return (Store<T>) store(filename, file -> new Store<T>(filename, List.of(file, records.file().getAbsoluteFile()),
+                f -> {
+                    records.reload();
+                    return FileHandler.parseUsers(f, filename, userClass);
+                },
+                u -> userClass.cast(u.copy()),
+                u -> u.getNric().toUpperCase(),
+                FileHandler::userRow));
+    }
+
+    /**
+     * Gets the store of a project list.
+     *
+     * @param filename the filename of the list
+     * @return the store
+     */
+    @SuppressWarnings("unchecked")
+    static Store<Project> projects(String filename) {
+        return (Store<Project>) store(filename, file -> new Store<Project>(filename, List.of(file),
+                f -> {
+                    List<Project> projects = new ArrayList<>();
+                    FileHandler.parseProjects(f, projects::add);
+                    return projects;
+                },
+                Project::copy,
+                Project::getProjectName,
+                FileHandler::projectRow));
+    }
+
+    /**
+     * Gets the store of the enquiries.
+     *
+     * @return the store
+     */
+    @SuppressWarnings("unchecked")
+    static Store<Enquiry> enquiries() {
+        return (Store<Enquiry>) store("EnquiryList.csv", file -> new Store<Enquiry>("EnquiryList.csv", List.of(file),
+                f -> {
+                    List<Enquiry> enquiries = new ArrayList<>();
+                    FileHandler.parseEnquiries(f, enquiries::add);
+                    return enquiries;
+                },
+                Enquiry::copy,
+                null,
+                FileHandler::enquiryRow));
+    }
+
+    /**
+     * Replaces the rows of a store after its whole file was written. Nothing is kept if the file was not
+     * read yet, as its next read parses what was written.
+     *
+     * @param filename the filename
+     * @param written  the rows written
+     * @return false if the file was not read yet
+     */
+    @SuppressWarnings("unchecked")
+    static boolean written(String filename, List<?> written) {
+        Store<Object> store = (Store<Object>) stores.get(FileHandler.dataFile(filename).getAbsolutePath());
+        if (store != null) {
+            store.replace(written);
+        }
+        return store != null;
+    }
+
+    /**
+     * Gets the rows a store holds now, to write them to its file. The rows must not be changed.
+     *
+     * @param <T>      the row type
+     * @param filename the filename
+     * @return the rows
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> current(String filename) {
+        Store<T> store = (Store<T>) stores.get(FileHandler.dataFile(filename).getAbsolutePath());
+        return store != null ? store.rows() : Collections.emptyList();
+    }
+
+    /**
+     * Takes note that the file of a store was written from the rows it holds, or from rows it held
+     * before, so that the write is not read back as a change made outside the system.
+     *
+     * @param filename the filename
+     */
+    static void persisted(String filename) {
+        Store<?> store = stores.get(FileHandler.dataFile(filename).getAbsolutePath());
+        if (store != null) {
+            store.persisted();
+        }
+    }
+
+    /**
+     * Replaces one user after the password or filter was saved.
+     *
+     * @param filename the filename of the user list
+     * @param user     the user
+     */
+    @SuppressWarnings("unchecked")
+    static void saved(String filename, User user) {
+        Store<User> store = (Store<User>) stores.get(FileHandler.dataFile(filename).getAbsolutePath());
+        if (store != null) {
+            store.update(user);
+        }
+    }
+
+    /**
+     * Marks the stores that read a file as dirty if the file is no longer the one they hold.
+     *
+     * @param file the file that changed, or null if any file may have changed
+     */
+    static void fileChanged(File file) {
+        for (Store<?> store : stores.values()) {
+            if (file == null || store.files.contains(file.getAbsoluteFile())) {
+                store.markIfChanged();
+            }
+        }
+    }
+
+    /**
+     * Refreshes every dirty store.
+     */
+    static void refreshDirty() {
+        for (Store<?> store : stores.values()) {
+            store.refresh();
+        }
+    }
+
+    /**
+     * Drops every store, so that the next read parses the files again.
+     */
+    static void clear() {
+        stores.clear();
+    }
+
+    /**
+     * Renders the state, size and load time of every store.
+     *
+     * @param table the renderer
+     */
+    static void render(TableRenderer table) {
+        table.begin("Data stores", "File", "State", "Rows", "Load (ms)", "Refreshes", "Last refresh");
+        stores.values().stream()
+                .sorted((a, b) -> a.name.compareTo(b.name))
+                .forEach(s -> table.row(s.name, s.state(), s.rowCount(), s.loadMillis, s.refreshes, s.lastRefresh));
+        table.render();
+    }
+
+    private static Store<?> store(String filename, Function<File, Store<?>> factory) {
+        File file = FileHandler.dataFile(filename).getAbsoluteFile();
+        return stores.computeIfAbsent(file.getAbsolutePath(), path -> factory.apply(file));
+    }
+
+    /**
+     * The parsed rows of one data file.
+     *
+     * @param <T> the row type
+     */
+    static final class Store<T> {
+        private final String name;
+        private final File file;
+        private final List<File> files;
+        private final Function<File, List<T>> loader;
+        private final UnaryOperator<T> copier;
+        private final Function<T, String> key;
+        private final Function<T, String> text;
+        private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        private final Object refreshLock = new Object();
+        private final Map<String, Object[]> derived = new ConcurrentHashMap<>();
+        private boolean started;
+        private List<T> rows = Collections.emptyList();
+        private Map<String, Integer> index = Collections.emptyMap();
+        private String stamp;
+        private int version;
+        private volatile boolean dirty;
+        private volatile long loadMillis = -1;
+        private volatile int refreshes;
+        private volatile String lastRefresh = "";
+
+        /**
+         * Instantiates a new Store.
+         *
+         * @param name   the filename shown in the stats
+         * @param files  the files the rows are read from, the list itself first
+         * @param loader parses the list
+         * @param copier copies a row
+         * @param key    gets the key of a row, or null if rows have no key
+         * @param text   formats a row as it is written, to tell whether it changed
+         */
+        private Store(String name, List<File> files, Function<File, List<T>> loader, UnaryOperator<T> copier,
+                      Function<T, String> key, Function<T, String> text) {
+            this.name = name;
+            this.file = files.get(0);
+            this.files = files;
+            this.loader = loader;
+            this.copier = copier;
+            this.key = key;
+            this.text = text;
+        }
+
+        /**
+         * Gets copies of every row, in file order.
+         *
+         * @return the rows
+         */
+        List<T> copies() {
+            awaitLoaded();
+            List<T> current = rows();
+            List<T> copies = new ArrayList<>(current.size());
+            for (T row : current) {
+                copies.add(copier.apply(row));
+            }
+            return copies;
+        }
+
+        /**
+         * Passes a copy of every row, in file order, to an action.
+         *
+         * @param action the action
+         */
+        void forEach(Consumer<T> action) {
+            awaitLoaded();
+            for (T row : rows()) {
+                action.accept(copier.apply(row));
+            }
+        }
+
+        /**
+         * Gets an index built from the rows, building it again only after the rows changed. The index is
+         * built from the rows themselves rather than copies, so it must not change them and must not
+         * hand them out.
+         *
+         * @param <I>     the index type
+         * @param name    the name of the index
+         * @param builder builds the index
+         * @return the index
+         */
+        @SuppressWarnings("unchecked")
+        <I> I derived(String name, Function<List<T>, I> builder) {
+            awaitLoaded();
+            List<T> current = rows();
+            Object[] cached = derived.get(name);
+            if (cached != null && cached[0] == current) {
+                return (I) cached[1];
+            }
+            I index = builder.apply(current);
+            derived.put(name, new Object[]{current, index});
+            return index;
+        }
+
+        /**
+         * Checks whether the store holds the same rows as a list, in the same order and as they would be
+         * written, so that writing the list would not change the file.
+         *
+         * @param candidate the rows
+         * @return true if nothing would change
+         */
+        boolean holds(List<T> candidate) {
+            awaitLoaded();
+            List<T> current = rows();
+            if (current.size() != candidate.size()) {
+                return false;
+            }
+            for (int i = 0; i < current.size(); i++) {
+                if (!text.apply(current.get(i)).equals(text.apply(candidate.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets a copy of the row with a key.
+         *
+         * @param rowKey the key, such as an upper case NRIC or a project name
+         * @return the row, or null if there is none
+         */
+        T find(String rowKey) {
+            awaitLoaded();
+            synchronized (this) {
+                Integer position = index.get(rowKey);
+                return position == null ? null : copier.apply(rows.get(position));
+            }
+        }
+
+        /**
+         * Replaces every row after the whole file was written.
+         *
+         * @param written the rows written, which are copied
+         */
+        void replace(List<? extends T> written) {
+            List<T> copies = new ArrayList<>(written.size());
+            for (T row : written) {
+                copies.add(copier.apply(row));
+            }
+            synchronized (this) {
+                set(copies);
+                stamp = stamp(files);
+                version++;
+                dirty = false;
+                started = true;
+                loaded.complete(null);
+            }
+        }
+
+        /**
+         * Takes note of the current state of the files without changing the rows.
+         */
+        void persisted() {
+            synchronized (this) {
+                stamp = stamp(files);
+                version++;
+                dirty = false;
+            }
+        }
+
+        /**
+         * Replaces the row with the same key as a saved row. Only the side files were written, so only
+         * their part of the stamp moves on, and an edit made to the list itself meanwhile is still read.
+         *
+         * @param saved the saved row, which is copied
+         */
+        void update(T saved) {
+            awaitLoadedOnly();
+            synchronized (this) {
+                Integer position = index.get(key.apply(saved));
+                if (position != null) {
+                    List<T> newRows = new ArrayList<>(rows);
+                    newRows.set(position, copier.apply(saved));
+                    rows = newRows;
+                }
+                if (stamp != null) {
+                    stamp = stamp.substring(0, stamp.indexOf(';') + 1) + stamp(files.subList(1, files.size()));
+                }
+                version++;
+            }
+        }
+
+        /**
+         * Marks the store as dirty if one of its files is no longer as it was when last read or written.
+         */
+        void markIfChanged() {
+            synchronized (this) {
+                if (!started || stamp(files).equals(stamp)) {
+                    return;
+                }
+                dirty = true;
+            }
+        }
+
+        /**
+         * Reads the files again if the store is dirty, keeping the rows that did not change.
+         */
+        void refresh() {
+            synchronized (refreshLock) {
+                int startVersion;
+                String newStamp;
+                synchronized (this) {
+                    if (!dirty || !loaded.isDone()) {
+                        return;
+                    }
+                    dirty = false;
+                    startVersion = version;
+                    newStamp = stamp(files);
+                    if (newStamp.equals(stamp)) {
+                        return;
+                    }
+                }
+                try (TimedOperation operation = TimedOperation.begin("refresh " + name, null, null)) {
+                    List<T> parsed = FileLocks.reading(file, () -> loader.apply(file));
+                    synchronized (this) {
+                        if (version == startVersion) {
+                            merge(parsed);
+                            stamp = newStamp;
+                            version++;
+                            refreshes++;
+                        } else {
+                            // a save came in while parsing, read again unless it wrote the whole list
+                            dirty = true;
+                        }
+                    }
+                    operation.succeeded();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void loadOn(ExecutorService pool) {
+            synchronized (this) {
+                if (started) {
+                    return;
+                }
+                started = true;
+            }
+            pool.execute(this::load);
+        }
+
+        /**
+         * Waits until the rows are loaded, loading them in the caller if nobody started to, and refreshes
+         * them if their files changed.
+         */
+        void awaitLoaded() {
+            awaitLoadedOnly();
+            if (dirty) {
+                refresh();
+            }
+        }
+
+        private void awaitLoadedOnly() {
+            boolean loadHere;
+            synchronized (this) {
+                loadHere = !started;
+                started = true;
+            }
+            if (loadHere) {
+                load();
+            }
+            loaded.join();
+        }
+
+        private void load() {
+            long start = System.nanoTime();
+            try (TimedOperation operation = TimedOperation.begin("load " + name, null, null)) {
+                String[] newStamp = new String[1];
+                List<T> parsed = FileLocks.reading(file, () -> {
+                    newStamp[0] = stamp(files);
+                    return loader.apply(file);
+                });
+                synchronized (this) {
+                    if (!loaded.isDone()) {
+                        set(new ArrayList<>(parsed));
+                        stamp = newStamp[0];
+                    }
+                }
+                operation.succeeded();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                loadMillis = (System.nanoTime() - start) / 1_000_000;
+                loaded.complete(null);
+            }
+        }
+
+        /**
+         * Replaces the rows with newly parsed ones, keeping the old object of every row whose key and text
+         * are unchanged, and keeping the index if no key moved.
+         */
+        private void merge(List<T> parsed) {
+            Map<String, T> old = new HashMap<>(rows.size() * 2);
+            for (T row : rows) {
+                old.putIfAbsent(keyOf(row), row);
+            }
+            boolean sameKeys = parsed.size() == rows.size();
+            int added = 0;
+            int changed = 0;
+            List<T> merged = new ArrayList<>(parsed.size());
+            for (int i = 0; i < parsed.size(); i++) {
+                T row = parsed.get(i);
+                String rowKey = keyOf(row);
+                if (sameKeys && !rowKey.equals(keyOf(rows.get(i)))) {
+                    sameKeys = false;
+                }
+                T previous = old.remove(rowKey);
+                if (previous == null) {
+                    added++;
+                } else if (text.apply(previous).equals(text.apply(row))) {
+                    row = previous;
+                } else {
+                    changed++;
+                }
+                merged.add(row);
+            }
+            lastRefresh = String.format("%d changed, %d added, %d removed", changed, added, old.size());
+            if (sameKeys) {
+                rows = merged;
+            } else {
+                set(merged);
+            }
+        }
+
+        private String keyOf(T row) {
+            return key != null ? key.apply(row) : text.apply(row);
+        }
+
+        private static String stamp(List<File> files) {
+            StringBuilder stamp = new StringBuilder();
+            for (File f : files) {
+                stamp.append(f.lastModified()).append(':').append(f.length()).append(';');
+            }
+            return stamp.toString();
+        }
+
+        private void set(List<T> newRows) {
+            rows = newRows;
+            if (key != null) {
+                Map<String, Integer> newIndex = new HashMap<>(newRows.size() * 2);
+                for (int i = 0; i < newRows.size(); i++) {
+                    newIndex.putIfAbsent(key.apply(newRows.get(i)), i);
+                }
+                index = newIndex;
+            }
+        }
+
+        /**
+         * Gets the current rows. A list is never changed once set, so it can be read without the lock.
+         */
+        private synchronized List<T> rows() {
+            return rows;
+        }
+
+        private String state() {
+            return !loaded.isDone() ? "loading" : dirty ? "dirty" : loadMillis < 0 ? "written" : "loaded";
+        }
+
+        private int rowCount() {
+            return rows().size();
+        }
+    }
+}
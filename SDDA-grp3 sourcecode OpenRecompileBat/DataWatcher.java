@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class representing the watcher that keeps the in-memory model in step with files edited outside the system.
+ * <p>
+ * The data directory is watched with a {@link WatchService}. Every event marks the stores of the changed
+ * file as dirty at once, so a caller reading one of them refreshes it first; the watcher itself refreshes
+ * the dirty stores once no event has arrived for the debounce period, so an editor saving a file in several
+ * writes causes one refresh. Files written by the system itself are not refreshed, since their stores
+ * already hold what was written. The watcher is on unless the system is started with -Dsdda.watch=false,
+ * and -Dsdda.watch.debounce sets the period in milliseconds.
+ */
+class DataWatcher {
+    private static final long DEBOUNCE_MILLIS = Long.getLong("sdda.watch.debounce", 200);
+
+    private final List<Path> dirs = new ArrayList<>();
+    private WatchService service;
+    private Thread worker;
+
+    /**
+     * Instantiates a new Data watcher.
+     *
+     * @param dir the data directory
+     */
+    public DataWatcher(Path dir) {
+        dirs.add(dir.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Watches another directory, such as the directory of a sharded project list. Only takes effect
+     * before {@link #start()}.
+     *
+     * @param other the directory
+     */
+    public synchronized void watch(Path other) {
+        dirs.add(other.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Registers the watched directories and starts the worker thread.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            for (Path watched : dirs) {
+                watched.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            System.out.println("Data files will not be watched: " + e.getMessage());
+            return;
+        }
+        worker = new Thread(this::run, "data-watcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the worker thread.
+     */
+    public synchronized void stop() {
+        if (worker != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            worker = null;
+        }
+    }
+
+    private void run() {
+        try {
+            boolean pending = false;
+            while (true) {
+                WatchKey key = pending ? service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS) : service.take();
+                if (key == null) {
+                    pending = false;
+                    DataModel.refreshDirty();
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        DataModel.fileChanged(null);
+                    } else {
+                        DataModel.fileChanged(((Path) key.watchable()).resolve((Path) event.context()).toFile());
+                    }
+                }
+                key.reset();
+                pending = true;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+}
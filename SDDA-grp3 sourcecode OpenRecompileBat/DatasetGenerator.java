@@ -0,0 +1,444 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Class representing the generator of synthetic data files for load testing.
+ * <p>
+ * Writes ApplicantList.csv, OfficerList.csv, ManagerList.csv, ProjectList.csv and EnquiryList.csv in the
+ * schema used by {@link FileHandler}. Every attribute of a row is derived from the seed and the row number
+ * alone, so rows are written as they are generated and the same seed always gives the same files. Each
+ * project takes its applicants from its own contiguous range of applicant rows, which lets the project
+ * list recompute the age, marital status and application status of every applicant without reading the
+ * applicant list back. Usage:
+ * <pre>
+ * java DatasetGenerator [--seed=42] [--applicants=100000] [--officers=1000] [--managers=100]
+ *                       [--projects=1000] [--enquiries=10000] [--apply-rate=0.6] [--legacy-passwords] --out=dir
+ * </pre>
+ * The files are written to the directory given with --out, which is created if needed. It is required so
+ * that the sample lists of the data directory are never overwritten by accident; point -Dsdda.data.dir at
+ * it to run the system on the generated files. All users get the password "password", stored as one
+ * PBKDF2 hash shared by every row, or in the plain Base64 form written before hashing with
+ * --legacy-passwords, which exercises the rehash on login.
+ */
+class DatasetGenerator {
+    private static final String USER_HEADER = "Name,NRIC,Age,Marital Status,Password,Filter";
+    private static final String PROJECT_HEADER = "Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer,Visibility,OfficerPending,OfficerUnsuccessful,Type1OwnerPending,Type1OwnerUnsuccessful,Type1OwnerSuccessful,Type1OwnerBooked,Type1WithdrawalPending,Type2OwnerPending,Type2OwnerUnsuccessful,Type2OwnerSuccessful,Type2OwnerBooked,Type2WithdrawalPending,Type1Waitlist,Type2Waitlist,Type1WithdrawalBooked,Type2WithdrawalBooked";
+    private static final String ENQUIRY_HEADER = "Name,Project,String,Reply";
+
+    private static final String[] FIRST_NAMES = {
+            "Aaron", "Aisha", "Benjamin", "Chloe", "Daniel", "Divya", "Emily", "Farhan", "Grace", "Hui Min",
+            "Isaac", "Jia Hui", "Kumar", "Li Wei", "Marcus", "Nur", "Oliver", "Priya", "Qi Xuan", "Rachel",
+            "Siti", "Timothy", "Umar", "Vanessa", "Wei Jie", "Xin Yi", "Yusuf", "Zhi Hao"};
+    private static final String[] LAST_NAMES = {
+            "Tan", "Lim", "Lee", "Ng", "Ong", "Wong", "Goh", "Chua", "Chan", "Koh", "Teo", "Ang", "Yeo",
+            "Tay", "Ho", "Low", "Toh", "Sim", "Chong", "Chia", "Rahman", "Ismail", "Singh", "Nair", "Pillai"};
+    private static final String[] PROJECT_WORDS = {
+            "Acacia", "Bayshore", "Cove", "Dawson", "Emerald", "Fernvale", "Greenwood", "Harbour", "Ivory",
+            "Jade", "Kovan", "Lakeside", "Maple", "Northshore", "Orchid", "Pinewood", "Quayside", "Riverside",
+            "Sunrise", "Tanjong", "Unity", "Verdant", "Willow", "Yew Tee"};
+    private static final String[] PROJECT_SUFFIXES = {
+            "Breeze", "Court", "Crest", "Edge", "Gardens", "Grove", "Heights", "Residences", "Spring", "Vista"};
+    private static final String[] NEIGHBOURHOODS = {
+            "Ang Mo Kio", "Bedok", "Bukit Batok", "Choa Chu Kang", "Clementi", "Hougang", "Jurong West",
+            "Pasir Ris", "Punggol", "Queenstown", "Sembawang", "Sengkang", "Tampines", "Toa Payoh",
+            "Woodlands", "Yishun"};
+    private static final String[] QUESTIONS = {
+            "When will the keys be collected", "Is there a carpark nearby", "How far is the nearest MRT",
+            "Can I change my flat type", "Are the units wheelchair accessible", "Is the price negotiable",
+            "When is the expected completion date", "How many units are left"};
+    private static final String[] REPLIES = {
+            "Please refer to the project brochure", "Yes", "No", "About ten minutes on foot",
+            "Completion is expected in three years", "Units are allocated by ballot"};
+
+    private static final int AGE = 1;
+    private static final int MARRIED = 2;
+    private static final int APPLY = 3;
+    private static final int FLAT_TYPE = 4;
+    private static final int STATUS = 5;
+    private static final int PROJECT = 6;
+    private static final int ENQUIRY = 7;
+
+    private static final int PENDING = 0;
+    private static final int UNSUCCESSFUL = 1;
+    private static final int SUCCESSFUL = 2;
+    private static final int BOOKED = 3;
+    private static final int WITHDRAWAL_PENDING = 4;
+    private static final double[] STATUS_SHARES = {0.35, 0.25, 0.15, 0.20, 0.05};
+
+    private final long seed;
+    private final int applicants;
+    private final int officers;
+    private final int managers;
+    private final int projects;
+    private final int enquiries;
+    private final double applyRate;
+    private final String password;
+    private final long[] blockStart;
+
+    /**
+     * Instantiates a new Dataset generator.
+     *
+     * @param seed       the seed
+     * @param applicants the number of applicants
+     * @param officers   the number of officers
+     * @param managers   the number of managers
+     * @param projects   the number of projects
+     * @param enquiries  the number of enquiries
+     * @param applyRate  the share of applicants that have applied for a project
+     * @param legacyPasswords whether passwords are written in the plain Base64 form instead of hashed
+     */
+    public DatasetGenerator(long seed, int applicants, int officers, int managers, int projects, int enquiries,
+                            double applyRate, boolean legacyPasswords) {
+        this.seed = seed;
+        this.applicants = applicants;
+        this.officers = Math.max(1, officers);
+        this.managers = Math.max(1, managers);
+        this.projects = projects;
+        this.enquiries = enquiries;
+        this.applyRate = applyRate;
+        this.password = legacyPasswords
+                ? Base64.getEncoder().encodeToString("password".getBytes())
+                : PasswordHasher.hash("password");
+        this.blockStart = partitionApplicants();
+    }
+
+    /**
+     * Splits the applicant rows into one contiguous range per project. Range sizes follow a log-normal
+     * distribution, so a few popular projects draw most of the applications.
+     */
+    private long[] partitionApplicants() {
+        long[] starts = new long[projects + 1];
+        if (projects == 0) {
+            return starts;
+        }
+        double[] weights = new double[projects];
+        double total = 0;
+        for (int p = 0; p < projects; p++) {
+            double u1 = Math.max(unit(PROJECT, 2L * p), Double.MIN_VALUE);
+            double u2 = unit(PROJECT, 2L * p + 1);
+            double gaussian = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+            weights[p] = Math.exp(gaussian);
+            total += weights[p];
+        }
+        double cumulative = 0;
+        for (int p = 0; p < projects; p++) {
+            starts[p] = Math.round(applicants * cumulative / total);
+            cumulative += weights[p];
+        }
+        starts[projects] = applicants;
+        return starts;
+    }
+
+    /**
+     * Writes all five data files.
+     *
+     * @param dir the directory
+     * @throws IOException if a file cannot be written
+     */
+    public void generate(File dir) throws IOException {
+        writeUsers(new File(dir, "ApplicantList.csv"), applicants, 0, true);
+        writeUsers(new File(dir, "OfficerList.csv"), officers, applicants, false);
+        writeUsers(new File(dir, "ManagerList.csv"), managers, (long) applicants + officers, false);
+        writeProjects(new File(dir, "ProjectList.csv"));
+        writeEnquiries(new File(dir, "EnquiryList.csv"));
+        for (String list : new String[]{"ApplicantList", "OfficerList", "ManagerList"}) {
+            new File(dir, list + ".rec").delete();
+        }
+    }
+
+    private static Writer open(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private void writeUsers(File file, int count, long firstId, boolean applicantList) throws IOException {
+        try (Writer out = open(file)) {
+            out.write(USER_HEADER);
+            out.write('\n');
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                int age = applicantList ? applicantAge(i) : 25 + (int) (unit(AGE, id) * 35);
+                boolean married = applicantList ? isMarried(i) : unit(MARRIED, id) < 0.6;
+                out.write(userName(id));
+                out.write(',');
+                out.write(nric(id));
+                out.write(',');
+                out.write(Integer.toString(age));
+                out.write(married ? ",Married," : ",Single,");
+                out.write(password);
+                out.write(",None\n");
+            }
+        }
+    }
+
+    private void writeProjects(File file) throws IOException {
+        try (Writer out = open(file)) {
+            out.write(PROJECT_HEADER);
+            out.write('\n');
+            for (int p = 0; p < projects; p++) {
+                writeProject(out, p);
+            }
+        }
+    }
+
+    private void writeProject(Writer out, int p) throws IOException {
+        long from = blockStart[p];
+        long to = blockStart[p + 1];
+        int booked1 = 0;
+        int booked2 = 0;
+        for (long i = from; i < to; i++) {
+            int flatType = flatTypeOf(i);
+            if (flatType != 0 && statusOf(i) == BOOKED) {
+                if (flatType == 1) {
+                    booked1++;
+                } else {
+                    booked2++;
+                }
+            }
+        }
+        int units1 = 20 + (int) (unit(PROJECT, p * 16L + 1) * 480);
+        int units2 = 20 + (int) (unit(PROJECT, p * 16L + 2) * 480);
+        int price1 = 200_000 + 1_000 * (int) (unit(PROJECT, p * 16L + 3) * 200);
+        int price2 = price1 + 50_000 + 1_000 * (int) (unit(PROJECT, p * 16L + 4) * 250);
+        LocalDate opening = LocalDate.of(2025, 1, 1).plusDays((long) (unit(PROJECT, p * 16L + 5) * 900));
+        LocalDate closing = opening.plusDays(14 + (long) (unit(PROJECT, p * 16L + 6) * 76));
+        int slots = 1 + (int) (unit(PROJECT, p * 16L + 7) * 10);
+        int assigned = Math.min(officers, (int) Math.ceil(slots * unit(PROJECT, p * 16L + 8)));
+        int pendingOfficers = Math.min(officers - assigned, (int) (unit(PROJECT, p * 16L + 9) * 3));
+        int rejectedOfficers = Math.min(officers - assigned - pendingOfficers, (int) (unit(PROJECT, p * 16L + 10) * 3));
+        int firstOfficer = (int) (unit(PROJECT, p * 16L + 11) * officers);
+        long manager = (long) applicants + officers + (long) (unit(PROJECT, p * 16L + 12) * managers);
+        boolean visible = unit(PROJECT, p * 16L + 13) < 0.8;
+
+        out.write(projectName(p));
+        out.write(',');
+        out.write(NEIGHBOURHOODS[(int) (unit(PROJECT, p * 16L + 14) * NEIGHBOURHOODS.length)]);
+        out.write(",2-Room," + (units1 - Math.min(units1, booked1)) + "," + price1);
+        out.write(",3-Room," + (units2 - Math.min(units2, booked2)) + "," + price2);
+        out.write("," + opening + "," + closing + ",");
+        out.write(userName(manager));
+        out.write("," + slots + ",");
+        writeOfficers(out, firstOfficer, 0, assigned);
+        out.write(visible ? ",true," : ",false,");
+        writeOfficers(out, firstOfficer, assigned, pendingOfficers);
+        out.write(',');
+        writeOfficers(out, firstOfficer, assigned + pendingOfficers, rejectedOfficers);
+        for (int flatType = 1; flatType <= 2; flatType++) {
+            for (int status = PENDING; status <= WITHDRAWAL_PENDING; status++) {
+                out.write(',');
+                writeApplicants(out, from, to, flatType, status);
+            }
+        }
+        // nobody is generated on a waitlist or with a booked withdrawal
+        out.write(",,,,\n");
+    }
+
+    private void writeOfficers(Writer out, int first, int offset, int count) throws IOException {
+        if (count > 1) {
+            out.write('"');
+        }
+        for (int k = 0; k < count; k++) {
+            if (k > 0) {
+                out.write(',');
+            }
+            out.write(userName(applicants + (first + offset + k) % officers));
+        }
+        if (count > 1) {
+            out.write('"');
+        }
+    }
+
+    /**
+     * Writes one status list of a project. The range is scanned twice, once to find out whether the
+     * list needs quotes, so that nothing but the current name is held.
+     */
+    private void writeApplicants(Writer out, long from, long to, int flatType, int status) throws IOException {
+        int count = 0;
+        for (long i = from; i < to && count < 2; i++) {
+            if (flatTypeOf(i) == flatType && statusOf(i) == status) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        if (count > 1) {
+            out.write('"');
+        }
+        boolean first = true;
+        for (long i = from; i < to; i++) {
+            if (flatTypeOf(i) == flatType && statusOf(i) == status) {
+                if (!first) {
+                    out.write(',');
+                }
+                out.write(userName(i));
+                first = false;
+            }
+        }
+        if (count > 1) {
+            out.write('"');
+        }
+    }
+
+    private void writeEnquiries(File file) throws IOException {
+        try (Writer out = open(file)) {
+            out.write(ENQUIRY_HEADER);
+            out.write('\n');
+            for (int e = 0; e < enquiries && applicants > 0 && projects > 0; e++) {
+                long applicant = (long) (unit(ENQUIRY, e * 4L) * applicants);
+                int project = (int) (unit(ENQUIRY, e * 4L + 1) * projects);
+                double reply = unit(ENQUIRY, e * 4L + 2);
+                out.write(userName(applicant));
+                out.write(',');
+                out.write(projectName(project));
+                out.write(',');
+                out.write(QUESTIONS[(int) (unit(ENQUIRY, e * 4L + 3) * QUESTIONS.length)]);
+                out.write(',');
+                if (reply < 0.5) {
+                    out.write(REPLIES[(int) (reply * 2 * REPLIES.length)]);
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    private int applicantAge(long i) {
+        return 18 + (int) (unit(AGE, i) * 53);
+    }
+
+    private boolean isMarried(long i) {
+        return unit(MARRIED, i) < 0.6;
+    }
+
+    /**
+     * Gets the flat type an applicant applied for, 1 for 2-Room and 2 for 3-Room, or 0 if the applicant
+     * has not applied or is not eligible for either.
+     */
+    private int flatTypeOf(long i) {
+        if (unit(APPLY, i) >= applyRate) {
+            return 0;
+        }
+        int age = applicantAge(i);
+        if (isMarried(i) && age >= 21) {
+            return unit(FLAT_TYPE, i) < 0.55 ? 2 : 1;
+        }
+        return !isMarried(i) && age >= 35 ? 1 : 0;
+    }
+
+    private int statusOf(long i) {
+        double u = unit(STATUS, i);
+        for (int status = PENDING; status < WITHDRAWAL_PENDING; status++) {
+            u -= STATUS_SHARES[status];
+            if (u < 0) {
+                return status;
+            }
+        }
+        return WITHDRAWAL_PENDING;
+    }
+
+    private static String userName(long id) {
+        int first = (int) (id % FIRST_NAMES.length);
+        long rest = id / FIRST_NAMES.length;
+        int last = (int) (rest % LAST_NAMES.length);
+        long generation = rest / LAST_NAMES.length;
+        String name = FIRST_NAMES[first] + " " + LAST_NAMES[last];
+        return generation == 0 ? name : name + " " + generation;
+    }
+
+    private static String projectName(int p) {
+        int word = p % PROJECT_WORDS.length;
+        int rest = p / PROJECT_WORDS.length;
+        int suffix = rest % PROJECT_SUFFIXES.length;
+        int generation = rest / PROJECT_SUFFIXES.length;
+        String name = PROJECT_WORDS[word] + " " + PROJECT_SUFFIXES[suffix];
+        return generation == 0 ? name : name + " " + generation;
+    }
+
+    /**
+     * Gets the NRIC of a user. Ids are spread over the S and T prefixes and the check letters, which
+     * leaves room for 520 million distinct users.
+     */
+    private static String nric(long id) {
+        long digits = id % 10_000_000L;
+        long rest = id / 10_000_000L;
+        char prefix = rest % 2 == 0 ? 'S' : 'T';
+        char letter = (char) ('A' + (rest / 2) % 26);
+        return String.format("%c%07d%c", prefix, digits, letter);
+    }
+
+    /**
+     * Gets a uniformly distributed number in [0, 1) for an attribute of a row.
+     */
+    private double unit(int attribute, long row) {
+        long z = seed * 0x9E3779B97F4A7C15L + attribute * 0xBF58476D1CE4E5B9L + row;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Generates a dataset.
+     *
+     * @param args the options, see the class description
+     */
+    public static void main(String[] args) {
+        long seed = 42;
+        int applicants = 100_000;
+        int officers = 1_000;
+        int managers = 100;
+        int projects = 1_000;
+        int enquiries = 10_000;
+        double applyRate = 0.6;
+        boolean legacyPasswords = false;
+        File out = null;
+        try {
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                String key = eq < 0 ? arg : arg.substring(0, eq);
+                String value = eq < 0 ? "" : arg.substring(eq + 1);
+                switch (key) {
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--applicants": applicants = Integer.parseInt(value); break;
+                    case "--officers": officers = Integer.parseInt(value); break;
+                    case "--managers": managers = Integer.parseInt(value); break;
+                    case "--projects": projects = Integer.parseInt(value); break;
+                    case "--enquiries": enquiries = Integer.parseInt(value); break;
+                    case "--apply-rate": applyRate = Double.parseDouble(value); break;
+                    case "--legacy-passwords": legacyPasswords = true; break;
+                    case "--out": out = new File(value); break;
+                    default:
+                        System.out.println("Unknown option " + arg);
+                        return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number: " + e.getMessage());
+            return;
+        }
+        if (out == null) {
+            System.out.println("Missing --out=dir, the directory to write the data files to");
+            return;
+        }
+        if (!out.isDirectory() && !out.mkdirs()) {
+            System.out.println("Cannot create " + out);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            new DatasetGenerator(seed, applicants, officers, managers, projects, enquiries, applyRate, legacyPasswords)
+                    .generate(out);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        System.out.printf("Generated %d applicants, %d officers, %d managers, %d projects and %d enquiries in %d ms.%n",
+                applicants, officers, managers, projects, enquiries, (System.nanoTime() - start) / 1_000_000);
+    }
+}
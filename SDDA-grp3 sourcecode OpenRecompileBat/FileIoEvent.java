@@ -0,0 +1,103 @@
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Class representing the Flight Recorder event of one whole read or write of a data file.
+ * <p>
+ * Started when a FileHandler method opens the file and ended by {@link #read(long)},
+ * {@link #written(long)} or {@link #written(long, long)}, which also count the I/O in {@link Metrics}. The file length is only looked
+ * up if the event or the metrics will use it.
+ */
+@Name("sdda.FileIO")
+@Label("File I/O")
+@Category("SDDA")
+@Description("A data file read or written by a FileHandler method or the user record store")
+class FileIoEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Bytes Read")
+    @DataAmount(DataAmount.BYTES)
+    long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount(DataAmount.BYTES)
+    long bytesWritten;
+
+    private transient File file;
+
+    /**
+     * Starts the event of a FileHandler method.
+     *
+     * @param method the method name
+     * @param file   the file
+     * @return the event
+     */
+    static FileIoEvent begin(String method, File file) {
+        FileIoEvent event = new FileIoEvent();
+        event.method = method;
+        event.file = file;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event after the whole file was read.
+     *
+     * @param rows the number of rows parsed
+     */
+    void read(long rows) {
+        Metrics.fileRead(method, file, rows);
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            path = file.getPath();
+            bytesRead = file.length();
+            commit();
+        }
+    }
+
+    /**
+     * Ends the event after the whole file was written.
+     *
+     * @param rows the number of rows written
+     */
+    void written(long rows) {
+        Metrics.fileWritten(method, file, rows);
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            path = file.getPath();
+            bytesWritten = file.length();
+            commit();
+        }
+    }
+
+    /**
+     * Ends the event after part of the file was written, such as one record.
+     *
+     * @param bytes the number of bytes written
+     * @param rows  the number of rows written
+     */
+    void written(long bytes, long rows) {
+        Metrics.bytesWritten(method, bytes, rows);
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            path = file.getPath();
+            bytesWritten = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Class representing the locks that make reading and writing the data files safe across threads.
+ * <p>
+ * Every data file has its own stripe: a read/write lock and a writer lock. A file is replaced by writing
+ * a temporary file beside it and renaming that over it, so the file is never seen truncated or half
+ * written. Writers of one file take turns on the writer lock while they write the temporary file, which
+ * readers do not wait for, and take the write lock only to rename it and to update the in-memory model.
+ * Readers hold the read lock while they read, so they never wait for each other and what they read is
+ * the file as it stood after one whole write, in step with the model.
+ * <p>
+ * A stripe also has a mutation lock, which readers and writers do not take. Code that reads a file,
+ * changes what it read and writes it back holds it throughout, so that two such changes of one file are
+ * made one after the other rather than each from a copy read before the other was written.
+ */
+final class FileLocks {
+    private static final Map<String, Stripe> stripes = new ConcurrentHashMap<>();
+
+    private FileLocks() {
+    }
+
+    /**
+     * Writes the rows of a file.
+     */
+    interface RowWriter {
+        /**
+         * Writes the rows.
+         *
+         * @param pw the writer of the temporary file
+         * @throws IOException if a row cannot be written
+         */
+        void write(PrintWriter pw) throws IOException;
+    }
+
+    /**
+     * Reads a file under its read lock.
+     *
+     * @param <T>    the result type
+     * @param file   the file
+     * @param reader reads the file
+     * @return what was read
+     */
+    static <T> T reading(File file, Supplier<T> reader) {
+        ReentrantReadWriteLock.ReadLock lock = stripe(file).lock.readLock();
+        lock.lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the mutation lock of a file.
+     *
+     * @param file the file
+     * @return the lock, reentrant
+     */
+    static ReentrantLock mutation(File file) {
+        return stripe(file).mutation;
+    }
+
+    /**
+     * Replaces a file with a temporary file renamed over it.
+     *
+     * @param file      the file
+     * @param writer    writes the new rows
+     * @param committed run under the write lock once the file is replaced, such as updating the model
+     * @return false if the file could not be written, in which case it is left as it was
+     */
+    static boolean replace(File file, RowWriter writer, Runnable committed) {
+        return replace(file, writer, committed, false);
+    }
+
+    /**
+     * Replaces a file with a temporary file renamed over it, optionally forcing the temporary file to
+     * disk before it is renamed.
+     *
+     * @param file      the file
+     * @param writer    writes the new rows
+     * @param committed run under the write lock once the file is replaced, such as updating the model
+     * @param force     whether to force the file to disk
+     * @return false if the file could not be written, in which case it is left as it was
+     */
+    static boolean replace(File file, RowWriter writer, Runnable committed, boolean force) {
+        Stripe stripe = stripe(file);
+        stripe.writer.lock();
+        try {
+            Path target = file.getAbsoluteFile().toPath();
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                try (FileOutputStream out = new FileOutputStream(temp.toFile());
+                     PrintWriter pw = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset())))) {
+                    writer.write(pw);
+                    pw.flush();
+                    if (pw.checkError()) {
+                        throw new IOException("Failed to write " + temp);
+                    }
+                    if (force) {
+                        out.getFD().sync();
+                    }
+                }
+                stripe.lock.writeLock().lock();
+                try {
+                    move(temp, target);
+                    committed.run();
+                } finally {
+                    stripe.lock.writeLock().unlock();
+                }
+                return true;
+            } catch (IOException e) {
+                e.printStackTrace();
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // left for the next write to replace
+                }
+                return false;
+            }
+        } finally {
+            stripe.writer.unlock();
+        }
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Stripe stripe(File file) {
+        return stripes.computeIfAbsent(file.getAbsoluteFile().toPath().normalize().toString(), k -> new Stripe());
+    }
+
+    /**
+     * The locks of one file.
+     */
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ReentrantLock writer = new ReentrantLock();
+        private final ReentrantLock mutation = new ReentrantLock();
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Management interface of the file I/O of one FileHandler method, registered as
+ * sdda:type=FileHandler,name=... when metrics are enabled.
+ */
+public interface FileMetricsMXBean {
+    /**
+     * Gets the number of times a file was read or written whole.
+     *
+     * @return the count
+     */
+    long getCalls();
+
+    /**
+     * Gets the number of rows parsed or written.
+     *
+     * @return the count
+     */
+    long getRows();
+
+    /**
+     * Gets the number of bytes read.
+     *
+     * @return the count
+     */
+    long getBytesRead();
+
+    /**
+     * Gets the number of bytes written.
+     *
+     * @return the count
+     */
+    long getBytesWritten();
+
+    /**
+     * Sets every counter back to 0.
+     */
+    void reset();
+}
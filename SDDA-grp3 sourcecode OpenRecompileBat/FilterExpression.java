@@ -0,0 +1,291 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Class representing a compiled project filter stored in the Filter column of the user lists.
+ * <p>
+ * A filter is either a legacy single value (None, 2-Room, 3-Room or a neighbourhood) or a list of
+ * space separated {@code key:value} clauses, for example
+ * {@code type:3-Room hood:Hougang|Sengkang price:<400000 open:now}.
+ * <ul>
+ *     <li>{@code type:} flat types separated by {@code |}, {@code 2} and {@code 3} are short for 2-Room and 3-Room</li>
+ *     <li>{@code hood:} (or {@code neighbourhood:}) neighbourhoods separated by {@code |}</li>
+ *     <li>{@code price:} one of {@code <N}, {@code <=N}, {@code >N}, {@code >=N}, {@code N-M} or {@code N}</li>
+ *     <li>{@code open:} {@code now} or a date (yyyy-MM-dd) on which applications must be open</li>
+ *     <li>{@code closing:} a number of days within which the application period must close</li>
+ * </ul>
+ * Values containing spaces are written in double quotes. Repeated type and hood clauses widen the
+ * selection, repeated price clauses narrow it. Commas are not allowed as the user lists are comma separated.
+ */
+class FilterExpression {
+    private static final FilterExpression NONE = new FilterExpression("None");
+
+    private final String source;
+    private final List<String> flatTypes = new ArrayList<>();
+    private final List<String> neighbourhoods = new ArrayList<>();
+    private int minPrice = Integer.MIN_VALUE;
+    private int maxPrice = Integer.MAX_VALUE;
+    private boolean openNow;
+    private LocalDate openOn;
+    private int closingWithinDays = -1;
+
+    private FilterExpression(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Gets the filter that matches every project.
+     *
+     * @return the filter
+     */
+    public static FilterExpression none() {
+        return NONE;
+    }
+
+    /**
+     * Compiles a filter.
+     *
+     * @param text the filter as stored in the user list
+     * @return the compiled filter
+     * @throws IllegalArgumentException if the filter is not valid
+     */
+    public static FilterExpression parse(String text) {
+        if (text == null || text.trim().isEmpty() || text.trim().equals("None")) {
+            return NONE;
+        }
+        String trimmed = text.trim();
+        if (trimmed.contains(",")) {
+            throw new IllegalArgumentException("Filters cannot contain commas");
+        }
+        FilterExpression expression = new FilterExpression(trimmed);
+        if (trimmed.indexOf(':') < 0) {
+            if (trimmed.equals("2-Room") || trimmed.equals("3-Room")) {
+                expression.flatTypes.add(trimmed);
+            } else {
+                expression.neighbourhoods.add(trimmed);
+            }
+            return expression;
+        }
+        for (String clause : tokenize(trimmed)) {
+            expression.addClause(clause);
+        }
+        return expression;
+    }
+
+    /**
+     * Splits a filter into its space separated clauses, keeping quoted spaces.
+     *
+     * @param text the filter
+     * @return the clauses, without the quotes
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (char c : text.toCharArray()) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (current.length() > 0) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private void addClause(String clause) {
+        int colon = clause.indexOf(':');
+        if (colon <= 0 || colon == clause.length() - 1) {
+            throw new IllegalArgumentException("Expected key:value but found " + clause);
+        }
+        String key = clause.substring(0, colon).toLowerCase();
+        String value = clause.substring(colon + 1);
+        switch (key) {
+            case "type":
+                for (String flatType : value.split("\\|")) {
+                    flatTypes.add(flatType.equals("2") ? "2-Room" : flatType.equals("3") ? "3-Room" : flatType);
+                }
+                break;
+            case "hood":
+            case "neighbourhood":
+            case "neighborhood":
+                for (String neighbourhood : value.split("\\|")) {
+                    neighbourhoods.add(neighbourhood);
+                }
+                break;
+            case "price":
+                addPriceCondition(value);
+                break;
+            case "open":
+                if (value.equalsIgnoreCase("now")) {
+                    openNow = true;
+                } else {
+                    try {
+                        openOn = LocalDate.parse(value);
+                    } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException("Invalid date " + value + ", expected yyyy-MM-dd");
+                    }
+                }
+                break;
+            case "closing":
+                try {
+                    closingWithinDays = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    closingWithinDays = -1;
+                }
+                if (closingWithinDays < 0) {
+                    throw new IllegalArgumentException("Invalid number of days " + value);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown filter key " + key);
+        }
+    }
+
+    private void addPriceCondition(String value) {
+        try {
+            if (value.startsWith("<=")) {
+                maxPrice = Math.min(maxPrice, Integer.parseInt(value.substring(2)));
+            } else if (value.startsWith(">=")) {
+                minPrice = Math.max(minPrice, Integer.parseInt(value.substring(2)));
+            } else if (value.startsWith("<")) {
+                maxPrice = Math.min(maxPrice, Integer.parseInt(value.substring(1)) - 1);
+            } else if (value.startsWith(">")) {
+                minPrice = Math.max(minPrice, Integer.parseInt(value.substring(1)) + 1);
+            } else if (value.indexOf('-') > 0) {
+                int dash = value.indexOf('-');
+                minPrice = Math.max(minPrice, Integer.parseInt(value.substring(0, dash)));
+                maxPrice = Math.min(maxPrice, Integer.parseInt(value.substring(dash + 1)));
+            } else {
+                int price = Integer.parseInt(value);
+                minPrice = Math.max(minPrice, price);
+                maxPrice = Math.min(maxPrice, price);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price condition " + value);
+        }
+    }
+
+    /**
+     * Gets the filter text this was compiled from.
+     *
+     * @return the source
+     */
+    public String getSource() { return source; }
+
+    /**
+     * Builds the index query for the catalog conditions of this filter.
+     *
+     * @param visibleOnly whether only visible projects are selected
+     * @return the query
+     */
+    public ProjectQuery toQuery(boolean visibleOnly) {
+        ProjectQuery query = new ProjectQuery().setPriceRange(minPrice, maxPrice).setVisibleOnly(visibleOnly);
+        flatTypes.forEach(query::addFlatType);
+        neighbourhoods.forEach(query::addNeighbourhood);
+        return query;
+    }
+
+    /**
+     * Selects the catalog entries matching this filter.
+     *
+     * @param index       the catalog index
+     * @param visibleOnly whether only visible projects are selected
+     * @return the matching entries in catalog order
+     */
+    public List<CatalogEntry> select(ProjectIndex index, boolean visibleOnly) {
+        List<CatalogEntry> entries = index.query(toQuery(visibleOnly));
+        int today = (int) LocalDate.now().toEpochDay();
+        Set<Project> inWindow = null;
+        if (openNow || openOn != null) {
+            int day = openNow ? today : (int) openOn.toEpochDay();
+            inWindow = identitySet(index.getWindows().openOn(day));
+        }
+        if (closingWithinDays >= 0) {
+            Set<Project> closing = identitySet(index.getWindows().closingBetween(today, today + closingWithinDays));
+            if (inWindow == null) {
+                inWindow = closing;
+            } else {
+                inWindow.retainAll(closing);
+            }
+        }
+        if (inWindow == null) {
+            return entries;
+        }
+        List<CatalogEntry> result = new ArrayList<>();
+        for (CatalogEntry entry : entries) {
+            if (inWindow.contains(entry.getProject())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether one flat type of a project matches this filter, the way {@link #select} does.
+     *
+     * @param project         the project
+     * @param typeDesignation the flat type designation ("Type1" or "Type2")
+     * @param visibleOnly     whether only visible projects match
+     * @return true if the entry would be selected
+     */
+    public boolean matches(Project project, String typeDesignation, boolean visibleOnly) {
+        if (visibleOnly && !project.getVisibility()) {
+            return false;
+        }
+        boolean type1 = typeDesignation.equals("Type1");
+        if (!neighbourhoods.isEmpty() && !containsKey(neighbourhoods, project.getNeighborhood())) {
+            return false;
+        }
+        if (!flatTypes.isEmpty() && !containsKey(flatTypes, type1 ? project.getType1() : project.getType2())) {
+            return false;
+        }
+        int price = type1 ? project.getPriceType1() : project.getPriceType2();
+        if (price < minPrice || price > maxPrice) {
+            return false;
+        }
+        int today = (int) LocalDate.now().toEpochDay();
+        if ((openNow || openOn != null) && !project.isOpenOn(openNow ? today : (int) openOn.toEpochDay())) {
+            return false;
+        }
+        return closingWithinDays < 0 || (project.hasValidWindow()
+                && project.getClosingDay() >= today && project.getClosingDay() <= today + closingWithinDays);
+    }
+
+    private static boolean containsKey(List<String> values, String value) {
+        String key = ProjectIndex.key(value);
+        for (String candidate : values) {
+            if (ProjectIndex.key(candidate).equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Project> identitySet(List<Project> projects) {
+        Set<Project> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(projects);
+        return set;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class representing a table that numbers strings densely from 0 in the order they are first seen.
+ * <p>
+ * Lookups by string go through a concurrent map and lookups by number read an array that is replaced
+ * when it grows, so neither takes a lock; only numbering a new string does.
+ */
+final class Interner {
+    private final Map<String, Integer> numbers = new ConcurrentHashMap<>();
+    private volatile String[] strings = new String[64];
+    private int size;
+
+    /**
+     * Gets the number of a string, giving it the next free one if it has none yet.
+     *
+     * @param string the string
+     * @return the number
+     */
+    int intern(String string) {
+        Integer number = numbers.get(string);
+        if (number != null) {
+            return number;
+        }
+        synchronized (this) {
+            number = numbers.get(string);
+            if (number != null) {
+                return number;
+            }
+            String[] current = strings;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = string;
+            strings = current;
+            numbers.put(string, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Gets the number of a string without giving it one.
+     *
+     * @param string the string
+     * @return the number, or -1 if the string was never seen
+     */
+    int find(String string) {
+        Integer number = numbers.get(string);
+        return number != null ? number : -1;
+    }
+
+    /**
+     * Gets the string of a number.
+     *
+     * @param number the number
+     * @return the string
+     */
+    String get(int number) {
+        return strings[number];
+    }
+}
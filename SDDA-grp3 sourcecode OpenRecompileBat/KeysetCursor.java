@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Class representing a keyset cursor over rows held in sorted key indexes.
+ * <p>
+ * Rows are ordered by a unique sort key and a page is addressed by the key of its first or last row
+ * rather than by position, so pages stay stable when rows are added or removed elsewhere. The rows come
+ * from one index per store, built with {@link #index(List, Function)}; a page seeks to its key in every
+ * index and merges them, so it only visits the rows it skips for the filter and the rows it returns, and
+ * only the rows of the page are copied.
+ *
+ * @param <T> the type of the rows
+ */
+class KeysetCursor<T> {
+    /**
+     * The page size used by the listing screens, configurable with -Dsdda.pageSize.
+     */
+    static final int DEFAULT_PAGE_SIZE = Math.max(1, Integer.getInteger("sdda.pageSize", 10));
+
+    private final Supplier<List<NavigableMap<String, T>>> indexes;
+    private final Predicate<T> filter;
+    private final UnaryOperator<T> copier;
+    private final int pageSize;
+    private Bookmark firstKey;
+    private Bookmark lastKey;
+
+    /**
+     * Instantiates a new Keyset cursor.
+     *
+     * @param indexes  Gives the current index of every store, see {@link #index(List, Function)}
+     * @param filter   Selects the rows shown, given the indexed rows themselves
+     * @param copier   Copies a row before it is handed out
+     * @param pageSize The number of rows per page
+     */
+    public KeysetCursor(Supplier<List<NavigableMap<String, T>>> indexes, Predicate<T> filter,
+                        UnaryOperator<T> copier, int pageSize) {
+        this.indexes = indexes;
+        this.filter = filter;
+        this.copier = copier;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Builds the sorted key index of a list of rows. The position of a row is appended to its sort key,
+     * so rows with the same sort key are all kept, in list order.
+     *
+     * @param <T>         the type of the rows
+     * @param rows        the rows
+     * @param keyFunction gives the sort key of a row
+     * @return the index
+     */
+    static <T> NavigableMap<String, T> index(List<T> rows, Function<T, String> keyFunction) {
+        TreeMap<String, T> index = new TreeMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            index.put(keyFunction.apply(row) + '\0' + String.format("%08x", i), row);
+        }
+        return Collections.unmodifiableNavigableMap(index);
+    }
+
+    /**
+     * Moves to the first page.
+     *
+     * @return the page
+     */
+    public Page<T> first() {
+        return forward(null, false);
+    }
+
+    /**
+     * Moves to the page after the current one, staying on the last page if there is none.
+     *
+     * @return the page
+     */
+    public Page<T> next() {
+        Page<T> page = forward(lastKey, false);
+        return page.isEmpty() ? current() : page;
+    }
+
+    /**
+     * Moves to the page before the current one, staying on the first page if there is none.
+     *
+     * @return the page
+     */
+    public Page<T> previous() {
+        if (firstKey == null) {
+            return first();
+        }
+        Page<T> page = backward(firstKey);
+        return page.isEmpty() ? first() : page;
+    }
+
+    /**
+     * Reloads the current page, picking up changes to its rows.
+     *
+     * @return the page
+     */
+    public Page<T> current() {
+        if (firstKey == null) {
+            return first();
+        }
+        Page<T> page = forward(firstKey, true);
+        return page.isEmpty() ? previous() : page;
+    }
+
+    private Page<T> forward(Bookmark from, boolean inclusive) {
+        List<NavigableMap<String, T>> current = indexes.get();
+        List<Map.Entry<Bookmark, T>> window = scan(current, from, inclusive, true, pageSize + 1);
+        boolean hasNext = window.size() > pageSize;
+        if (hasNext) {
+            window.remove(pageSize);
+        }
+        boolean hasPrevious = !window.isEmpty() && !scan(current, window.get(0).getKey(), false, false, 1).isEmpty();
+        return toPage(window, hasPrevious, hasNext);
+    }
+
+    private Page<T> backward(Bookmark to) {
+        List<NavigableMap<String, T>> current = indexes.get();
+        List<Map.Entry<Bookmark, T>> window = scan(current, to, false, false, pageSize + 1);
+        boolean hasPrevious = window.size() > pageSize;
+        if (hasPrevious) {
+            window.remove(pageSize);
+        }
+        Collections.reverse(window);
+        boolean hasNext = !window.isEmpty()
+                && !scan(current, window.get(window.size() - 1).getKey(), false, true, 1).isEmpty();
+        return toPage(window, hasPrevious, hasNext);
+    }
+
+    /**
+     * Collects the rows passing the filter beyond a bookmark, merging the indexes in key order.
+     */
+    private List<Map.Entry<Bookmark, T>> scan(List<NavigableMap<String, T>> current, Bookmark bound,
+                                              boolean inclusive, boolean ascending, int limit) {
+        Comparator<Bookmark> order = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.key, b.key));
+        for (int source = 0; source < current.size(); source++) {
+            NavigableMap<String, T> index = current.get(source);
+            if (bound != null) {
+                // rows of an earlier store come before rows of a later store with the same key
+                boolean sameKey = source == bound.source ? inclusive : (source > bound.source) == ascending;
+                index = ascending ? index.tailMap(bound.key, sameKey) : index.headMap(bound.key, sameKey);
+            }
+            Iterator<Map.Entry<String, T>> rows = (ascending ? index : index.descendingMap()).entrySet().iterator();
+            Head.advance(heads, source, rows);
+        }
+        List<Map.Entry<Bookmark, T>> found = new ArrayList<>();
+        while (found.size() < limit && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            if (filter.test(head.row)) {
+                found.add(Map.entry(head.key, head.row));
+            }
+            Head.advance(heads, head.key.source, head.rows);
+        }
+        return found;
+    }
+
+    private Page<T> toPage(List<Map.Entry<Bookmark, T>> window, boolean hasPrevious, boolean hasNext) {
+        List<T> rows = new ArrayList<>(window.size());
+        for (Map.Entry<Bookmark, T> entry : window) {
+            rows.add(copier.apply(entry.getValue()));
+        }
+        if (!window.isEmpty()) {
+            firstKey = window.get(0).getKey();
+            lastKey = window.get(window.size() - 1).getKey();
+        }
+        return new Page<>(rows, hasPrevious, hasNext);
+    }
+
+    /**
+     * The position of a row: its key in the index of its store and the number of that store.
+     */
+    private static final class Bookmark implements Comparable<Bookmark> {
+        private final String key;
+        private final int source;
+
+        private Bookmark(String key, int source) {
+            this.key = key;
+            this.source = source;
+        }
+
+        @Override
+        public int compareTo(Bookmark other) {
+            int cmp = key.compareTo(other.key);
+            return cmp != 0 ? cmp : Integer.compare(source, other.source);
+        }
+    }
+
+    /**
+     * The next row of one index while the indexes are merged.
+     */
+    private static final class Head<T> {
+        private final Bookmark key;
+        private final T row;
+        private final Iterator<Map.Entry<String, T>> rows;
+
+        private Head(Bookmark key, T row, Iterator<Map.Entry<String, T>> rows) {
+            this.key = key;
+            this.row = row;
+            this.rows = rows;
+        }
+
+        private static <T> void advance(PriorityQueue<Head<T>> heads, int source, Iterator<Map.Entry<String, T>> rows) {
+            if (rows.hasNext()) {
+                Map.Entry<String, T> next = rows.next();
+                heads.add(new Head<>(new Bookmark(next.getKey(), source), next.getValue(), rows));
+            }
+        }
+    }
+}
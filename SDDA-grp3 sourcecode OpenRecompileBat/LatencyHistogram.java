@@ -0,0 +1,115 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class representing a latency histogram with a bounded relative error.
+ * <p>
+ * Values are counted in log-linear buckets in the way of HdrHistogram: values below 128 have a bucket
+ * each, and every higher power of two is split into 64 buckets, so a bucket is never wider than 1/64 of
+ * the values in it. A million nanoseconds is therefore known to within 1.6%, with a fixed array of
+ * counters that recording only increments.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value.
+     *
+     * @param value the value, negative values are counted as 0
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(index(v));
+        count.incrementAndGet();
+        total.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public long getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : total.get() / n;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return the maximum
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the value below which a percentage of the recorded values fall, as the highest value of the
+     * bucket it lies in.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the value, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Discards every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) ((value >>> shift) - HALF);
+    }
+
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long mantissa = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
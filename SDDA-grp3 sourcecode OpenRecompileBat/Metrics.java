@@ -0,0 +1,238 @@
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Class representing the metrics of the system.
+ * <p>
+ * Records the latency of operations and the file I/O of each FileHandler method. Metrics are off unless
+ * the system is started with -Dsdda.metrics=true; every recording method then returns after reading one
+ * constant, and {@link #start()} does not read the clock. When on, each operation and method is also
+ * registered as an MXBean under the sdda domain, so it can be watched from JConsole.
+ * <pre>
+ * long start = Metrics.start();
+ * try {
+ *     ...
+ * } finally {
+ *     Metrics.record("apply", start);
+ * }
+ * </pre>
+ */
+final class Metrics {
+    /**
+     * Whether metrics are recorded.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("sdda.metrics");
+
+    private static final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private static final Map<String, FileMethod> files = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the start time of an operation.
+     *
+     * @return the time in nanoseconds, or 0 when metrics are off
+     */
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the latency of an operation.
+     *
+     * @param operation the operation name
+     * @param start     the time returned by {@link #start()}
+     */
+    static void record(String operation, long start) {
+        if (!ENABLED) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        operations.computeIfAbsent(operation, Metrics::newOperation).histogram.record(elapsed);
+    }
+
+    /**
+     * Records a whole file read by a FileHandler method.
+     *
+     * @param method the method name
+     * @param file   the file, whose length is counted as read
+     * @param rows   the number of rows parsed
+     */
+    static void fileRead(String method, File file, long rows) {
+        if (!ENABLED) {
+            return;
+        }
+        FileMethod counters = fileMethod(method);
+        counters.calls.increment();
+        counters.rows.add(rows);
+        counters.bytesRead.add(file.length());
+    }
+
+    /**
+     * Records a whole file written by a FileHandler method.
+     *
+     * @param method the method name
+     * @param file   the file, whose length is counted as written
+     * @param rows   the number of rows written
+     */
+    static void fileWritten(String method, File file, long rows) {
+        if (!ENABLED) {
+            return;
+        }
+        bytesWritten(method, file.length(), rows);
+    }
+
+    /**
+     * Records a write of a known size, such as one record.
+     *
+     * @param method the method name
+     * @param bytes  the number of bytes written
+     * @param rows   the number of rows written
+     */
+    static void bytesWritten(String method, long bytes, long rows) {
+        if (!ENABLED) {
+            return;
+        }
+        FileMethod counters = fileMethod(method);
+        counters.calls.increment();
+        counters.rows.add(rows);
+        counters.bytesWritten.add(bytes);
+    }
+
+    /**
+     * Discards everything recorded so far.
+     */
+    static void reset() {
+        operations.values().forEach(Operation::reset);
+        files.values().forEach(FileMethod::reset);
+    }
+
+    /**
+     * Renders the recorded latencies and file I/O as two tables.
+     *
+     * @param table the renderer
+     */
+    static void render(TableRenderer table) {
+        if (!ENABLED) {
+            System.out.println("Metrics are off, start the system with -Dsdda.metrics=true to record them.");
+            return;
+        }
+        table.begin("Operation latency (us)", "Operation", "Count", "Mean", "p50", "p90", "p99", "Max");
+        new TreeMap<>(operations).forEach((name, o) -> table.row(name, o.getCount(), o.getMeanMicros(), o.getP50Micros(),
+                o.getP90Micros(), o.getP99Micros(), o.getMaxMicros()));
+        table.render();
+        table.begin("File I/O", "Method", "Calls", "Rows", "Bytes read", "Bytes written");
+        new TreeMap<>(files).forEach((name, f) -> table.row(name, f.getCalls(), f.getRows(), f.getBytesRead(), f.getBytesWritten()));
+        table.render();
+    }
+
+    private static Operation newOperation(String name) {
+        Operation operation = new Operation();
+        register("Operation", name, operation);
+        return operation;
+    }
+
+    private static FileMethod fileMethod(String method) {
+        return files.computeIfAbsent(method, name -> {
+            FileMethod counters = new FileMethod();
+            register("FileHandler", name, counters);
+            return counters;
+        });
+    }
+
+    private static void register(String type, String name, Object bean) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(bean, new ObjectName("sdda:type=" + type + ",name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Latency of one operation.
+     */
+    private static class Operation implements OperationMetricsMXBean {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public long getMeanMicros() {
+            return histogram.getMean() / 1_000;
+        }
+
+        @Override
+        public long getP50Micros() {
+            return histogram.getValueAtPercentile(50) / 1_000;
+        }
+
+        @Override
+        public long getP90Micros() {
+            return histogram.getValueAtPercentile(90) / 1_000;
+        }
+
+        @Override
+        public long getP99Micros() {
+            return histogram.getValueAtPercentile(99) / 1_000;
+        }
+
+        @Override
+        public long getMaxMicros() {
+            return histogram.getMax() / 1_000;
+        }
+
+        @Override
+        public void reset() {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * File I/O of one FileHandler method.
+     */
+    private static class FileMethod implements FileMetricsMXBean {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+
+        @Override
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        @Override
+        public long getRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public long getBytesRead() {
+            return bytesRead.sum();
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return bytesWritten.sum();
+        }
+
+        @Override
+        public void reset() {
+            calls.reset();
+            rows.reset();
+            bytesRead.reset();
+            bytesWritten.reset();
+        }
+    }
+}
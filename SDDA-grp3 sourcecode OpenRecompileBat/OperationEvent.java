@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Class representing the Flight Recorder event of one business operation.
+ * <p>
+ * Events are only committed while a recording that enables sdda.Operation is running, such as one
+ * started with the sdda.jfc template. Otherwise creating and ending one does no work.
+ */
+@Name("sdda.Operation")
+@Label("Operation")
+@Category("SDDA")
+@Description("An operation of the system, such as applying for or booking a flat")
+class OperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Role")
+    @Description("Manager, Officer or Applicant")
+    String role;
+
+    @Label("Project")
+    String project;
+
+    @Label("Outcome")
+    @Description("ok, failed, or the reason a login did not succeed")
+    String outcome;
+}
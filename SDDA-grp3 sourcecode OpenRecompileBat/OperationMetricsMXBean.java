@@ -0,0 +1,52 @@
+/**
+ * Management interface of the latency of one operation, registered as sdda:type=Operation,name=...
+ * when metrics are enabled. Times are in microseconds.
+ */
+public interface OperationMetricsMXBean {
+    /**
+     * Gets the number of times the operation ran.
+     *
+     * @return the count
+     */
+    long getCount();
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean
+     */
+    long getMeanMicros();
+
+    /**
+     * Gets the median latency.
+     *
+     * @return the median
+     */
+    long getP50Micros();
+
+    /**
+     * Gets the 90th percentile latency.
+     *
+     * @return the 90th percentile
+     */
+    long getP90Micros();
+
+    /**
+     * Gets the 99th percentile latency.
+     *
+     * @return the 99th percentile
+     */
+    long getP99Micros();
+
+    /**
+     * Gets the largest latency.
+     *
+     * @return the maximum
+     */
+    long getMaxMicros();
+
+    /**
+     * Discards the recorded latencies.
+     */
+    void reset();
+}
@@ -0,0 +1,54 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class representing one page of rows returned by a {@link KeysetCursor}
+ *
+ * @param <T> the type of the rows
+ */
+class Page<T> {
+    private final List<T> rows;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    /**
+     * Instantiates a new Page.
+     *
+     * @param rows        The rows on the page in key order
+     * @param hasPrevious Whether there are rows before this page
+     * @param hasNext     Whether there are rows after this page
+     */
+    public Page(List<T> rows, boolean hasPrevious, boolean hasNext) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Gets rows.
+     *
+     * @return the rows
+     */
+    public List<T> getRows() { return rows; }
+
+    /**
+     * Gets has previous.
+     *
+     * @return whether there are rows before this page
+     */
+    public boolean hasPrevious() { return hasPrevious; }
+
+    /**
+     * Gets has next.
+     *
+     * @return whether there are rows after this page
+     */
+    public boolean hasNext() { return hasNext; }
+
+    /**
+     * Checks whether the page has no rows.
+     *
+     * @return the boolean
+     */
+    public boolean isEmpty() { return rows.isEmpty(); }
+}
@@ -0,0 +1,121 @@
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Class representing salted password hashing in the system.
+ * <p>
+ * Passwords are stored as {@code pbkdf2$<iterations>$<salt>$<hash>} using PBKDF2 with HMAC-SHA256, with salt
+ * and hash in Base64. The iteration count used for new hashes is set with -Dsdda.pbkdf2.iterations.
+ * Entries written before hashing was introduced hold the plain Base64 of the password and are still accepted,
+ * see {@link #needsRehash(String)}.
+ */
+class PasswordHasher {
+    /**
+     * The iteration count used when none is configured.
+     */
+    static final int DEFAULT_ITERATIONS = 120_000;
+
+    private static final String PREFIX = "pbkdf2";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Gets the iteration count used for new hashes.
+     *
+     * @return the iteration count
+     */
+    static int configuredIterations() {
+        return Math.max(1, Integer.getInteger("sdda.pbkdf2.iterations", DEFAULT_ITERATIONS));
+    }
+
+    /**
+     * Hashes a password with a fresh salt and the configured iteration count.
+     *
+     * @param password the password
+     * @return the stored form of the password
+     */
+    public static String hash(String password) {
+        return hash(password, configuredIterations());
+    }
+
+    /**
+     * Hashes a password with a fresh salt.
+     *
+     * @param password   the password
+     * @param iterations the iteration count
+     * @return the stored form of the password
+     */
+    public static String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Checks a password against its stored form, accepting legacy Base64 entries.
+     *
+     * @param password the password entered
+     * @param stored   the stored form
+     * @return whether the password matches
+     */
+    public static boolean verify(String password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            byte[] legacy = Base64.getEncoder().encode(password.getBytes());
+            return MessageDigest.isEqual(legacy, stored.getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a stored password should be hashed again after a successful login, because it is
+     * a legacy Base64 entry or was hashed with a different iteration count.
+     *
+     * @param stored the stored form
+     * @return the boolean
+     */
+    public static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        return parts.length != 4 || !parts[1].equals(String.valueOf(configuredIterations()));
+    }
+
+    private static boolean isHashed(String stored) {
+        return stored.startsWith(PREFIX + "$");
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class representing a snapshot of the counters of one project: the units left and the number of owners
+ * on each status list and the waitlist, per flat type.
+ * <p>
+ * Every status list keeps its own size up to date as owners move between lists, so taking a snapshot
+ * reads twelve numbers and never walks a list. The dashboard keeps the snapshots of a project list as a
+ * derived index of the in-memory model, which is only taken again after the list changed. Since the
+ * counters are kept apart from the lists, {@link #checkAll(PrintStream)} counts every list again and
+ * reports the projects whose counters disagree; it is run with {@code SDDA_grp3 --check-counters}.
+ */
+final class ProjectCounters {
+    /**
+     * The statuses counted, in column order.
+     */
+    static final String[] STATUSES = {"Pending", "Unsuccessful", "Successful", "Booked", "Withdrawal Pending", "Waitlisted"};
+
+    private final String projectName;
+    private final String managerName;
+    private final String[] flatTypes;
+    private final int[] units;
+    private final int[][] counts;
+
+    /**
+     * Instantiates a new Project counters.
+     *
+     * @param projectName the project name
+     * @param managerName the manager name
+     * @param flatTypes   the two flat types
+     * @param units       the units left of each flat type
+     * @param counts      the number of owners on each status list of each flat type, in {@link #STATUSES} order
+     */
+    ProjectCounters(String projectName, String managerName, String[] flatTypes, int[] units, int[][] counts) {
+        this.projectName = projectName;
+        this.managerName = managerName;
+        this.flatTypes = flatTypes;
+        this.units = units;
+        this.counts = counts;
+    }
+
+    /**
+     * Gets project name.
+     *
+     * @return the project name
+     */
+    public String getProjectName() { return projectName; }
+
+    /**
+     * Gets manager name.
+     *
+     * @return the manager name
+     */
+    public String getManagerName() { return managerName; }
+
+    /**
+     * Gets a flat type.
+     *
+     * @param type 1 or 2
+     * @return the flat type
+     */
+    public String getFlatType(int type) { return flatTypes[type - 1]; }
+
+    /**
+     * Gets the units left of a flat type.
+     *
+     * @param type 1 or 2
+     * @return the units
+     */
+    public int getUnits(int type) { return units[type - 1]; }
+
+    /**
+     * Gets the number of owners on a status list.
+     *
+     * @param type   1 or 2
+     * @param status the index of the status in {@link #STATUSES}
+     * @return the count
+     */
+    public int getCount(int type, int status) { return counts[type - 1][status]; }
+
+    /**
+     * Compares these counters with the status lists of a project, counted one owner at a time.
+     *
+     * @param project the project the counters were taken from
+     * @return a description of every counter that disagrees, empty if none
+     */
+    List<String> check(Project project) {
+        List<String> mismatches = new ArrayList<>();
+        List<List<List<String>>> lists = List.of(
+                List.of(project.getType1OwnerPending(), project.getType1OwnerUnsuccessful(), project.getType1OwnerSuccessful(),
+                        project.getType1OwnerBooked(), project.getType1WithdrawalPending(), project.getWaitlist("Type1")),
+                List.of(project.getType2OwnerPending(), project.getType2OwnerUnsuccessful(), project.getType2OwnerSuccessful(),
+                        project.getType2OwnerBooked(), project.getType2WithdrawalPending(), project.getWaitlist("Type2")));
+        for (int type = 1; type <= 2; type++) {
+            for (int status = 0; status < STATUSES.length; status++) {
+                int counted = lists.get(type - 1).get(status).size();
+                if (counted != getCount(type, status)) {
+                    mismatches.add(String.format("%s %s %s: counter %d, list %d", projectName, getFlatType(type),
+                            STATUSES[status], getCount(type, status), counted));
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Checks the counters of every project in the project list and prints those that disagree.
+     *
+     * @param out the stream the mismatches and the summary are printed to
+     * @return the number of mismatches
+     */
+    static int checkAll(PrintStream out) {
+        AtomicInteger projects = new AtomicInteger();
+        AtomicInteger mismatches = new AtomicInteger();
+        FileHandler.forEachProject("ProjectList.csv", project -> {
+            projects.incrementAndGet();
+            for (String mismatch : project.getCounters().check(project)) {
+                out.println(mismatch);
+                mismatches.incrementAndGet();
+            }
+        });
+        out.printf("Checked the counters of %d projects, %d mismatches.%n", projects.get(), mismatches.get());
+        return mismatches.get();
+    }
+
+    /**
+     * Renders the counters of some projects, one row per flat type.
+     *
+     * @param table    the renderer
+     * @param counters the counters
+     */
+    static void render(TableRenderer table, List<ProjectCounters> counters) {
+        table.begin("Dashboard", "Project Name", "Flat Type", "Units Left", STATUSES[0], STATUSES[1], STATUSES[2],
+                STATUSES[3], STATUSES[4], STATUSES[5]);
+        for (ProjectCounters project : counters) {
+            for (int type = 1; type <= 2; type++) {
+                table.row(type == 1 ? project.projectName : "", project.getFlatType(type), project.getUnits(type),
+                        project.getCount(type, 0), project.getCount(type, 1), project.getCount(type, 2),
+                        project.getCount(type, 3), project.getCount(type, 4), project.getCount(type, 5));
+            }
+        }
+        table.render();
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class representing a change to a project list made under the mutation lock of the list.
+ * <p>
+ * Beginning an edit takes the lock and then reads the list, and closing it gives the lock back, so the
+ * sessions and the lifecycle scheduler that read a list, check it, change it and save it take turns
+ * rather than saving copies read before each other's saves. Listings do not take the lock.
+ * <pre>
+ * try (ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+ *     List&lt;Project&gt; projects = edit.projects();
+ *     ...
+ *     FileHandler.writeProjectsToCSV("ProjectList.csv", projects, changed);
+ * }
+ * </pre>
+ */
+final class ProjectEdit implements AutoCloseable {
+    private final ReentrantLock lock;
+    private final List<Project> projects;
+
+    private ProjectEdit(ReentrantLock lock, List<Project> projects) {
+        this.lock = lock;
+        this.projects = projects;
+    }
+
+    /**
+     * Takes the mutation lock of a project list and reads it.
+     *
+     * @param filename the filename of the csv
+     * @return the edit
+     */
+    static ProjectEdit begin(String filename) {
+        ReentrantLock lock = FileLocks.mutation(FileHandler.dataFile(filename));
+        lock.lock();
+        try {
+            return new ProjectEdit(lock, FileHandler.readProjectsFromCSV(filename));
+        } catch (RuntimeException | Error e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the projects read when the edit began, which the edit may change and save.
+     *
+     * @return the projects
+     */
+    List<Project> projects() {
+        return projects;
+    }
+
+    @Override
+    public void close() {
+        lock.unlock();
+    }
+}
@@ -0,0 +1,86 @@
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing the harness that measures how much heap a project list takes once parsed.
+ * <p>
+ * Reads a project list the way the system does, keeps every project and reports the growth of the used
+ * heap, measured after full collections, divided by the number of projects. The names the projects hold
+ * are parsed from the file like any other field, so the figure includes whatever copies of them the
+ * representation keeps. Pair it with {@link DatasetGenerator} to measure a large list:
+ * <pre>
+ * java DatasetGenerator --projects=100000 --out=footprint
+ * java -Xmx2g ProjectFootprint [--list=footprint/ProjectList.csv] [--rounds=3]
+ * </pre>
+ * Without --list the project list of the data directory is read, see {@link FileHandler#dataFile(String)}.
+ * Every round parses the list again into a fresh list, and the smallest figure of the rounds is reported.
+ */
+class ProjectFootprint {
+    /**
+     * Measures a project list.
+     *
+     * @param args the options, see the class description
+     */
+    public static void main(String[] args) {
+        File list = null;
+        int rounds = 3;
+        try {
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                String key = eq < 0 ? arg : arg.substring(0, eq);
+                String value = eq < 0 ? "" : arg.substring(eq + 1);
+                switch (key) {
+                    case "--list": list = new File(value); break;
+                    case "--rounds": rounds = Integer.parseInt(value); break;
+                    default:
+                        System.out.println("Unknown option " + arg);
+                        return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number: " + e.getMessage());
+            return;
+        }
+        if (list == null) {
+            list = FileHandler.dataFile("ProjectList.csv");
+        }
+        if (!list.isFile()) {
+            System.out.println("Cannot read " + list);
+            return;
+        }
+
+        // the first parse assigns the user IDs and fills the dictionaries, which are kept apart
+        List<Project> warmUp = new ArrayList<>();
+        FileHandler.parseProjects(list, warmUp::add);
+        int count = warmUp.size();
+        warmUp = null;
+        if (count == 0) {
+            System.out.println("No projects in " + list);
+            return;
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            List<Project> projects = new ArrayList<>(count);
+            long before = usedHeap();
+            FileHandler.parseProjects(list, projects::add);
+            long after = usedHeap();
+            best = Math.min(best, after - before);
+            System.out.printf("Round %d: %d projects, %,d bytes%n", round + 1, projects.size(), after - before);
+        }
+        System.out.printf("%,d bytes per project over %d projects from %s%n", best / count, count, list);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
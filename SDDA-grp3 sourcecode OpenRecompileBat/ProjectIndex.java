@@ -0,0 +1,171 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Class representing secondary indexes over the project catalog.
+ * Projects are indexed by neighbourhood and every flat type they offer is indexed by flat type
+ * and by price, so that a query only touches the entries it returns. Application windows are
+ * indexed by an {@link ApplicationWindowIndex}.
+ */
+class ProjectIndex {
+    private static final Comparator<CatalogEntry> CATALOG_ORDER = Comparator
+            .comparingInt(CatalogEntry::getOrdinal)
+            .thenComparing(CatalogEntry::getTypeDesignation);
+
+    private final Map<String, List<Project>> byNeighbourhood = new HashMap<>();
+    private final Tables all = new Tables();
+    private final Tables visible = new Tables();
+    private final ApplicationWindowIndex windows;
+
+    /**
+     * Instantiates a new Project index over the given catalog.
+     *
+     * @param projects the projects in catalog order
+     */
+    public ProjectIndex(List<Project> projects) {
+        int ordinal = 0;
+        for (Project project : projects) {
+            byNeighbourhood.computeIfAbsent(key(project.getNeighborhood()), k -> new ArrayList<>()).add(project);
+            addEntry(new CatalogEntry(project, "Type1", ordinal));
+            addEntry(new CatalogEntry(project, "Type2", ordinal));
+            ordinal++;
+        }
+        windows = new ApplicationWindowIndex(projects);
+    }
+
+    /**
+     * Normalises a neighbourhood or flat type into an index key.
+     *
+     * @param value the value
+     * @return the key
+     */
+    static String key(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void addEntry(CatalogEntry entry) {
+        all.add(entry);
+        if (entry.getProject().getVisibility()) {
+            visible.add(entry);
+        }
+    }
+
+    /**
+     * Gets the index over the application windows of the catalog.
+     *
+     * @return the window index
+     */
+    public ApplicationWindowIndex getWindows() { return windows; }
+
+    /**
+     * Gets the projects located in a neighbourhood.
+     *
+     * @param neighbourhood the neighbourhood, case insensitive
+     * @return the projects in catalog order
+     */
+    public List<Project> getProjectsInNeighbourhood(String neighbourhood) {
+        return Collections.unmodifiableList(byNeighbourhood.getOrDefault(key(neighbourhood), Collections.emptyList()));
+    }
+
+    /**
+     * Gets the entries of one flat type, cheapest first.
+     *
+     * @param flatType the flat type, case insensitive
+     * @return the entries
+     */
+    public List<CatalogEntry> getEntriesForFlatType(String flatType) {
+        List<CatalogEntry> result = new ArrayList<>();
+        NavigableMap<Integer, List<CatalogEntry>> prices = all.byFlatType.get(key(flatType));
+        if (prices != null) {
+            prices.values().forEach(result::addAll);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a query against the indexes.
+     *
+     * @param query the query
+     * @return the matching entries in catalog order
+     */
+    public List<CatalogEntry> query(ProjectQuery query) {
+        Tables tables = query.isVisibleOnly() ? visible : all;
+        List<NavigableMap<Integer, List<CatalogEntry>>> sources = new ArrayList<>();
+
+        if (query.getNeighbourhoods().isEmpty()) {
+            if (query.getFlatTypes().isEmpty()) {
+                sources.addAll(tables.byFlatType.values());
+            } else {
+                for (String flatType : query.getFlatTypes()) {
+                    addIfPresent(sources, tables.byFlatType.get(flatType));
+                }
+            }
+        } else {
+            for (String neighbourhood : query.getNeighbourhoods()) {
+                Map<String, NavigableMap<Integer, List<CatalogEntry>>> byFlatType = tables.byNeighbourhoodAndFlatType.get(neighbourhood);
+                if (byFlatType == null) {
+                    continue;
+                }
+                if (query.getFlatTypes().isEmpty()) {
+                    sources.addAll(byFlatType.values());
+                } else {
+                    for (String flatType : query.getFlatTypes()) {
+                        addIfPresent(sources, byFlatType.get(flatType));
+                    }
+                }
+            }
+        }
+
+        List<CatalogEntry> result = new ArrayList<>();
+        if (query.getMinPrice() > query.getMaxPrice()) {
+            return result;
+        }
+        for (NavigableMap<Integer, List<CatalogEntry>> prices : sources) {
+            for (List<CatalogEntry> entries : prices.subMap(query.getMinPrice(), true, query.getMaxPrice(), true).values()) {
+                result.addAll(entries);
+            }
+        }
+        result.sort(CATALOG_ORDER);
+        return result;
+    }
+
+    private static void addIfPresent(List<NavigableMap<Integer, List<CatalogEntry>>> sources,
+                                     NavigableMap<Integer, List<CatalogEntry>> prices) {
+        if (prices != null) {
+            sources.add(prices);
+        }
+    }
+
+    /**
+     * Flat type and price indexes over one slice of the catalog.
+     */
+    private static class Tables {
+        /**
+         * Flat type to entries sorted by price.
+         */
+        final Map<String, NavigableMap<Integer, List<CatalogEntry>>> byFlatType = new HashMap<>();
+        /**
+         * Neighbourhood to flat type to entries sorted by price.
+         */
+        final Map<String, Map<String, NavigableMap<Integer, List<CatalogEntry>>>> byNeighbourhoodAndFlatType = new HashMap<>();
+
+        void add(CatalogEntry entry) {
+            String flatType = key(entry.getFlatType());
+            String neighbourhood = key(entry.getProject().getNeighborhood());
+            byFlatType.computeIfAbsent(flatType, k -> new TreeMap<>())
+                    .computeIfAbsent(entry.getPrice(), k -> new ArrayList<>())
+                    .add(entry);
+            byNeighbourhoodAndFlatType.computeIfAbsent(neighbourhood, k -> new HashMap<>())
+                    .computeIfAbsent(flatType, k -> new TreeMap<>())
+                    .computeIfAbsent(entry.getPrice(), k -> new ArrayList<>())
+                    .add(entry);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class representing the scheduler that moves projects through their application window.
+ * <p>
+ * Every project has an opening transition at the start of its opening day, which makes it visible, and a
+ * closing transition at the start of the day after its closing day, which hides it and marks pending
+ * applications unsuccessful. Transitions wait in a {@link DelayQueue}, so the worker thread sleeps until the
+ * next one is due instead of polling the project file. All transitions due at the same time are applied as
+ * one tick with a single read and a single write of the project file, made in a {@link ProjectEdit} so that
+ * a session changing the list at the same time saves either before the tick reads it or after the tick
+ * wrote it, never over it. A tick that cannot save the list puts its transitions back to be tried again a
+ * minute later.
+ */
+class ProjectLifecycleScheduler {
+    private static final long RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final String filename;
+    private final DelayQueue<Transition> queue = new DelayQueue<>();
+    private final Map<String, List<Transition>> scheduled = new ConcurrentHashMap<>();
+    private Thread worker;
+    private volatile int lastTickSize;
+
+    /**
+     * Instantiates a new Project lifecycle scheduler.
+     *
+     * @param filename The project list the transitions are applied to
+     */
+    public ProjectLifecycleScheduler(String filename) {
+        this.filename = filename;
+    }
+
+    /**
+     * Schedules every project in the project list and starts the worker thread.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        FileHandler.forEachProject(filename, this::schedule);
+        worker = new Thread(this::run, "project-lifecycle");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the worker thread. Transitions that are not yet due are dropped.
+     */
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    /**
+     * Schedules the transitions of a project, replacing any scheduled for an earlier version of it.
+     * A project whose window has already closed is closed on the next tick if it is still visible or has
+     * pending applications. An opening day that has already passed is not replayed, so a project hidden by
+     * its manager during its window stays hidden.
+     *
+     * @param project the project
+     */
+    public void schedule(Project project) {
+        String key = project.getProjectName().toLowerCase();
+        List<Transition> previous = scheduled.remove(key);
+        if (previous != null) {
+            previous.forEach(t -> t.cancelled = true);
+        }
+        if (!project.hasValidWindow()) {
+            return;
+        }
+        List<Transition> transitions = new ArrayList<>(2);
+        long now = System.currentTimeMillis();
+        long openAt = startOfDay(project.getOpeningDay());
+        long closeAt = startOfDay(project.getClosingDay() + 1);
+        if (openAt > now) {
+            transitions.add(new Transition(project.getProjectName(), true, openAt));
+        }
+        if (closeAt > now || project.getVisibility() || project.hasPendingApplications()) {
+            transitions.add(new Transition(project.getProjectName(), false, closeAt));
+        }
+        if (!transitions.isEmpty()) {
+            scheduled.put(key, transitions);
+            queue.addAll(transitions);
+        }
+    }
+
+    /**
+     * Gets the number of transitions waiting to be applied.
+     *
+     * @return the number of transitions
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of transitions applied by the last tick.
+     *
+     * @return the number of transitions
+     */
+    public int getLastTickSize() {
+        return lastTickSize;
+    }
+
+    private static long startOfDay(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Transition> batch = new ArrayList<>();
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                boolean applied;
+                try {
+                    applied = tick(batch);
+                } catch (RuntimeException e) {
+                    // a failed tick must not stop the worker, its transitions are tried again later
+                    e.printStackTrace();
+                    applied = false;
+                }
+                if (!applied) {
+                    retryLater(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void retryLater(List<Transition> batch) {
+        long dueAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+        for (Transition transition : batch) {
+            if (!transition.cancelled) {
+                transition.dueAt = dueAt;
+                queue.add(transition);
+            }
+        }
+    }
+
+    /**
+     * Applies a batch of due transitions with one read and at most one write of the project list. The
+     * transitions stay scheduled until the list is saved.
+     *
+     * @param batch the transitions, in any order
+     * @return false if the project list could not be saved
+     */
+    boolean tick(List<Transition> batch) {
+        batch.removeIf(t -> t.cancelled);
+        if (batch.isEmpty()) {
+            return true;
+        }
+        batch.sort(null);
+        try (ProjectEdit edit = ProjectEdit.begin(filename)) {
+            List<Project> projects = edit.projects();
+            Map<String, Project> byName = new HashMap<>();
+            projects.forEach(p -> byName.put(p.getProjectName().toLowerCase(), p));
+
+            boolean changed = false;
+            for (Transition transition : batch) {
+                Project project = byName.get(transition.projectName.toLowerCase());
+                if (project == null || transition.cancelled) {
+                    continue;
+                }
+                changed |= transition.opening ? open(project) : close(project);
+            }
+            if (changed && !FileHandler.writeProjectsToCSV(filename, projects)) {
+                return false;
+            }
+        }
+        for (Transition transition : batch) {
+            scheduled.computeIfPresent(transition.projectName.toLowerCase(), (k, list) -> {
+                list.remove(transition);
+                return list.isEmpty() ? null : list;
+            });
+        }
+        lastTickSize = batch.size();
+        return true;
+    }
+
+    private static boolean open(Project project) {
+        if (project.getVisibility()) {
+            return false;
+        }
+        project.setVisibility(true);
+        return true;
+    }
+
+    private static boolean close(Project project) {
+        boolean changed = project.getVisibility();
+        project.setVisibility(false);
+        changed |= project.expirePendingApplications();
+        return changed;
+    }
+
+    /**
+     * Opening or closing of one project at a point in time.
+     */
+    static class Transition implements Delayed {
+        /**
+         * The project name.
+         */
+        final String projectName;
+        /**
+         * Whether this opens rather than closes the project.
+         */
+        final boolean opening;
+        /**
+         * When the transition is due, in epoch milliseconds. Only moved while the transition is out of the queue.
+         */
+        volatile long dueAt;
+        /**
+         * Set when the project has been rescheduled.
+         */
+        volatile boolean cancelled;
+
+        Transition(String projectName, boolean opening, long dueAt) {
+            this.projectName = projectName;
+            this.opening = opening;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Transition that = (Transition) other;
+            int cmp = Long.compare(dueAt, that.dueAt);
+            if (cmp != 0) {
+                return cmp;
+            }
+            return Boolean.compare(!opening, !that.opening);
+        }
+    }
+}
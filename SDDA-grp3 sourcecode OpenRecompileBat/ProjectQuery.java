@@ -0,0 +1,95 @@
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Class representing a combined filter over the project catalog.
+ * Conditions of different kinds are combined with AND, values of the same kind with OR.
+ */
+class ProjectQuery {
+    private final Set<String> neighbourhoods = new LinkedHashSet<>();
+    private final Set<String> flatTypes = new LinkedHashSet<>();
+    private int minPrice = Integer.MIN_VALUE;
+    private int maxPrice = Integer.MAX_VALUE;
+    private boolean visibleOnly;
+
+    /**
+     * Restricts results to the given neighbourhood, in addition to any neighbourhoods already added.
+     *
+     * @param neighbourhood the neighbourhood, case insensitive
+     * @return this query
+     */
+    public ProjectQuery addNeighbourhood(String neighbourhood) {
+        neighbourhoods.add(ProjectIndex.key(neighbourhood));
+        return this;
+    }
+
+    /**
+     * Restricts results to the given flat type, in addition to any flat types already added.
+     *
+     * @param flatType the flat type, case insensitive
+     * @return this query
+     */
+    public ProjectQuery addFlatType(String flatType) {
+        flatTypes.add(ProjectIndex.key(flatType));
+        return this;
+    }
+
+    /**
+     * Restricts results to flat types priced within the inclusive range.
+     *
+     * @param minPrice the lowest price
+     * @param maxPrice the highest price
+     * @return this query
+     */
+    public ProjectQuery setPriceRange(int minPrice, int maxPrice) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        return this;
+    }
+
+    /**
+     * Restricts results to visible projects.
+     *
+     * @param visibleOnly whether only visible projects are returned
+     * @return this query
+     */
+    public ProjectQuery setVisibleOnly(boolean visibleOnly) {
+        this.visibleOnly = visibleOnly;
+        return this;
+    }
+
+    /**
+     * Gets neighbourhoods as lower case keys, empty for any.
+     *
+     * @return the neighbourhoods
+     */
+    public Set<String> getNeighbourhoods() { return neighbourhoods; }
+
+    /**
+     * Gets flat types as lower case keys, empty for any.
+     *
+     * @return the flat types
+     */
+    public Set<String> getFlatTypes() { return flatTypes; }
+
+    /**
+     * Gets min price.
+     *
+     * @return the min price
+     */
+    public int getMinPrice() { return minPrice; }
+
+    /**
+     * Gets max price.
+     *
+     * @return the max price
+     */
+    public int getMaxPrice() { return maxPrice; }
+
+    /**
+     * Gets visible only.
+     *
+     * @return the visible only
+     */
+    public boolean isVisibleOnly() { return visibleOnly; }
+}
@@ -0,0 +1,274 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Class representing a project list split into one file per neighbourhood.
+ * <p>
+ * With -Dsdda.shards=true the projects of ProjectList.csv are kept in a ProjectList.d directory instead,
+ * with one file per neighbourhood in the format of the list and a manifest.csv naming the file of each
+ * neighbourhood in catalog order. The directory is created from the list the first time it is needed;
+ * the list itself is then no longer read or written. Each shard is a separate store of the
+ * {@link DataModel}, so a change to one project only writes the file of its neighbourhood, a read of all
+ * projects loads the shards in parallel on the fork-join pool, and a read restricted to some
+ * neighbourhoods never touches the other files. The manifest is only written when a neighbourhood gains
+ * its first project or loses its last one.
+ */
+final class ProjectShards {
+    /**
+     * Whether project lists are sharded.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("sdda.shards");
+
+    private static final Map<String, ProjectShards> lists = new ConcurrentHashMap<>();
+
+    private final String filename;
+    private final String dirName;
+    private final File dir;
+    private final File manifest;
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+    private boolean opened;
+
+    private ProjectShards(String filename) {
+        this.filename = filename;
+        String base = filename.endsWith(".csv") ? filename.substring(0, filename.length() - 4) : filename;
+        this.dirName = base + ".d";
+        this.dir = FileHandler.dataFile(dirName);
+        this.manifest = new File(dir, "manifest.csv");
+    }
+
+    /**
+     * Gets the shards of a project list.
+     *
+     * @param filename the filename of the list
+     * @return the shards, or null if project lists are not sharded
+     */
+    static ProjectShards forList(String filename) {
+        if (!ENABLED) {
+            return null;
+        }
+        ProjectShards list = lists.computeIfAbsent(FileHandler.dataFile(filename).getAbsolutePath(),
+                path -> new ProjectShards(filename));
+        list.open();
+        return list;
+    }
+
+    /**
+     * Gets the shard key of a neighbourhood.
+     *
+     * @param neighbourhood the neighbourhood
+     * @return the key, as used by {@link ProjectQuery#getNeighbourhoods()}
+     */
+    static String key(String neighbourhood) {
+        return ProjectIndex.key(neighbourhood);
+    }
+
+    /**
+     * Gets the directory the shards are kept in.
+     *
+     * @return the directory
+     */
+    File directory() {
+        return dir;
+    }
+
+    /**
+     * Gets the stores of some neighbourhoods in catalog order.
+     *
+     * @param neighbourhoods the neighbourhood keys, empty for all
+     * @return the stores
+     */
+    synchronized List<DataModel.Store<Project>> stores(Set<String> neighbourhoods) {
+        List<DataModel.Store<Project>> stores = new ArrayList<>();
+        for (Shard shard : shards.values()) {
+            if (neighbourhoods.isEmpty() || neighbourhoods.contains(shard.key)) {
+                stores.add(DataModel.projects(shard.filename));
+            }
+        }
+        return stores;
+    }
+
+    /**
+     * Passes a copy of every project of some neighbourhoods to an action, in catalog order. Shards that
+     * are not loaded yet are loaded in parallel first.
+     *
+     * @param neighbourhoods the neighbourhood keys, empty for all
+     * @param action         the action applied to every project
+     */
+    void forEach(Set<String> neighbourhoods, Consumer<Project> action) {
+        List<DataModel.Store<Project>> stores = stores(neighbourhoods);
+        if (stores.size() > 1) {
+            List<ForkJoinTask<?>> loads = new ArrayList<>(stores.size());
+            for (DataModel.Store<Project> store : stores) {
+                loads.add(ForkJoinTask.adapt(store::awaitLoaded));
+            }
+            ForkJoinTask.invokeAll(loads);
+        }
+        for (DataModel.Store<Project> store : stores) {
+            store.forEach(action);
+        }
+    }
+
+    /**
+     * Writes the whole project list. Only the shards whose projects changed are written.
+     *
+     * @param projects   the projects
+     * @param durability how long to wait for the writes
+     * @return false if a file could not be written
+     */
+    synchronized boolean write(List<Project> projects, WriteBehind.Durability durability) {
+        Map<String, List<Project>> groups = new LinkedHashMap<>();
+        Map<String, String> names = new LinkedHashMap<>();
+        for (Project project : projects) {
+            String key = key(project.getNeighborhood());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(project);
+            names.putIfAbsent(key, project.getNeighborhood());
+        }
+        boolean success = true;
+        boolean manifestChanged = !new ArrayList<>(shards.keySet()).equals(new ArrayList<>(groups.keySet()));
+        Map<String, Shard> previous = new LinkedHashMap<>(shards);
+        shards.clear();
+        for (Map.Entry<String, List<Project>> group : groups.entrySet()) {
+            Shard shard = previous.remove(group.getKey());
+            if (shard == null) {
+                shard = new Shard(group.getKey(), names.get(group.getKey()), newShardFilename(group.getKey()));
+            }
+            shards.put(shard.key, shard);
+            if (!FileHandler.dataFile(shard.filename).exists()
+                    || !DataModel.projects(shard.filename).holds(group.getValue())) {
+                success &= FileHandler.writeProjectFile(shard.filename, group.getValue(), durability);
+            }
+        }
+        if (manifestChanged) {
+            success &= writeManifest();
+        }
+        for (Shard removed : previous.values()) {
+            if (!FileHandler.dataFile(removed.filename).delete()) {
+                System.out.println("Could not delete " + removed.filename + ".");
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Writes the project list after one project changed, writing only the shard of that project.
+     *
+     * @param projects   the projects, including the changed one
+     * @param changed    the changed project, whose neighbourhood did not change
+     * @param durability how long to wait for the write
+     * @return false if the file could not be written
+     */
+    synchronized boolean writeShardOf(List<Project> projects, Project changed, WriteBehind.Durability durability) {
+        String key = key(changed.getNeighborhood());
+        Shard shard = shards.get(key);
+        if (shard == null) {
+            return write(projects, durability);
+        }
+        List<Project> rows = new ArrayList<>();
+        for (Project project : projects) {
+            if (key(project.getNeighborhood()).equals(key)) {
+                rows.add(project);
+            }
+        }
+        return FileHandler.writeProjectFile(shard.filename, rows, durability);
+    }
+
+    private synchronized void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        if (manifest.exists()) {
+            readManifest();
+            return;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.out.println("Could not create " + dir + ".");
+            return;
+        }
+        List<Project> projects = new ArrayList<>();
+        FileHandler.parseProjects(FileHandler.dataFile(filename), projects::add);
+        write(projects, WriteBehind.DEFAULT_DURABILITY);
+        if (projects.isEmpty()) {
+            writeManifest();
+        }
+    }
+
+    private void readManifest() {
+        FileIoEvent io = FileIoEvent.begin("readManifest", manifest);
+        int rows = FileLocks.reading(manifest, () -> {
+            int read = 0;
+            try (BufferedReader br = new BufferedReader(new FileReader(manifest))) {
+                String line = br.readLine();
+                while ((line = br.readLine()) != null) {
+                    String[] parts = line.split(",", 2);
+                    if (parts.length < 2) {
+                        continue;
+                    }
+                    read++;
+                    Shard shard = new Shard(key(parts[1]), parts[1], dirName + "/" + parts[0]);
+                    shards.put(shard.key, shard);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return read;
+        });
+        io.read(rows);
+    }
+
+    private boolean writeManifest() {
+        FileIoEvent io = FileIoEvent.begin("writeManifest", manifest);
+        boolean written = FileLocks.replace(manifest, pw -> {
+            pw.println("File,Neighbourhood");
+            for (Shard shard : shards.values()) {
+                pw.println(shard.filename.substring(dirName.length() + 1) + "," + shard.neighbourhood);
+            }
+        }, () -> { });
+        if (written) {
+            io.written(shards.size());
+        }
+        return written;
+    }
+
+    private String newShardFilename(String key) {
+        String slug = key.replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        if (slug.isEmpty()) {
+            slug = "none";
+        }
+        Set<String> taken = new HashSet<>();
+        for (Shard shard : shards.values()) {
+            taken.add(shard.filename);
+        }
+        String name = dirName + "/" + slug + ".csv";
+        for (int i = 2; taken.contains(name) || FileHandler.dataFile(name).exists(); i++) {
+            name = dirName + "/" + slug + "-" + i + ".csv";
+        }
+        return name;
+    }
+
+    /**
+     * The file of one neighbourhood.
+     */
+    private static final class Shard {
+        private final String key;
+        private final String neighbourhood;
+        private final String filename;
+
+        private Shard(String key, String neighbourhood, String filename) {
+            this.key = key;
+            this.neighbourhood = neighbourhood;
+            this.filename = filename;
+        }
+    }
+}
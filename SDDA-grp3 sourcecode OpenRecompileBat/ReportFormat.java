@@ -0,0 +1,146 @@
+/**
+ * Interface representing an output format of a report.
+ * <p>
+ * A report is written as the header, then its rows with the separator between each two, then the footer.
+ * Rows are formatted into chunks by several threads at once, so a format must not depend on the position
+ * of a row.
+ */
+interface ReportFormat {
+    /**
+     * Gets a format by name.
+     *
+     * @param name csv or json, case insensitive
+     * @return the format
+     * @throws IllegalArgumentException if there is no such format
+     */
+    static ReportFormat forName(String name) {
+        switch (name.toLowerCase()) {
+            case "csv":
+                return new Csv();
+            case "json":
+                return new Json();
+            default:
+                throw new IllegalArgumentException("Unknown report format " + name + ", use csv or json.");
+        }
+    }
+
+    /**
+     * Gets the text written before the first row.
+     *
+     * @param columns the column names
+     * @return the header
+     */
+    String header(String[] columns);
+
+    /**
+     * Gets the text written between two rows.
+     *
+     * @return the separator
+     */
+    String separator();
+
+    /**
+     * Gets the text written after the last row.
+     *
+     * @return the footer
+     */
+    String footer();
+
+    /**
+     * Formats one row.
+     *
+     * @param columns the column names
+     * @param values  the values, numbers or strings
+     * @param out     the chunk the row is appended to
+     */
+    void row(String[] columns, Object[] values, StringBuilder out);
+
+    /**
+     * Comma separated values with a header line.
+     */
+    class Csv implements ReportFormat {
+        @Override
+        public String header(String[] columns) {
+            return String.join(",", columns) + System.lineSeparator();
+        }
+
+        @Override
+        public String separator() {
+            return "";
+        }
+
+        @Override
+        public String footer() {
+            return "";
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values, StringBuilder out) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                String value = String.valueOf(values[i]);
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                    out.append('"').append(value.replace("\"", "\"\"")).append('"');
+                } else {
+                    out.append(value);
+                }
+            }
+            out.append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * A JSON array of objects named by column.
+     */
+    class Json implements ReportFormat {
+        @Override
+        public String header(String[] columns) {
+            return "[" + System.lineSeparator();
+        }
+
+        @Override
+        public String separator() {
+            return "," + System.lineSeparator();
+        }
+
+        @Override
+        public String footer() {
+            return System.lineSeparator() + "]" + System.lineSeparator();
+        }
+
+        @Override
+        public void row(String[] columns, Object[] values, StringBuilder out) {
+            out.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                string(columns[i], out);
+                out.append(':');
+                if (values[i] instanceof Number) {
+                    out.append(values[i]);
+                } else {
+                    string(String.valueOf(values[i]), out);
+                }
+            }
+            out.append('}');
+        }
+
+        private static void string(String value, StringBuilder out) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+            out.append('"');
+        }
+    }
+}
@@ -6,14 +6,32 @@
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 import java.util.StringJoiner;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 
@@ -27,6 +45,8 @@ abstract class User {
     private String maritalStatus;
     private String password;
     private String filter;
+    private FilterExpression compiledFilter;
+    private boolean filterInvalid;
 
     /**
      * Instantiates a new User with specific details
@@ -54,6 +74,13 @@ abstract class User {
      */
     public abstract String getCSVFilename();
 
+    /**
+     * Creates a copy of this user.
+     *
+     * @return the copy
+     */
+    public abstract User copy();
+
     /**
      * Gets name.
      *
@@ -96,6 +123,34 @@ abstract class User {
      */
     public String getFilter() { return filter; }
 
+    /**
+     * Gets the filter compiled once for this session, matching every project if the stored filter is invalid.
+     *
+     * @return the compiled filter
+     */
+    public FilterExpression getCompiledFilter() {
+        if (compiledFilter == null) {
+            try {
+                compiledFilter = FilterExpression.parse(filter);
+                filterInvalid = false;
+            } catch (IllegalArgumentException e) {
+                compiledFilter = FilterExpression.none();
+                filterInvalid = true;
+            }
+        }
+        return compiledFilter;
+    }
+
+    /**
+     * Checks whether the stored filter could not be compiled, so that every project is shown instead.
+     *
+     * @return true if it could not
+     */
+    public boolean isFilterInvalid() {
+        getCompiledFilter();
+        return filterInvalid;
+    }
+
     /**
      * Sets password.
      *
@@ -108,7 +163,10 @@ abstract class User {
      *
      * @param filter the filter
      */
-    public void setFilter(String filter) { this.filter = filter; }
+    public void setFilter(String filter) {
+        this.filter = filter;
+        this.compiledFilter = null;
+    }
 }
 
 /**
@@ -138,6 +196,16 @@ class Applicant extends User {
     public String getCSVFilename() {
         return "ApplicantList.csv";
     }
+
+    /**
+     * Creates a copy of this applicant.
+     *
+     * @return the copy
+     */
+    @Override
+    public Applicant copy() {
+        return new Applicant(getName(), getNric(), getAge(), getMaritalStatus(), getPassword(), getFilter());
+    }
 }
 
 /**
@@ -167,6 +235,16 @@ class Officer extends User {
     public String getCSVFilename() {
         return "OfficerList.csv";
     }
+
+    /**
+     * Creates a copy of this officer.
+     *
+     * @return the copy
+     */
+    @Override
+    public Officer copy() {
+        return new Officer(getName(), getNric(), getAge(), getMaritalStatus(), getPassword(), getFilter());
+    }
 }
 
 /**
@@ -196,38 +274,69 @@ class Manager extends User {
     public String getCSVFilename() {
         return "ManagerList.csv";
     }
+
+    /**
+     * Creates a copy of this manager.
+     *
+     * @return the copy
+     */
+    @Override
+    public Manager copy() {
+        return new Manager(getName(), getNric(), getAge(), getMaritalStatus(), getPassword(), getFilter());
+    }
 }
 
 /**
  * Class representing project in the system
+ * <p>
+ * A project list can hold a great many projects, so a project is kept compact. The flat types, the
+ * neighbourhood and the manager name are held as codes of the {@link StringDictionary}, so every project
+ * shares one copy of each. The application window is held as two epoch days, and a date is only kept as
+ * text if it cannot be parsed. The status lists are packed into one array of {@link StatusSet}s in which
+ * every empty list is {@link StatusSet#EMPTY}, and a list only gets a set of its own once it is added to.
  */
 class Project {
+    /**
+     * Epoch day used for an opening or closing date that could not be parsed.
+     */
+    static final int INVALID_DAY = Integer.MIN_VALUE;
+
+    private static final int OFFICERS = 0;
+    private static final int OFFICER_PENDING = 1;
+    private static final int OFFICER_UNSUCCESSFUL = 2;
+    private static final int TYPE1_PENDING = 3;
+    private static final int TYPE1_UNSUCCESSFUL = 4;
+    private static final int TYPE1_SUCCESSFUL = 5;
+    private static final int TYPE1_BOOKED = 6;
+    private static final int TYPE1_WITHDRAWAL_PENDING = 7;
+    private static final int TYPE1_WITHDRAWAL_BOOKED = 8;
+    // the lists of flat type 2 follow those of flat type 1 in the same order
+    private static final int TYPE2 = 6;
+    private static final int TYPE2_PENDING = TYPE1_PENDING + TYPE2;
+    private static final int TYPE2_UNSUCCESSFUL = TYPE1_UNSUCCESSFUL + TYPE2;
+    private static final int TYPE2_SUCCESSFUL = TYPE1_SUCCESSFUL + TYPE2;
+    private static final int TYPE2_BOOKED = TYPE1_BOOKED + TYPE2;
+    private static final int TYPE2_WITHDRAWAL_PENDING = TYPE1_WITHDRAWAL_PENDING + TYPE2;
+    private static final int TYPE2_WITHDRAWAL_BOOKED = TYPE1_WITHDRAWAL_BOOKED + TYPE2;
+    private static final int LISTS = TYPE2_WITHDRAWAL_BOOKED + 1;
+
     private String projectName;
-    private String neighborhood;
-    private String type1;
+    private int neighborhoodCode;
+    private int type1Code;
     private int numUnitsType1;
     private int priceType1;
-    private String type2;
+    private int type2Code;
     private int numUnitsType2;
     private int priceType2;
-    private String openingDate;
-    private String closingDate;
-    private String managerName;
+    private int openingDay;
+    private int closingDay;
+    private String[] unparsedDates;
+    private int managerCode;
     private int officerSlots;
-    private List<String> officers;
     private boolean visibility;
-    private List<String> officerPending;
-    private List<String> officerUnsuccessful;
-    private List<String> type1OwnerPending;
-    private List<String> type1OwnerUnsuccessful;
-    private List<String> type1OwnerSuccessful;
-    private List<String> type1OwnerBooked;
-    private List<String> type1WithdrawalPending;
-    private List<String> type2OwnerPending;
-    private List<String> type2OwnerUnsuccessful;
-    private List<String> type2OwnerSuccessful;
-    private List<String> type2OwnerBooked;
-    private List<String> type2WithdrawalPending;
+    private final StatusSet[] lists = new StatusSet[LISTS];
+    private Waitlist type1Waitlist = new Waitlist();
+    private Waitlist type2Waitlist = new Waitlist();
 
     /**
      * Instantiates a new Project.
@@ -269,31 +378,64 @@ class Project {
                    List<String> type2OwnerSuccessful, List<String> type2OwnerBooked,
                    List<String> type2WithdrawalPending) {
         this.projectName = projectName;
-        this.neighborhood = neighborhood;
-        this.type1 = type1;
+        this.neighborhoodCode = StringDictionary.code(neighborhood);
+        this.type1Code = StringDictionary.code(type1);
         this.numUnitsType1 = numUnitsType1;
         this.priceType1 = priceType1;
-        this.type2 = type2;
+        this.type2Code = StringDictionary.code(type2);
         this.numUnitsType2 = numUnitsType2;
         this.priceType2 = priceType2;
-        this.openingDate = openingDate;
-        this.closingDate = closingDate;
-        this.managerName = managerName;
+        setOpeningDate(openingDate);
+        setClosingDate(closingDate);
+        this.managerCode = StringDictionary.code(managerName);
         this.officerSlots = officerSlots;
-        this.officers = officers != null ? new ArrayList<>(officers) : new ArrayList<>();
         this.visibility = visibility;
-        this.officerPending = officerPending != null ? new ArrayList<>(officerPending) : new ArrayList<>();
-        this.officerUnsuccessful = officerUnsuccessful != null ? new ArrayList<>(officerUnsuccessful) : new ArrayList<>();
-        this.type1OwnerPending = type1OwnerPending != null ? new ArrayList<>(type1OwnerPending) : new ArrayList<>();
-        this.type1OwnerUnsuccessful = type1OwnerUnsuccessful != null ? new ArrayList<>(type1OwnerUnsuccessful) : new ArrayList<>();
-        this.type1OwnerSuccessful = type1OwnerSuccessful != null ? new ArrayList<>(type1OwnerSuccessful) : new ArrayList<>();
-        this.type1OwnerBooked = type1OwnerBooked != null ? new ArrayList<>(type1OwnerBooked) : new ArrayList<>();
-		this.type1WithdrawalPending = type1WithdrawalPending != null ? new ArrayList<>(type1WithdrawalPending) : new ArrayList<>();
-        this.type2OwnerPending = type2OwnerPending != null ? new ArrayList<>(type2OwnerPending) : new ArrayList<>();
-        this.type2OwnerUnsuccessful = type2OwnerUnsuccessful != null ? new ArrayList<>(type2OwnerUnsuccessful) : new ArrayList<>();
-        this.type2OwnerSuccessful = type2OwnerSuccessful != null ? new ArrayList<>(type2OwnerSuccessful) : new ArrayList<>();
-        this.type2OwnerBooked = type2OwnerBooked != null ? new ArrayList<>(type2OwnerBooked) : new ArrayList<>();
-        this.type2WithdrawalPending = type2WithdrawalPending != null ? new ArrayList<>(type2WithdrawalPending) : new ArrayList<>();
+        lists[OFFICERS] = StatusSet.of(officers);
+        lists[OFFICER_PENDING] = StatusSet.of(officerPending);
+        lists[OFFICER_UNSUCCESSFUL] = StatusSet.of(officerUnsuccessful);
+        lists[TYPE1_PENDING] = StatusSet.of(type1OwnerPending);
+        lists[TYPE1_UNSUCCESSFUL] = StatusSet.of(type1OwnerUnsuccessful);
+        lists[TYPE1_SUCCESSFUL] = StatusSet.of(type1OwnerSuccessful);
+        lists[TYPE1_BOOKED] = StatusSet.of(type1OwnerBooked);
+        lists[TYPE1_WITHDRAWAL_PENDING] = StatusSet.of(type1WithdrawalPending);
+        lists[TYPE1_WITHDRAWAL_BOOKED] = StatusSet.EMPTY;
+        lists[TYPE2_PENDING] = StatusSet.of(type2OwnerPending);
+        lists[TYPE2_UNSUCCESSFUL] = StatusSet.of(type2OwnerUnsuccessful);
+        lists[TYPE2_SUCCESSFUL] = StatusSet.of(type2OwnerSuccessful);
+        lists[TYPE2_BOOKED] = StatusSet.of(type2OwnerBooked);
+        lists[TYPE2_WITHDRAWAL_PENDING] = StatusSet.of(type2WithdrawalPending);
+        lists[TYPE2_WITHDRAWAL_BOOKED] = StatusSet.EMPTY;
+    }
+
+    /**
+     * Creates a copy of this project whose lists can be changed without changing this one.
+     *
+     * @return the copy
+     */
+    public Project copy() {
+        return new Project(this);
+    }
+
+    private Project(Project other) {
+        this.projectName = other.projectName;
+        this.neighborhoodCode = other.neighborhoodCode;
+        this.type1Code = other.type1Code;
+        this.numUnitsType1 = other.numUnitsType1;
+        this.priceType1 = other.priceType1;
+        this.type2Code = other.type2Code;
+        this.numUnitsType2 = other.numUnitsType2;
+        this.priceType2 = other.priceType2;
+        this.openingDay = other.openingDay;
+        this.closingDay = other.closingDay;
+        this.unparsedDates = other.unparsedDates != null ? other.unparsedDates.clone() : null;
+        this.managerCode = other.managerCode;
+        this.officerSlots = other.officerSlots;
+        this.visibility = other.visibility;
+        for (int list = 0; list < LISTS; list++) {
+            this.lists[list] = StatusSet.copyOf(other.lists[list]);
+        }
+        this.type1Waitlist = other.type1Waitlist.copy();
+        this.type2Waitlist = other.type2Waitlist.copy();
     }
 
     /**
@@ -308,14 +450,14 @@ class Project {
      *
      * @return the neighborhood
      */
-    public String getNeighborhood() { return neighborhood; }
+    public String getNeighborhood() { return StringDictionary.string(neighborhoodCode); }
 
     /**
      * Gets type 1.
      *
      * @return the type 1
      */
-    public String getType1() { return type1; }
+    public String getType1() { return StringDictionary.string(type1Code); }
 
     /**
      * Gets num units type 1.
@@ -336,7 +478,7 @@ class Project {
      *
      * @return the type 2
      */
-    public String getType2() { return type2; }
+    public String getType2() { return StringDictionary.string(type2Code); }
 
     /**
      * Gets num units type 2.
@@ -357,315 +499,891 @@ class Project {
      *
      * @return the opening date
      */
-    public String getOpeningDate() { return openingDate; }
+    public String getOpeningDate() { return formatDate(openingDay, 0); }
 
     /**
      * Gets closing date.
      *
      * @return the closing date
      */
-    public String getClosingDate() { return closingDate; }
+    public String getClosingDate() { return formatDate(closingDay, 1); }
 
     /**
-     * Gets manager name.
+     * Parses a yyyy-MM-dd date into an epoch day.
      *
-     * @return the manager name
+     * @param date the date
+     * @return the epoch day, or INVALID_DAY if the date cannot be parsed
      */
-    public String getManagerName() { return managerName; }
+    static int parseEpochDay(String date) {
+        try {
+            return (int) LocalDate.parse(date.trim()).toEpochDay();
+        } catch (RuntimeException e) {
+            return INVALID_DAY;
+        }
+    }
+
+    private String formatDate(int day, int index) {
+        return day != INVALID_DAY ? LocalDate.ofEpochDay(day).toString() : unparsedDates[index];
+    }
+
+    private int parseDate(String date, int index) {
+        int day = parseEpochDay(date);
+        if (day == INVALID_DAY) {
+            if (unparsedDates == null) {
+                unparsedDates = new String[2];
+            }
+            unparsedDates[index] = date;
+        } else if (unparsedDates != null) {
+            unparsedDates[index] = null;
+        }
+        return day;
+    }
 
     /**
-     * Gets officer slots.
+     * Gets opening date as an epoch day.
      *
-     * @return the officer slots
+     * @return the opening day, or INVALID_DAY
      */
-    public int getOfficerSlots() { return officerSlots; }
+    public int getOpeningDay() { return openingDay; }
 
     /**
-     * Gets officers.
+     * Gets closing date as an epoch day.
      *
-     * @return the officers
+     * @return the closing day, or INVALID_DAY
      */
-    public List<String> getOfficers() { return new ArrayList<>(officers); }
+    public int getClosingDay() { return closingDay; }
 
     /**
-     * Gets visibility.
+     * Checks whether both dates of the application window could be parsed.
      *
-     * @return the visibility
+     * @return the boolean
      */
-    public boolean getVisibility() { return visibility; }
+    public boolean hasValidWindow() {
+        return openingDay != INVALID_DAY && closingDay != INVALID_DAY;
+    }
 
     /**
-     * Sets visibility.
+     * Checks whether applications are open on a day, opening and closing days included.
      *
-     * @param visibility the visibility
+     * @param epochDay the day
+     * @return the boolean
      */
-    public void setVisibility(boolean visibility) { this.visibility = visibility; }
+    public boolean isOpenOn(int epochDay) {
+        return hasValidWindow() && openingDay <= epochDay && epochDay <= closingDay;
+    }
 
     /**
-     * Gets officer pending.
+     * Adds an application, putting the applicant on the pending list of the flat type.
      *
-     * @return the officer pending
+     * @param type  the flat type designation, Type1 or Type2
+     * @param owner the name of the applicant
      */
-    public List<String> getOfficerPending() { return new ArrayList<>(officerPending); }
+    public void applyOwner(String type, String owner) {
+        edit(list(type, TYPE1_PENDING)).add(UserIds.id(owner));
+    }
 
     /**
-     * Gets officer unsuccessful.
+     * Approves a pending application, moving the applicant to the successful list of the flat type.
      *
-     * @return the officer unsuccessful
+     * @param type  the flat type designation, Type1 or Type2
+     * @param owner the name of the applicant
+     * @return false if the applicant has no pending application for the flat type
      */
-    public List<String> getOfficerUnsuccessful() { return new ArrayList<>(officerUnsuccessful); }
+    public boolean approveOwner(String type, String owner) {
+        return move(list(type, TYPE1_PENDING), list(type, TYPE1_SUCCESSFUL), owner);
+    }
 
     /**
-     * Gets type 1 owner pending.
+     * Books a unit for a successful applicant, moving the applicant to the booked list of the flat type.
      *
-     * @return the type 1 owner pending
+     * @param type  the flat type designation, Type1 or Type2
+     * @param owner the name of the applicant
+     * @return false if no unit is left or the applicant is not successful for the flat type
      */
-    public List<String> getType1OwnerPending() { return new ArrayList<>(type1OwnerPending); }
+    public boolean bookOwner(String type, String owner) {
+        if (type.equals("Type1")) {
+            if (numUnitsType1 <= 0 || !move(TYPE1_SUCCESSFUL, TYPE1_BOOKED, owner)) {
+                return false;
+            }
+            numUnitsType1--;
+        } else {
+            if (numUnitsType2 <= 0 || !move(TYPE2_SUCCESSFUL, TYPE2_BOOKED, owner)) {
+                return false;
+            }
+            numUnitsType2--;
+        }
+        return true;
+    }
 
     /**
-     * Gets type 1 owner unsuccessful.
+     * Approves a pending withdrawal, moving the applicant to the unsuccessful list of the flat type and
+     * releasing the unit the applicant had booked, if any.
      *
-     * @return the type 1 owner unsuccessful
+     * @param type  the flat type designation, Type1 or Type2
+     * @param owner the name of the applicant
+     * @return false if the applicant has no pending withdrawal for the flat type
      */
-    public List<String> getType1OwnerUnsuccessful() { return new ArrayList<>(type1OwnerUnsuccessful); }
+    public boolean approveWithdrawal(String type, String owner) {
+        if (!move(list(type, TYPE1_WITHDRAWAL_PENDING), list(type, TYPE1_UNSUCCESSFUL), owner)) {
+            return false;
+        }
+        if (remove(list(type, TYPE1_WITHDRAWAL_BOOKED), UserIds.find(owner))) {
+            if (type.equals("Type1")) {
+                numUnitsType1++;
+            } else {
+                numUnitsType2++;
+            }
+        }
+        return true;
+    }
 
     /**
-     * Gets type 1 owner successful.
+     * Approves every pending withdrawal of a flat type at once, moving the applicants to the unsuccessful
+     * list and releasing the units they had booked.
      *
-     * @return the type 1 owner successful
+     * @param type the flat type designation, Type1 or Type2
+     * @return the number of withdrawals approved
      */
-    public List<String> getType1OwnerSuccessful() { return new ArrayList<>(type1OwnerSuccessful); }
+    public int approveAllWithdrawals(String type) {
+        int pendingList = list(type, TYPE1_WITHDRAWAL_PENDING);
+        int bookedList = list(type, TYPE1_WITHDRAWAL_BOOKED);
+        StatusSet pending = lists[pendingList];
+        int approved = pending.cardinality();
+        if (approved == 0) {
+            return 0;
+        }
+        StatusSet booked = lists[bookedList];
+        StatusSet stillBooked = StatusSet.copyOf(booked);
+        stillBooked.andNot(pending);
+        int released = booked.cardinality() - stillBooked.cardinality();
+        edit(list(type, TYPE1_UNSUCCESSFUL)).or(pending);
+        lists[pendingList] = StatusSet.EMPTY;
+        lists[bookedList] = stillBooked.isEmpty() ? StatusSet.EMPTY : stillBooked;
+        if (type.equals("Type1")) {
+            numUnitsType1 += released;
+        } else {
+            numUnitsType2 += released;
+        }
+        return approved;
+    }
 
     /**
-     * Gets type 1 owner booked.
+     * Moves a successful applicant who cannot book because no unit is left to the waitlist of the flat type.
      *
-     * @return the type 1 owner booked
+     * @param type  the flat type designation, Type1 or Type2
+     * @param owner the name of the applicant
+     * @param rank  the rank, such as the current time in epoch milliseconds
+     * @return false if the applicant is not successful for the flat type
      */
-    public List<String> getType1OwnerBooked() { return new ArrayList<>(type1OwnerBooked); }
+    public boolean waitlistOwner(String type, String owner, long rank) {
+        if (!remove(list(type, TYPE1_SUCCESSFUL), UserIds.find(owner))) {
+            return false;
+        }
+        (type.equals("Type1") ? type1Waitlist : type2Waitlist).add(owner, rank);
+        return true;
+    }
 
     /**
-     * Gets type 1 withdrawal pending.
+     * Promotes the first applicants of the waitlist of a flat type to successful while there are more units
+     * left than successful applicants to book them.
      *
-     * @return the type 1 withdrawal pending
+     * @param type the flat type designation, Type1 or Type2
+     * @return the names promoted, in rank order
      */
-    public List<String> getType1WithdrawalPending() { return new ArrayList<>(type1WithdrawalPending); }
+    public List<String> promoteWaitlisted(String type) {
+        boolean type1 = type.equals("Type1");
+        Waitlist waitlist = type1 ? type1Waitlist : type2Waitlist;
+        int successful = list(type, TYPE1_SUCCESSFUL);
+        int units = type1 ? numUnitsType1 : numUnitsType2;
+        List<String> promoted = new ArrayList<>();
+        while (units > lists[successful].cardinality() && waitlist.size() > 0) {
+            String owner = waitlist.poll();
+            edit(successful).add(UserIds.id(owner));
+            promoted.add(owner);
+        }
+        return promoted;
+    }
 
     /**
-     * Gets type 2 owner pending.
+     * Checks whether an applicant is on the waitlist of a flat type.
      *
-     * @return the type 2 owner pending
+     * @param type the flat type designation, Type1 or Type2
+     * @param name the name of the applicant
+     * @return true if the applicant is
      */
-    public List<String> getType2OwnerPending() { return new ArrayList<>(type2OwnerPending); }
+    public boolean isWaitlisted(String type, String name) {
+        return (type.equals("Type1") ? type1Waitlist : type2Waitlist).contains(name);
+    }
 
     /**
-     * Gets type 2 owner unsuccessful.
+     * Gets the position of an applicant on the waitlist of a flat type, counting from 1.
      *
-     * @return the type 2 owner unsuccessful
+     * @param type the flat type designation, Type1 or Type2
+     * @param name the name of the applicant
+     * @return the position, or 0 if the applicant is not waiting
      */
-    public List<String> getType2OwnerUnsuccessful() { return new ArrayList<>(type2OwnerUnsuccessful); }
+    public int getWaitlistPosition(String type, String name) {
+        return (type.equals("Type1") ? type1Waitlist : type2Waitlist).position(name);
+    }
 
     /**
-     * Gets type 2 owner successful.
+     * Gets the waitlist of a flat type as stored, in rank order.
      *
-     * @return the type 2 owner successful
+     * @param type the flat type designation, Type1 or Type2
+     * @return the {@code name:rank} entries
      */
-    public List<String> getType2OwnerSuccessful() { return new ArrayList<>(type2OwnerSuccessful); }
+    public List<String> getWaitlist(String type) {
+        return (type.equals("Type1") ? type1Waitlist : type2Waitlist).entries();
+    }
 
     /**
-     * Gets type 2 owner booked.
+     * Sets the waitlist of a flat type from its stored entries.
      *
-     * @return the type 2 owner booked
+     * @param type    the flat type designation, Type1 or Type2
+     * @param entries the {@code name:rank} entries
      */
-    public List<String> getType2OwnerBooked() { return new ArrayList<>(type2OwnerBooked); }
+    public void setWaitlist(String type, List<String> entries) {
+        if (type.equals("Type1")) {
+            type1Waitlist = Waitlist.parse(entries);
+        } else {
+            type2Waitlist = Waitlist.parse(entries);
+        }
+    }
 
     /**
-     * Gets type 2 withdrawal pending.
+     * Gets the applicants with a pending withdrawal who had booked a unit of a flat type.
      *
-     * @return the type 2 withdrawal pending
+     * @param type the flat type designation, Type1 or Type2
+     * @return the names
      */
-    public List<String> getType2WithdrawalPending() { return new ArrayList<>(type2WithdrawalPending); }
+    public List<String> getWithdrawalBooked(String type) {
+        return lists[list(type, TYPE1_WITHDRAWAL_BOOKED)].names();
+    }
 
     /**
-     * Sets neighborhood.
+     * Sets the applicants with a pending withdrawal who had booked a unit of a flat type.
      *
-     * @param neighborhood the neighborhood
+     * @param type  the flat type designation, Type1 or Type2
+     * @param names the names
      */
-    public void setNeighborhood(String neighborhood) { this.neighborhood = neighborhood; }
+    public void setWithdrawalBooked(String type, List<String> names) {
+        lists[list(type, TYPE1_WITHDRAWAL_BOOKED)] = StatusSet.of(names);
+    }
 
     /**
-     * Sets num units type 1.
+     * Requests withdrawal of every application of an applicant, moving the applicant from the pending,
+     * unsuccessful, successful and booked lists and the waitlist to the withdrawal pending list of each
+     * flat type. A booked unit is remembered so that approving the withdrawal releases it.
      *
-     * @param numUnitsType1 the num units type 1
+     * @param owner the name of the applicant
+     * @return false if the applicant has no application in this project
      */
-    public void setNumUnitsType1(int numUnitsType1) { this.numUnitsType1 = numUnitsType1; }
+    public boolean requestWithdrawal(String owner) {
+        int id = UserIds.find(owner);
+        if (id < 0) {
+            return false;
+        }
+        if (lists[TYPE1_BOOKED].contains(id)) {
+            edit(TYPE1_WITHDRAWAL_BOOKED).add(id);
+        }
+        if (lists[TYPE2_BOOKED].contains(id)) {
+            edit(TYPE2_WITHDRAWAL_BOOKED).add(id);
+        }
+        boolean type1 = remove(TYPE1_PENDING, id) | remove(TYPE1_UNSUCCESSFUL, id)
+                | remove(TYPE1_SUCCESSFUL, id) | remove(TYPE1_BOOKED, id) | type1Waitlist.remove(owner);
+        boolean type2 = remove(TYPE2_PENDING, id) | remove(TYPE2_UNSUCCESSFUL, id)
+                | remove(TYPE2_SUCCESSFUL, id) | remove(TYPE2_BOOKED, id) | type2Waitlist.remove(owner);
+        if (type1) {
+            edit(TYPE1_WITHDRAWAL_PENDING).add(id);
+        }
+        if (type2) {
+            edit(TYPE2_WITHDRAWAL_PENDING).add(id);
+        }
+        return type1 || type2;
+    }
+
+    private static int list(String type, int type1List) {
+        return type.equals("Type1") ? type1List : type1List + TYPE2;
+    }
+
+    private StatusSet edit(int list) {
+        return lists[list] = StatusSet.writable(lists[list]);
+    }
+
+    private boolean remove(int list, int id) {
+        if (!lists[list].remove(id)) {
+            return false;
+        }
+        if (lists[list].isEmpty()) {
+            lists[list] = StatusSet.EMPTY;
+        }
+        return true;
+    }
+
+    private boolean move(int from, int to, String name) {
+        int id = UserIds.find(name);
+        if (!remove(from, id)) {
+            return false;
+        }
+        edit(to).add(id);
+        return true;
+    }
 
     /**
-     * Sets price type 1.
+     * Checks whether any application for either flat type is pending.
      *
-     * @param priceType1 the price type 1
+     * @return true if one is
      */
-    public void setPriceType1(int priceType1) { this.priceType1 = priceType1; }
+    public boolean hasPendingApplications() {
+        return !lists[TYPE1_PENDING].isEmpty() || !lists[TYPE2_PENDING].isEmpty();
+    }
 
     /**
-     * Sets num units type 2.
+     * Marks every pending application unsuccessful, as when applications close.
      *
-     * @param numUnitsType2 the num units type 2
+     * @return false if no application was pending
      */
-    public void setNumUnitsType2(int numUnitsType2) { this.numUnitsType2 = numUnitsType2; }
+    public boolean expirePendingApplications() {
+        if (!hasPendingApplications()) {
+            return false;
+        }
+        for (int pending : new int[]{TYPE1_PENDING, TYPE2_PENDING}) {
+            if (!lists[pending].isEmpty()) {
+                edit(pending + TYPE1_UNSUCCESSFUL - TYPE1_PENDING).or(lists[pending]);
+                lists[pending] = StatusSet.EMPTY;
+            }
+        }
+        return true;
+    }
 
     /**
-     * Sets price type 2.
+     * Adds an officer registration, putting the officer on the pending officer list.
      *
-     * @param priceType2 the price type 2
+     * @param officer the name of the officer
      */
-    public void setPriceType2(int priceType2) { this.priceType2 = priceType2; }
+    public void registerOfficer(String officer) {
+        edit(OFFICER_PENDING).add(UserIds.id(officer));
+    }
 
     /**
-     * Sets opening date.
+     * Approves a pending officer registration, assigning the officer to this project.
      *
-     * @param openingDate the opening date
+     * @param officer the name of the officer
+     * @return false if the officer has no pending registration
      */
-    public void setOpeningDate(String openingDate) { this.openingDate = openingDate; }
+    public boolean approveOfficer(String officer) {
+        return move(OFFICER_PENDING, OFFICERS, officer);
+    }
 
     /**
-     * Sets closing date.
+     * Rejects a pending officer registration, moving the officer to the unsuccessful officer list.
      *
-     * @param closingDate the closing date
+     * @param officer the name of the officer
+     * @return false if the officer has no pending registration
      */
-    public void setClosingDate(String closingDate) { this.closingDate = closingDate; }
+    public boolean rejectOfficer(String officer) {
+        return move(OFFICER_PENDING, OFFICER_UNSUCCESSFUL, officer);
+    }
 
     /**
-     * Sets officer slots.
+     * Gets the number of officer slots taken by assigned and pending officers.
      *
-     * @param officerSlots the officer slots
+     * @return the number of slots taken
      */
-    public void setOfficerSlots(int officerSlots) { this.officerSlots = officerSlots; }
+    public int getTakenOfficerSlots() {
+        return lists[OFFICERS].cardinality() + lists[OFFICER_PENDING].cardinality();
+    }
 
     /**
-     * Sets officer pending.
+     * Gets the number of officer slots not taken by assigned or pending officers.
      *
-     * @param officerPending the officer pending
+     * @return the number of free slots
      */
-    public void setOfficerPending(List<String> officerPending) { this.officerPending = new ArrayList<>(officerPending); }
+    public int getFreeOfficerSlots() {
+        return Math.max(0, officerSlots - getTakenOfficerSlots());
+    }
 
     /**
-     * Sets officer unsuccessful.
+     * Checks whether a user is an officer of this project.
      *
-     * @param officerUnsuccessful the officer unsuccessful
+     * @param name the name of the user
+     * @return true if the user is
      */
-    public void setOfficerUnsuccessful(List<String> officerUnsuccessful) { this.officerUnsuccessful = new ArrayList<>(officerUnsuccessful); }
+    public boolean isOfficer(String name) {
+        return lists[OFFICERS].contains(name);
+    }
 
     /**
-     * Sets type 1 owner pending.
+     * Checks whether a user is an officer of this project or has applied to be one.
      *
-     * @param type1OwnerPending the type 1 owner pending
+     * @param name the name of the user
+     * @return true if the user is
      */
-    public void setType1OwnerPending(List<String> type1OwnerPending) { this.type1OwnerPending = new ArrayList<>(type1OwnerPending); }
+    public boolean isOfficerOrPending(String name) {
+        int id = UserIds.find(name);
+        return lists[OFFICERS].contains(id) || lists[OFFICER_PENDING].contains(id);
+    }
 
     /**
-     * Sets type 1 owner unsuccessful.
+     * Checks whether a user has an application for a flat type that is pending, unsuccessful,
+     * successful or booked.
      *
-     * @param type1OwnerUnsuccessful the type 1 owner unsuccessful
+     * @param name the name of the applicant
+     * @return true if the applicant has
      */
-    public void setType1OwnerUnsuccessful(List<String> type1OwnerUnsuccessful) { this.type1OwnerUnsuccessful = new ArrayList<>(type1OwnerUnsuccessful); }
+    public boolean hasApplication(String name) {
+        int id = UserIds.find(name);
+        for (int list = TYPE1_PENDING; list <= TYPE1_BOOKED; list++) {
+            if (lists[list].contains(id) || lists[list + TYPE2].contains(id)) {
+                return true;
+            }
+        }
+        return type1Waitlist.contains(name) || type2Waitlist.contains(name);
+    }
 
     /**
-     * Sets type 1 owner successful.
+     * Checks whether a user is successful for a flat type.
      *
-     * @param type1OwnerSuccessful the type 1 owner successful
+     * @param type the flat type designation, Type1 or Type2
+     * @param name the name of the applicant
+     * @return true if the applicant is
      */
-    public void setType1OwnerSuccessful(List<String> type1OwnerSuccessful) { this.type1OwnerSuccessful = new ArrayList<>(type1OwnerSuccessful); }
+    public boolean isSuccessful(String type, String name) {
+        return lists[list(type, TYPE1_SUCCESSFUL)].contains(name);
+    }
 
     /**
-     * Sets type 1 owner booked.
+     * Checks whether a user has a pending withdrawal for either flat type.
      *
-     * @param type1OwnerBooked the type 1 owner booked
+     * @param name the name of the applicant
+     * @return true if the applicant has
      */
-    public void setType1OwnerBooked(List<String> type1OwnerBooked) { this.type1OwnerBooked = new ArrayList<>(type1OwnerBooked); }
+    public boolean isWithdrawalPending(String name) {
+        int id = UserIds.find(name);
+        return lists[TYPE1_WITHDRAWAL_PENDING].contains(id) || lists[TYPE2_WITHDRAWAL_PENDING].contains(id);
+    }
 
     /**
-     * Sets type 1 withdrawal pending.
+     * Gets the applicants with a pending application in any of some projects.
      *
-     * @param type1WithdrawalPending the type 1 withdrawal pending
+     * @param projects the projects
+     * @return the IDs of the applicants
      */
-    public void setType1WithdrawalPending(List<String> type1WithdrawalPending) { this.type1WithdrawalPending = new ArrayList<>(type1WithdrawalPending); }
+    public static StatusSet pendingAnywhere(List<Project> projects) {
+        StatusSet pending = new StatusSet();
+        for (Project project : projects) {
+            pending.or(project.lists[TYPE1_PENDING]);
+            pending.or(project.lists[TYPE2_PENDING]);
+        }
+        return pending;
+    }
 
     /**
-     * Sets type 2 owner pending.
+     * Gets the applicants who booked a flat in any of some projects.
      *
-     * @param type2OwnerPending the type 2 owner pending
+     * @param projects the projects
+     * @return the IDs of the applicants
      */
-    public void setType2OwnerPending(List<String> type2OwnerPending) { this.type2OwnerPending = new ArrayList<>(type2OwnerPending); }
+    public static StatusSet bookedAnywhere(List<Project> projects) {
+        StatusSet booked = new StatusSet();
+        for (Project project : projects) {
+            booked.or(project.lists[TYPE1_BOOKED]);
+            booked.or(project.lists[TYPE2_BOOKED]);
+        }
+        return booked;
+    }
 
     /**
-     * Sets type 2 owner unsuccessful.
+     * Passes the {@link UserIds} ID of every user named in any officer, application, withdrawal or waitlist
+     * of this project to an action. A user named in several lists is passed once per list.
      *
-     * @param type2OwnerUnsuccessful the type 2 owner unsuccessful
+     * @param action the action
      */
-    public void setType2OwnerUnsuccessful(List<String> type2OwnerUnsuccessful) { this.type2OwnerUnsuccessful = new ArrayList<>(type2OwnerUnsuccessful); }
+    public void forEachNamedId(IntConsumer action) {
+        for (StatusSet list : lists) {
+            list.forEach(action);
+        }
+        type1Waitlist.forEachId(action);
+        type2Waitlist.forEachId(action);
+    }
 
     /**
-     * Sets type 2 owner successful.
+     * Gets a snapshot of the counters of this project, without walking any status list.
      *
-     * @param type2OwnerSuccessful the type 2 owner successful
+     * @return the counters
      */
-    public void setType2OwnerSuccessful(List<String> type2OwnerSuccessful) { this.type2OwnerSuccessful = new ArrayList<>(type2OwnerSuccessful); }
+    public ProjectCounters getCounters() {
+        int[][] counts = new int[2][];
+        for (int type = 0; type < 2; type++) {
+            int offset = type * TYPE2;
+            counts[type] = new int[]{lists[TYPE1_PENDING + offset].cardinality(), lists[TYPE1_UNSUCCESSFUL + offset].cardinality(),
+                    lists[TYPE1_SUCCESSFUL + offset].cardinality(), lists[TYPE1_BOOKED + offset].cardinality(),
+                    lists[TYPE1_WITHDRAWAL_PENDING + offset].cardinality(), (type == 0 ? type1Waitlist : type2Waitlist).size()};
+        }
+        return new ProjectCounters(projectName, getManagerName(), new String[]{getType1(), getType2()},
+                new int[]{numUnitsType1, numUnitsType2}, counts);
+    }
 
     /**
-     * Sets type 2 owner booked.
+     * Passes the name of every owner who booked a flat of a type, without copying the status list.
      *
-     * @param type2OwnerBooked the type 2 owner booked
+     * @param type   1 or 2
+     * @param action the action applied to every name
      */
-    public void setType2OwnerBooked(List<String> type2OwnerBooked) { this.type2OwnerBooked = new ArrayList<>(type2OwnerBooked); }
+    public void forEachBooked(int type, Consumer<String> action) {
+        lists[type == 1 ? TYPE1_BOOKED : TYPE2_BOOKED].forEach(id -> action.accept(UserIds.name(id)));
+    }
 
     /**
-     * Sets type 2 withdrawal pending.
+     * Gets manager name.
      *
-     * @param type2WithdrawalPending the type 2 withdrawal pending
+     * @return the manager name
      */
-    public void setType2WithdrawalPending(List<String> type2WithdrawalPending) { this.type2WithdrawalPending = new ArrayList<>(type2WithdrawalPending); }
-}
+    public String getManagerName() { return StringDictionary.string(managerCode); }
 
-/**
- * Class representing FileHandler in the system
- */
-class FileHandler {
     /**
-     * Read users from csv list.
+     * Gets officer slots.
      *
-     * @param <T>       the type parameter
-     * @param filename  the filename of the csv
-     * @param userClass the user class
-     * @return the list
+     * @return the officer slots
      */
-    public static <T extends User> List<T> readUsersFromCSV(String filename, Class<T> userClass) {
-        List<T> users = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            boolean firstLine = true;
-            while ((line = br.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue;
-                }
-                String[] parts = line.split(",");
-                if (parts.length < 5) continue;
-                String name = parts[0].trim();
-                String nric = parts[1].trim();
-                int age = Integer.parseInt(parts[2].trim());
-                String maritalStatus = parts[3].trim();
-                String password = parts[4].trim();
-                String filter = "None";
+    public int getOfficerSlots() { return officerSlots; }
+
+    /**
+     * Gets officers.
+     *
+     * @return the officers
+     */
+    public List<String> getOfficers() { return lists[OFFICERS].names(); }
+
+    /**
+     * Gets visibility.
+     *
+     * @return the visibility
+     */
+    public boolean getVisibility() { return visibility; }
+
+    /**
+     * Sets visibility.
+     *
+     * @param visibility the visibility
+     */
+    public void setVisibility(boolean visibility) { this.visibility = visibility; }
+
+    /**
+     * Gets officer pending.
+     *
+     * @return the officer pending
+     */
+    public List<String> getOfficerPending() { return lists[OFFICER_PENDING].names(); }
+
+    /**
+     * Gets officer unsuccessful.
+     *
+     * @return the officer unsuccessful
+     */
+    public List<String> getOfficerUnsuccessful() { return lists[OFFICER_UNSUCCESSFUL].names(); }
+
+    /**
+     * Gets type 1 owner pending.
+     *
+     * @return the type 1 owner pending
+     */
+    public List<String> getType1OwnerPending() { return lists[TYPE1_PENDING].names(); }
+
+    /**
+     * Gets type 1 owner unsuccessful.
+     *
+     * @return the type 1 owner unsuccessful
+     */
+    public List<String> getType1OwnerUnsuccessful() { return lists[TYPE1_UNSUCCESSFUL].names(); }
+
+    /**
+     * Gets type 1 owner successful.
+     *
+     * @return the type 1 owner successful
+     */
+    public List<String> getType1OwnerSuccessful() { return lists[TYPE1_SUCCESSFUL].names(); }
+
+    /**
+     * Gets type 1 owner booked.
+     *
+     * @return the type 1 owner booked
+     */
+    public List<String> getType1OwnerBooked() { return lists[TYPE1_BOOKED].names(); }
+
+    /**
+     * Gets type 1 withdrawal pending.
+     *
+     * @return the type 1 withdrawal pending
+     */
+    public List<String> getType1WithdrawalPending() { return lists[TYPE1_WITHDRAWAL_PENDING].names(); }
+
+    /**
+     * Gets type 2 owner pending.
+     *
+     * @return the type 2 owner pending
+     */
+    public List<String> getType2OwnerPending() { return lists[TYPE2_PENDING].names(); }
+
+    /**
+     * Gets type 2 owner unsuccessful.
+     *
+     * @return the type 2 owner unsuccessful
+     */
+    public List<String> getType2OwnerUnsuccessful() { return lists[TYPE2_UNSUCCESSFUL].names(); }
+
+    /**
+     * Gets type 2 owner successful.
+     *
+     * @return the type 2 owner successful
+     */
+    public List<String> getType2OwnerSuccessful() { return lists[TYPE2_SUCCESSFUL].names(); }
+
+    /**
+     * Gets type 2 owner booked.
+     *
+     * @return the type 2 owner booked
+     */
+    public List<String> getType2OwnerBooked() { return lists[TYPE2_BOOKED].names(); }
+
+    /**
+     * Gets type 2 withdrawal pending.
+     *
+     * @return the type 2 withdrawal pending
+     */
+    public List<String> getType2WithdrawalPending() { return lists[TYPE2_WITHDRAWAL_PENDING].names(); }
+
+    /**
+     * Sets neighborhood.
+     *
+     * @param neighborhood the neighborhood
+     */
+    public void setNeighborhood(String neighborhood) { this.neighborhoodCode = StringDictionary.code(neighborhood); }
+
+    /**
+     * Sets num units type 1.
+     *
+     * @param numUnitsType1 the num units type 1
+     */
+    public void setNumUnitsType1(int numUnitsType1) { this.numUnitsType1 = numUnitsType1; }
+
+    /**
+     * Sets price type 1.
+     *
+     * @param priceType1 the price type 1
+     */
+    public void setPriceType1(int priceType1) { this.priceType1 = priceType1; }
+
+    /**
+     * Sets num units type 2.
+     *
+     * @param numUnitsType2 the num units type 2
+     */
+    public void setNumUnitsType2(int numUnitsType2) { this.numUnitsType2 = numUnitsType2; }
+
+    /**
+     * Sets price type 2.
+     *
+     * @param priceType2 the price type 2
+     */
+    public void setPriceType2(int priceType2) { this.priceType2 = priceType2; }
+
+    /**
+     * Sets opening date.
+     *
+     * @param openingDate the opening date
+     */
+    public void setOpeningDate(String openingDate) {
+        this.openingDay = parseDate(openingDate, 0);
+    }
+
+    /**
+     * Sets closing date.
+     *
+     * @param closingDate the closing date
+     */
+    public void setClosingDate(String closingDate) {
+        this.closingDay = parseDate(closingDate, 1);
+    }
+
+    /**
+     * Sets officer slots.
+     *
+     * @param officerSlots the officer slots
+     */
+    public void setOfficerSlots(int officerSlots) { this.officerSlots = officerSlots; }
+
+    /**
+     * Sets officer pending.
+     *
+     * @param officerPending the officer pending
+     */
+    public void setOfficerPending(List<String> officerPending) { lists[OFFICER_PENDING] = StatusSet.of(officerPending); }
+
+    /**
+     * Sets officer unsuccessful.
+     *
+     * @param officerUnsuccessful the officer unsuccessful
+     */
+    public void setOfficerUnsuccessful(List<String> officerUnsuccessful) { lists[OFFICER_UNSUCCESSFUL] = StatusSet.of(officerUnsuccessful); }
+
+    /**
+     * Sets type 1 owner pending.
+     *
+     * @param type1OwnerPending the type 1 owner pending
+     */
+    public void setType1OwnerPending(List<String> type1OwnerPending) { lists[TYPE1_PENDING] = StatusSet.of(type1OwnerPending); }
+
+    /**
+     * Sets type 1 owner unsuccessful.
+     *
+     * @param type1OwnerUnsuccessful the type 1 owner unsuccessful
+     */
+    public void setType1OwnerUnsuccessful(List<String> type1OwnerUnsuccessful) { lists[TYPE1_UNSUCCESSFUL] = StatusSet.of(type1OwnerUnsuccessful); }
+
+    /**
+     * Sets type 1 owner successful.
+     *
+     * @param type1OwnerSuccessful the type 1 owner successful
+     */
+    public void setType1OwnerSuccessful(List<String> type1OwnerSuccessful) { lists[TYPE1_SUCCESSFUL] = StatusSet.of(type1OwnerSuccessful); }
+
+    /**
+     * Sets type 1 owner booked.
+     *
+     * @param type1OwnerBooked the type 1 owner booked
+     */
+    public void setType1OwnerBooked(List<String> type1OwnerBooked) { lists[TYPE1_BOOKED] = StatusSet.of(type1OwnerBooked); }
+
+    /**
+     * Sets type 1 withdrawal pending.
+     *
+     * @param type1WithdrawalPending the type 1 withdrawal pending
+     */
+    public void setType1WithdrawalPending(List<String> type1WithdrawalPending) { lists[TYPE1_WITHDRAWAL_PENDING] = StatusSet.of(type1WithdrawalPending); }
+
+    /**
+     * Sets type 2 owner pending.
+     *
+     * @param type2OwnerPending the type 2 owner pending
+     */
+    public void setType2OwnerPending(List<String> type2OwnerPending) { lists[TYPE2_PENDING] = StatusSet.of(type2OwnerPending); }
+
+    /**
+     * Sets type 2 owner unsuccessful.
+     *
+     * @param type2OwnerUnsuccessful the type 2 owner unsuccessful
+     */
+    public void setType2OwnerUnsuccessful(List<String> type2OwnerUnsuccessful) { lists[TYPE2_UNSUCCESSFUL] = StatusSet.of(type2OwnerUnsuccessful); }
+
+    /**
+     * Sets type 2 owner successful.
+     *
+     * @param type2OwnerSuccessful the type 2 owner successful
+     */
+    public void setType2OwnerSuccessful(List<String> type2OwnerSuccessful) { lists[TYPE2_SUCCESSFUL] = StatusSet.of(type2OwnerSuccessful); }
+
+    /**
+     * Sets type 2 owner booked.
+     *
+     * @param type2OwnerBooked the type 2 owner booked
+     */
+    public void setType2OwnerBooked(List<String> type2OwnerBooked) { lists[TYPE2_BOOKED] = StatusSet.of(type2OwnerBooked); }
+
+    /**
+     * Sets type 2 withdrawal pending.
+     *
+     * @param type2WithdrawalPending the type 2 withdrawal pending
+     */
+    public void setType2WithdrawalPending(List<String> type2WithdrawalPending) { lists[TYPE2_WITHDRAWAL_PENDING] = StatusSet.of(type2WithdrawalPending); }
+}
+
+/**
+ * Class representing FileHandler in the system
+ */
+class FileHandler {
+    private static final String PROJECT_HEADER = "Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer,Visibility,OfficerPending,OfficerUnsuccessful,Type1OwnerPending,Type1OwnerUnsuccessful,Type1OwnerSuccessful,Type1OwnerBooked,Type1WithdrawalPending,Type2OwnerPending,Type2OwnerUnsuccessful,Type2OwnerSuccessful,Type2OwnerBooked,Type2WithdrawalPending,Type1Waitlist,Type2Waitlist,Type1WithdrawalBooked,Type2WithdrawalBooked";
+    private static final String ENQUIRY_HEADER = "Name,Project,String,Reply";
+
+    /**
+     * Resolves a data file against the directory set with -Dsdda.data.dir, or the working directory
+     * when it is not set.
+     *
+     * @param filename the filename
+     * @return the file
+     */
+    public static File dataFile(String filename) {
+        String dataDir = System.getProperty("sdda.data.dir");
+        File file = new File(filename);
+        return dataDir == null || file.isAbsolute() ? file : new File(dataDir, filename);
+    }
+
+    /**
+     * Read users from csv list.
+     *
+     * @param <T>       the type parameter
+     * @param filename  the filename of the csv
+     * @param userClass the user class
+     * @return the list
+     */
+    public static <T extends User> List<T> readUsersFromCSV(String filename, Class<T> userClass) {
+        return DataModel.users(filename, userClass).copies();
+    }
+
+    /**
+     * Finds a user in one user list.
+     *
+     * @param <T>       the type parameter
+     * @param filename  the filename of the csv
+     * @param userClass the user class
+     * @param nric      the NRIC, in any case
+     * @return the user, or null if the list has no such user
+     */
+    public static <T extends User> T findUser(String filename, Class<T> userClass, String nric) {
+        return DataModel.users(filename, userClass).find(nric.toUpperCase());
+    }
+
+    /**
+     * Parses a user list, with the changes recorded in its side store applied.
+     *
+     * @param <T>       the type parameter
+     * @param file      the file
+     * @param filename  the filename of the csv, which names its side store
+     * @param userClass the user class
+     * @return the list
+     */
+    static <T extends User> List<T> parseUsers(File file, String filename, Class<T> userClass) {
+        List<T> users = new ArrayList<>();
+        UserRecordStore records = UserRecordStore.forList(filename);
+        FileIoEvent io = FileIoEvent.begin("readUsersFromCSV", file);
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            boolean firstLine = true;
+            while ((line = br.readLine()) != null) {
+                if (firstLine) {
+                    firstLine = false;
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 5) continue;
+                String name = parts[0].trim();
+                String nric = parts[1].trim();
+                int age = Integer.parseInt(parts[2].trim());
+                String maritalStatus = parts[3].trim();
+                String password = parts[4].trim();
+                String filter = "None";
                 if (parts.length >= 6) {
                     filter = parts[5].trim();
                 }
                 T user = userClass.getDeclaredConstructor(String.class, String.class, int.class, String.class, String.class, String.class)
                         .newInstance(name, nric, age, maritalStatus, password, filter);
+                records.apply(user);
                 users.add(user);
             }
         } catch (IOException | ReflectiveOperationException e) {
             e.printStackTrace();
         }
+        io.read(users.size());
         return users;
     }
 
@@ -677,21 +1395,91 @@ class FileHandler {
      * @return the boolean
      */
     public static boolean writeUsersToCSV(String filename, List<? extends User> users) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
+        File file = dataFile(filename);
+        FileIoEvent io = FileIoEvent.begin("writeUsersToCSV", file);
+        boolean written = FileLocks.replace(file, pw -> {
             pw.println("Name,NRIC,Age,Marital Status,Password,Filter");
             for (User user : users) {
-                pw.printf("%s,%s,%d,%s,%s,%s%n",
-                        user.getName(),
-                        user.getNric(),
-                        user.getAge(),
-                        user.getMaritalStatus(),
-                        user.getPassword(),
-                        user.getFilter());
-            }
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+                pw.println(userRow(user));
+            }
+        }, () -> {
+            UserRecordStore.forList(filename).clear();
+            DataModel.written(filename, users);
+        });
+        if (written) {
+            io.written(users.size());
+        }
+        return written;
+    }
+
+    /**
+     * Formats a user as a row of a user list.
+     *
+     * @param user the user
+     * @return the row, without a line separator
+     */
+    static String userRow(User user) {
+        return String.format("%s,%s,%d,%s,%s,%s",
+                user.getName(),
+                user.getNric(),
+                user.getAge(),
+                user.getMaritalStatus(),
+                user.getPassword(),
+                user.getFilter());
+    }
+
+    /**
+     * Saves the password and filter of one user. The change is recorded in the side store of the user
+     * list, and the whole list is only written when the values do not fit in a record. Both are done under
+     * the mutation lock of the list, so a record is never written between another save reading the list
+     * and emptying the side store.
+     *
+     * @param user the user
+     * @return the boolean
+     */
+    public static boolean updateUser(User user) {
+        String csvFilename = user.getCSVFilename();
+        ReentrantLock lock = FileLocks.mutation(dataFile(csvFilename));
+        lock.lock();
+        try {
+            if (UserRecordStore.forList(csvFilename).update(user)) {
+                DataModel.saved(csvFilename, user);
+                return true;
+            }
+            List<? extends User> users = readUsersFromCSV(csvFilename, user.getClass());
+            boolean found = false;
+            for (User u : users) {
+                if (u.getNric().equalsIgnoreCase(user.getNric())) {
+                    u.setPassword(user.getPassword());
+                    u.setFilter(user.getFilter());
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+            return writeUsersToCSV(csvFilename, users);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a user to the end of its user list. The list is read and written under its mutation lock, so
+     * a password or filter saved meanwhile is kept rather than written over.
+     *
+     * @param user the user
+     * @return the boolean
+     */
+    public static boolean addUser(User user) {
+        String csvFilename = user.getCSVFilename();
+        ReentrantLock lock = FileLocks.mutation(dataFile(csvFilename));
+        lock.lock();
+        try {
+            List<User> users = new ArrayList<>(readUsersFromCSV(csvFilename, user.getClass()));
+            users.add(user);
+            return writeUsersToCSV(csvFilename, users);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -703,10 +1491,172 @@ class FileHandler {
      */
     public static List<Project> readProjectsFromCSV(String filename) {
         List<Project> projects = new ArrayList<>();
-        File file = new File(filename);
-        if (!file.exists()) {
+        forEachProject(filename, projects::add);
+        return projects;
+    }
+
+    /**
+     * Read the projects of some neighbourhoods from csv list. When projects are sharded only the shards
+     * of those neighbourhoods are read.
+     *
+     * @param filename       the filename of the csv
+     * @param neighbourhoods the neighbourhoods as lower case keys, empty for all
+     * @return the list
+     */
+    public static List<Project> readProjectsFromCSV(String filename, Set<String> neighbourhoods) {
+        List<Project> projects = new ArrayList<>();
+        ProjectShards shards = ProjectShards.forList(filename);
+        if (shards != null) {
+            shards.forEach(neighbourhoods, projects::add);
             return projects;
         }
+        forEachProject(filename, p -> {
+            if (neighbourhoods.isEmpty() || neighbourhoods.contains(ProjectShards.key(p.getNeighborhood()))) {
+                projects.add(p);
+            }
+        });
+        return projects;
+    }
+
+    /**
+     * Gets the stores holding a project list, or the shards of some neighbourhoods when it is sharded.
+     *
+     * @param filename       the filename of the csv
+     * @param neighbourhoods the neighbourhood keys, empty for every shard
+     * @return the stores in shard order
+     */
+    static List<DataModel.Store<Project>> projectStores(String filename, Set<String> neighbourhoods) {
+        ProjectShards shards = ProjectShards.forList(filename);
+        return shards != null ? shards.stores(neighbourhoods) : Collections.singletonList(DataModel.projects(filename));
+    }
+
+    /**
+     * Gets the sorted key indexes of a project list for a {@link KeysetCursor}, one per store. Each index is
+     * only built again after its store changed.
+     *
+     * @param <T>            the type of the indexed rows
+     * @param filename       the filename of the csv
+     * @param neighbourhoods the neighbourhood keys, empty for every shard
+     * @param name           the name of the index
+     * @param builder        builds the index of the projects of one store
+     * @return the indexes in shard order
+     */
+    static <T> List<NavigableMap<String, T>> projectKeyIndexes(String filename, Set<String> neighbourhoods, String name,
+                                                               Function<List<Project>, NavigableMap<String, T>> builder) {
+        List<NavigableMap<String, T>> indexes = new ArrayList<>();
+        for (DataModel.Store<Project> store : projectStores(filename, neighbourhoods)) {
+            indexes.add(store.derived(name, builder));
+        }
+        return indexes;
+    }
+
+    /**
+     * Selects the catalog entries of a project list that match a filter. The catalog index of the list,
+     * or of each shard, is only built again after it changed, and only the selected projects are copied.
+     *
+     * @param filename    the filename of the csv
+     * @param filter      the filter
+     * @param visibleOnly whether only visible projects are selected
+     * @return the entries in catalog order within each shard
+     */
+    public static List<CatalogEntry> selectProjects(String filename, FilterExpression filter, boolean visibleOnly) {
+        List<CatalogEntry> selected = new ArrayList<>();
+        for (DataModel.Store<Project> store : projectStores(filename, filter.toQuery(visibleOnly).getNeighbourhoods())) {
+            Map<Project, Project> copies = new IdentityHashMap<>();
+            for (CatalogEntry entry : filter.select(store.derived("catalog", ProjectIndex::new), visibleOnly)) {
+                selected.add(new CatalogEntry(copies.computeIfAbsent(entry.getProject(), Project::copy),
+                        entry.getTypeDesignation(), entry.getOrdinal()));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Gets the sorted key indexes of the catalog entries of a project list that match a filter, one per
+     * store, for a {@link KeysetCursor}. The entries are selected from the catalog index of each store, so
+     * building the indexes costs as much as the entries selected rather than the whole list.
+     *
+     * @param <T>         the type of the indexed rows
+     * @param filename    the filename of the csv
+     * @param filter      the filter
+     * @param visibleOnly whether only visible projects are selected
+     * @param builder     builds the index of the entries selected from one store
+     * @return the indexes in shard order
+     */
+    static <T> List<NavigableMap<String, T>> selectionKeyIndexes(String filename, FilterExpression filter, boolean visibleOnly,
+                                                                 Function<List<CatalogEntry>, NavigableMap<String, T>> builder) {
+        List<NavigableMap<String, T>> indexes = new ArrayList<>();
+        for (DataModel.Store<Project> store : projectStores(filename, filter.toQuery(visibleOnly).getNeighbourhoods())) {
+            indexes.add(builder.apply(filter.select(store.derived("catalog", ProjectIndex::new), visibleOnly)));
+        }
+        return indexes;
+    }
+
+    /**
+     * Read the projects whose application window shares a day with a period. The windows are looked up
+     * in an index that is only built again after the list changed.
+     *
+     * @param filename the filename of the csv
+     * @param fromDay  the first day of the period
+     * @param toDay    the last day of the period
+     * @return the list, by opening day within each shard
+     */
+    public static List<Project> readProjectsOverlapping(String filename, int fromDay, int toDay) {
+        List<Project> projects = new ArrayList<>();
+        for (DataModel.Store<Project> store : projectStores(filename, Collections.emptySet())) {
+            for (Project project : store.derived("windows", ApplicationWindowIndex::new).overlapping(fromDay, toDay)) {
+                projects.add(project.copy());
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Read the projects naming a user in any of their officer, application, withdrawal or waitlists. The
+     * users are looked up in an index that is only built again after the list changed, and only the
+     * projects found are copied.
+     *
+     * @param filename the filename of the csv
+     * @param name     the name of the user
+     * @return the list, in list order within each shard
+     */
+    public static List<Project> readProjectsNaming(String filename, String name) {
+        List<Project> projects = new ArrayList<>();
+        for (DataModel.Store<Project> store : projectStores(filename, Collections.emptySet())) {
+            for (Project project : store.derived("users", UserProjectIndex::new).naming(name)) {
+                projects.add(project.copy());
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Passes a copy of every project of a csv to an action one row at a time, without copying the whole list.
+     *
+     * @param filename the filename of the csv
+     * @param action   the action applied to every project
+     */
+    public static void forEachProject(String filename, Consumer<Project> action) {
+        ProjectShards shards = ProjectShards.forList(filename);
+        if (shards != null) {
+            shards.forEach(Collections.emptySet(), action);
+            return;
+        }
+        DataModel.projects(filename).forEach(action);
+    }
+
+    /**
+     * Parses a project list one row at a time.
+     *
+     * @param file   the file
+     * @param action the action applied to every project
+     */
+    static void parseProjects(File file, Consumer<Project> action) {
+        if (!file.exists()) {
+            return;
+        }
+        FileIoEvent io = FileIoEvent.begin("forEachProject", file);
+        int rows = 0;
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             boolean firstLine = true;
@@ -715,6 +1665,7 @@ class FileHandler {
                     firstLine = false;
                     continue;
                 }
+                rows++;
                 String[] parts = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
                 List<String> fields = new ArrayList<>();
                 for (String part : parts) {
@@ -761,12 +1712,16 @@ class FileHandler {
 				List<String> type2WithdrawalPending = parseCommaSeparatedList(fields, 25);
 
                 Project project = new Project(projectName, neighborhood, type1, numUnitsType1, priceType1, type2, numUnitsType2, priceType2, openingDate, closingDate, managerName, officerSlots, officers, visibility, officerPending, officerUnsuccessful, type1OwnerPending, type1OwnerUnsuccessful, type1OwnerSuccessful, type1OwnerBooked, type1WithdrawalPending, type2OwnerPending, type2OwnerUnsuccessful, type2OwnerSuccessful, type2OwnerBooked, type2WithdrawalPending);
-                projects.add(project);
+                project.setWaitlist("Type1", parseCommaSeparatedList(fields, 26));
+                project.setWaitlist("Type2", parseCommaSeparatedList(fields, 27));
+                project.setWithdrawalBooked("Type1", parseCommaSeparatedList(fields, 28));
+                project.setWithdrawalBooked("Type2", parseCommaSeparatedList(fields, 29));
+                action.accept(project);
             }
         } catch (IOException | NumberFormatException e) {
             e.printStackTrace();
         }
-        return projects;
+        io.read(rows);
     }
 
 /**
@@ -800,56 +1755,165 @@ class FileHandler {
      * @return the boolean
      */
     public static boolean writeProjectsToCSV(String filename, List<Project> projects) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
-            pw.println("Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer,Visibility,OfficerPending,OfficerUnsuccessful,Type1OwnerPending,Type1OwnerUnsuccessful,Type1OwnerSuccessful,Type1OwnerBooked,Type1WithdrawalPending,Type2OwnerPending,Type2OwnerUnsuccessful,Type2OwnerSuccessful,Type2OwnerBooked,Type2WithdrawalPending");
+        return writeProjectsToCSV(filename, projects, WriteBehind.DEFAULT_DURABILITY);
+    }
+
+    /**
+     * Write projects to csv, keeping the caller waiting as long as the durability asks for.
+     *
+     * @param filename   the filename
+     * @param projects   the projects
+     * @param durability how long to wait for the write
+     * @return the boolean
+     */
+    public static boolean writeProjectsToCSV(String filename, List<Project> projects, WriteBehind.Durability durability) {
+        ProjectShards shards = ProjectShards.forList(filename);
+        if (shards != null) {
+            return shards.write(projects, durability);
+        }
+        return writeProjectFile(filename, projects, durability);
+    }
+
+    /**
+     * Write projects to csv after one project changed. When projects are sharded only the shard of the
+     * changed project is written.
+     *
+     * @param filename the filename
+     * @param projects the projects
+     * @param changed  the changed project
+     * @return the boolean
+     */
+    public static boolean writeProjectsToCSV(String filename, List<Project> projects, Project changed) {
+        return writeProjectsToCSV(filename, projects, changed, WriteBehind.DEFAULT_DURABILITY);
+    }
+
+    /**
+     * Write projects to csv after one project changed, keeping the caller waiting as long as the
+     * durability asks for.
+     *
+     * @param filename   the filename
+     * @param projects   the projects
+     * @param changed    the changed project
+     * @param durability how long to wait for the write
+     * @return the boolean
+     */
+    public static boolean writeProjectsToCSV(String filename, List<Project> projects, Project changed,
+                                             WriteBehind.Durability durability) {
+        ProjectShards shards = ProjectShards.forList(filename);
+        if (shards != null) {
+            return shards.writeShardOf(projects, changed, durability);
+        }
+        return writeProjectFile(filename, projects, durability);
+    }
+
+    /**
+     * Writes one project file, the whole list or one shard of it.
+     *
+     * @param filename   the filename
+     * @param projects   the projects
+     * @param durability how long to wait for the write
+     * @return the boolean
+     */
+    static boolean writeProjectFile(String filename, List<Project> projects, WriteBehind.Durability durability) {
+        if (WriteBehind.ENABLED && DataModel.written(filename, projects)) {
+            return writeBehind("writeProjectsToCSV", filename, PROJECT_HEADER, FileHandler::projectRow, durability);
+        }
+        File file = dataFile(filename);
+        FileIoEvent io = FileIoEvent.begin("writeProjectsToCSV", file);
+        boolean written = FileLocks.replace(file, pw -> {
+            pw.println(PROJECT_HEADER);
             for (Project project : projects) {
-                String officersStr = getCSVString(project.getOfficers());
-                String officerPendingStr = getCSVString(project.getOfficerPending());
-                String officerUnsuccessfulStr = getCSVString(project.getOfficerUnsuccessful());
-                String type1OwnerPendingStr = getCSVString(project.getType1OwnerPending());
-                String type1OwnerUnsuccessfulStr = getCSVString(project.getType1OwnerUnsuccessful());
-                String type1OwnerSuccessfulStr = getCSVString(project.getType1OwnerSuccessful());
-                String type1OwnerBookedStr = getCSVString(project.getType1OwnerBooked());
-                String type1WithdrawalPendingStr = getCSVString(project.getType1WithdrawalPending());
-                String type2OwnerPendingStr = getCSVString(project.getType2OwnerPending());
-                String type2OwnerUnsuccessfulStr = getCSVString(project.getType2OwnerUnsuccessful());
-                String type2OwnerSuccessfulStr = getCSVString(project.getType2OwnerSuccessful());
-                String type2OwnerBookedStr = getCSVString(project.getType2OwnerBooked());
-				String type2WithdrawalPendingStr = getCSVString(project.getType2WithdrawalPending());
-
-                pw.printf("%s,%s,%s,%d,%d,%s,%d,%d,%s,%s,%s,%d,%s,%b,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                        project.getProjectName(),
-                        project.getNeighborhood(),
-                        project.getType1(),
-                        project.getNumUnitsType1(),
-                        project.getPriceType1(),
-                        project.getType2(),
-                        project.getNumUnitsType2(),
-                        project.getPriceType2(),
-                        project.getOpeningDate(),
-                        project.getClosingDate(),
-                        project.getManagerName(),
-                        project.getOfficerSlots(),
-                        officersStr,
-                        project.getVisibility(),
-                        officerPendingStr,
-                        officerUnsuccessfulStr,
-                        type1OwnerPendingStr,
-                        type1OwnerUnsuccessfulStr,
-                        type1OwnerSuccessfulStr,
-                        type1OwnerBookedStr,
-						type1WithdrawalPendingStr,
-                        type2OwnerPendingStr,
-                        type2OwnerUnsuccessfulStr,
-                        type2OwnerSuccessfulStr,
-                        type2OwnerBookedStr,
-                        type2WithdrawalPendingStr);
-            }
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+                pw.println(projectRow(project));
+            }
+        }, () -> DataModel.written(filename, projects), durability == WriteBehind.Durability.FSYNC);
+        if (written) {
+            io.written(projects.size());
         }
+        return written;
+    }
+
+    /**
+     * Queues a file to be written from the rows its store holds when the write-behind thread gets to it.
+     * The store must already hold the rows to be written.
+     *
+     * @param <T>      the row type
+     * @param method   the name the write is recorded under
+     * @param filename the filename
+     * @param header   the header row
+     * @param row      formats a row
+     * @return false if the caller waited and the write failed
+     */
+    private static <T> boolean writeBehind(String method, String filename, String header, Function<T, String> row,
+                                           WriteBehind.Durability durability) {
+        File file = dataFile(filename);
+        FileIoEvent[] io = new FileIoEvent[1];
+        int[] rows = new int[1];
+        return WriteBehind.submit(file, pw -> {
+            io[0] = FileIoEvent.begin(method, file);
+            List<T> current = DataModel.current(filename);
+            pw.println(header);
+            for (T r : current) {
+                pw.println(row.apply(r));
+            }
+            rows[0] = current.size();
+        }, () -> {
+            DataModel.persisted(filename);
+            io[0].written(rows[0]);
+        }, durability);
+    }
+
+    /**
+     * Formats a project as a row of the project list.
+     *
+     * @param project the project
+     * @return the row, without a line separator
+     */
+    static String projectRow(Project project) {
+        String officersStr = getCSVString(project.getOfficers());
+        String officerPendingStr = getCSVString(project.getOfficerPending());
+        String officerUnsuccessfulStr = getCSVString(project.getOfficerUnsuccessful());
+        String type1OwnerPendingStr = getCSVString(project.getType1OwnerPending());
+        String type1OwnerUnsuccessfulStr = getCSVString(project.getType1OwnerUnsuccessful());
+        String type1OwnerSuccessfulStr = getCSVString(project.getType1OwnerSuccessful());
+        String type1OwnerBookedStr = getCSVString(project.getType1OwnerBooked());
+        String type1WithdrawalPendingStr = getCSVString(project.getType1WithdrawalPending());
+        String type2OwnerPendingStr = getCSVString(project.getType2OwnerPending());
+        String type2OwnerUnsuccessfulStr = getCSVString(project.getType2OwnerUnsuccessful());
+        String type2OwnerSuccessfulStr = getCSVString(project.getType2OwnerSuccessful());
+        String type2OwnerBookedStr = getCSVString(project.getType2OwnerBooked());
+		String type2WithdrawalPendingStr = getCSVString(project.getType2WithdrawalPending());
+
+        return String.format("%s,%s,%s,%d,%d,%s,%d,%d,%s,%s,%s,%d,%s,%b,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
+                project.getProjectName(),
+                project.getNeighborhood(),
+                project.getType1(),
+                project.getNumUnitsType1(),
+                project.getPriceType1(),
+                project.getType2(),
+                project.getNumUnitsType2(),
+                project.getPriceType2(),
+                project.getOpeningDate(),
+                project.getClosingDate(),
+                project.getManagerName(),
+                project.getOfficerSlots(),
+                officersStr,
+                project.getVisibility(),
+                officerPendingStr,
+                officerUnsuccessfulStr,
+                type1OwnerPendingStr,
+                type1OwnerUnsuccessfulStr,
+                type1OwnerSuccessfulStr,
+                type1OwnerBookedStr,
+				type1WithdrawalPendingStr,
+                type2OwnerPendingStr,
+                type2OwnerUnsuccessfulStr,
+                type2OwnerSuccessfulStr,
+                type2OwnerBookedStr,
+                type2WithdrawalPendingStr,
+                getCSVString(project.getWaitlist("Type1")),
+                getCSVString(project.getWaitlist("Type2")),
+                getCSVString(project.getWithdrawalBooked("Type1")),
+                getCSVString(project.getWithdrawalBooked("Type2")));
     }
 
 /**
@@ -874,7 +1938,43 @@ class FileHandler {
 // Read all enquiries Testing
     public static List<Enquiry> readEnquiries() {
         List<Enquiry> enquiries = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader("EnquiryList.csv"))) {
+        forEachEnquiry(enquiries::add);
+        return enquiries;
+    }
+
+    /**
+     * Passes a copy of every enquiry to an action one row at a time, without copying the whole list.
+     *
+     * @param action the action applied to every enquiry
+     */
+    public static void forEachEnquiry(Consumer<Enquiry> action) {
+        DataModel.enquiries().forEach(action);
+    }
+
+    /**
+     * Gets a sorted key index of the enquiries for a {@link KeysetCursor}, built again only after they changed.
+     *
+     * @param name    the name of the index
+     * @param builder builds the index of the enquiries
+     * @return the index
+     */
+    static NavigableMap<String, Enquiry> enquiryKeyIndex(String name, Function<List<Enquiry>, NavigableMap<String, Enquiry>> builder) {
+        return DataModel.enquiries().derived(name, builder);
+    }
+
+    /**
+     * Parses the enquiries one row at a time.
+     *
+     * @param file   the file
+     * @param action the action applied to every enquiry
+     */
+    static void parseEnquiries(File file, Consumer<Enquiry> action) {
+        if (!file.exists()) {
+            return;
+        }
+        FileIoEvent io = FileIoEvent.begin("forEachEnquiry", file);
+        int rows = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             boolean firstLine = true;
             while ((line = br.readLine()) != null) {
@@ -882,18 +1982,19 @@ class FileHandler {
                     firstLine = false;
                     continue;
                 }
+                rows++;
                 String[] parts = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
                 if (parts.length < 4) continue;
                 String name = parts[0].trim();
                 String project = parts[1].trim();
                 String enquiryStr = parts[2].trim();
                 String reply = parts[3].trim();
-                enquiries.add(new Enquiry(name, project, enquiryStr, reply));
+                action.accept(new Enquiry(name, project, enquiryStr, reply));
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return enquiries;
+        io.read(rows);
     }
 
     /**
@@ -904,17 +2005,32 @@ class FileHandler {
      */
 // Write updated enquiries
     public static boolean writeEnquiries(List<Enquiry> enquiries) {
-        try (PrintWriter pw = new PrintWriter("EnquiryList.csv")) {
-            pw.println("Name,Project,String,Reply");
+        if (WriteBehind.ENABLED && DataModel.written("EnquiryList.csv", enquiries)) {
+            return writeBehind("writeEnquiries", "EnquiryList.csv", ENQUIRY_HEADER, FileHandler::enquiryRow,
+                    WriteBehind.DEFAULT_DURABILITY);
+        }
+        File file = dataFile("EnquiryList.csv");
+        FileIoEvent io = FileIoEvent.begin("writeEnquiries", file);
+        boolean written = FileLocks.replace(file, pw -> {
+            pw.println(ENQUIRY_HEADER);
             for (Enquiry e : enquiries) {
-                pw.printf("%s,%s,%s,%s%n",
-                        e.getName(), e.getProject(), e.getEnquiry(), e.getReply());
+                pw.println(enquiryRow(e));
             }
-            return true;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+        }, () -> DataModel.written("EnquiryList.csv", enquiries), WriteBehind.DEFAULT_DURABILITY == WriteBehind.Durability.FSYNC);
+        if (written) {
+            io.written(enquiries.size());
         }
+        return written;
+    }
+
+    /**
+     * Formats an enquiry as a row of the enquiry list.
+     *
+     * @param e the enquiry
+     * @return the row, without a line separator
+     */
+    static String enquiryRow(Enquiry e) {
+        return String.format("%s,%s,%s,%s", e.getName(), e.getProject(), e.getEnquiry(), e.getReply());
     }
 }
 
@@ -939,6 +2055,58 @@ class NRICValidator {
  * Class representing LoginManager in the system
  */
 class LoginManager {
+    private static final int VERIFY_THREADS =
+            Integer.getInteger("sdda.login.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int VERIFY_QUEUE = Integer.getInteger("sdda.login.queue", 32);
+    private static final ExecutorService verifier = new ThreadPoolExecutor(
+            VERIFY_THREADS, VERIFY_THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(VERIFY_QUEUE),
+            r -> {
+                Thread t = new Thread(r, "login-verify");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * Checks a password on the bounded verification pool, so that hashing for many logins at once cannot
+     * take every core. A legacy or outdated stored password is hashed again and saved on success.
+     *
+     * @param user     the user
+     * @param password the password entered
+     * @return whether the password matches
+     * @throws RejectedExecutionException if the verification pool is full
+     */
+    public static boolean authenticate(User user, String password) {
+        try (TimedOperation operation = TimedOperation.begin("login", user, null)) {
+            boolean matches = checkPassword(user, password);
+            operation.outcome(matches ? "ok" : "wrong password");
+            return matches;
+        }
+    }
+
+    private static boolean checkPassword(User user, String password) {
+        String stored = user.getPassword();
+        Future<Boolean> result = verifier.submit(() -> PasswordHasher.verify(password, stored));
+        boolean matches;
+        try {
+            matches = result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return false;
+        }
+        if (matches && PasswordHasher.needsRehash(stored)) {
+            user.setPassword(PasswordHasher.hash(password));
+            if (!PasswordChanger.changePassword(user)) {
+                user.setPassword(stored);
+            }
+        }
+        return matches;
+    }
+
     /**
      * Find user by nric user.
      *
@@ -946,22 +2114,23 @@ class LoginManager {
      * @return the user
      */
     public static User findUserByNRIC(String nric) {
-        List<Applicant> applicants = FileHandler.readUsersFromCSV("ApplicantList.csv", Applicant.class);
-        for (Applicant a : applicants) {
-            if (a.getNric().equalsIgnoreCase(nric)) return a;
+        try (TimedOperation operation = TimedOperation.begin("findUserByNRIC", null, null)) {
+            User user = findUser(nric);
+            operation.user(user);
+            operation.outcome(user == null ? "not found" : "ok");
+            return user;
         }
+    }
 
-        List<Officer> officers = FileHandler.readUsersFromCSV("OfficerList.csv", Officer.class);
-        for (Officer o : officers) {
-            if (o.getNric().equalsIgnoreCase(nric)) return o;
+    private static User findUser(String nric) {
+        User user = FileHandler.findUser("ApplicantList.csv", Applicant.class, nric);
+        if (user == null) {
+            user = FileHandler.findUser("OfficerList.csv", Officer.class, nric);
         }
-
-        List<Manager> managers = FileHandler.readUsersFromCSV("ManagerList.csv", Manager.class);
-        for (Manager m : managers) {
-            if (m.getNric().equalsIgnoreCase(nric)) return m;
+        if (user == null) {
+            user = FileHandler.findUser("ManagerList.csv", Manager.class, nric);
         }
-
-        return null;
+        return user;
     }
 }
 
@@ -976,18 +2145,7 @@ class PasswordChanger {
      * @return the boolean
      */
     public static boolean changePassword(User user) {
-        String csvFilename = user.getCSVFilename();
-        List<? extends User> users = FileHandler.readUsersFromCSV(csvFilename, user.getClass());
-        boolean found = false;
-        for (User u : users) {
-            if (u.getNric().equalsIgnoreCase(user.getNric())) {
-                u.setPassword(user.getPassword());
-                found = true;
-                break;
-            }
-        }
-        if (!found) return false;
-        return FileHandler.writeUsersToCSV(csvFilename, users);
+        return FileHandler.updateUser(user);
     }
 }
 
@@ -1052,12 +2210,24 @@ class Enquiry {
     public void setReply(String reply) {
         this.reply = reply;
     }
+
+    /**
+     * Creates a copy of this enquiry.
+     *
+     * @return the copy
+     */
+    public Enquiry copy() {
+        return new Enquiry(name, project, enquiry, reply);
+    }
 }
 
 /**
  * Main system class in the system that contains user interaction and business logic
  */
 public class SDDA_grp3 {
+    private static final TableRenderer table = TableRenderer.console();
+    private static ProjectLifecycleScheduler scheduler;
+    private static DataWatcher watcher;
 	
 	    private static boolean isNameExists(String name) {
         List<Applicant> applicants = FileHandler.readUsersFromCSV("ApplicantList.csv", Applicant.class);
@@ -1148,7 +2318,7 @@ public class SDDA_grp3 {
                 System.out.println("Password cannot be empty.");
             }
         } while (password.isEmpty());
-        String encodedPassword = Base64.getEncoder().encodeToString(password.getBytes());
+        String encodedPassword = PasswordHasher.hash(password);
 
         User newUser;
         switch (userType) {
@@ -1165,13 +2335,7 @@ public class SDDA_grp3 {
                 return;
         }
 
-        String filename = newUser.getCSVFilename();
-        List<? extends User> users = FileHandler.readUsersFromCSV(filename, newUser.getClass());
-        List<Object> updatedUsers = new ArrayList<>(users);
-        updatedUsers.add(newUser);
-        boolean success = FileHandler.writeUsersToCSV(filename, updatedUsers.stream()
-                .map(u -> (User) u)
-                .collect(Collectors.toList()));
+        boolean success = FileHandler.addUser(newUser);
 
         if (success) {
             System.out.println("Success! Account Created");
@@ -1182,7 +2346,8 @@ public class SDDA_grp3 {
 	
 	private static void changeFilter(User user, Scanner scanner) {
         System.out.printf("Current filter: %s%n", user.getFilter());
-        System.out.print("Select new filter (empty for None, 2 for 2-Room, 3 for 3-Room, or enter Neighbourhood): ");
+        System.out.println("Filter expressions combine clauses, e.g. type:3-Room hood:Hougang|Sengkang price:<400000 open:now");
+        System.out.print("Select new filter (empty for None, 2 for 2-Room, 3 for 3-Room, enter Neighbourhood or expression): ");
         String newFilter = scanner.nextLine().trim();
         
         if (newFilter.isEmpty()) {
@@ -1192,11 +2357,15 @@ public class SDDA_grp3 {
         } else if (newFilter.equals("3")) {
             newFilter = "3-Room";
         }
+        try {
+            FilterExpression.parse(newFilter);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid filter: " + e.getMessage());
+            return;
+        }
 
         user.setFilter(newFilter);
-        String filename = user.getCSVFilename();
-        List<? extends User> users = FileHandler.readUsersFromCSV(filename, user.getClass());
-        boolean success = FileHandler.writeUsersToCSV(filename, users);
+        boolean success = FileHandler.updateUser(user);
         
         if (success) {
             System.out.printf("Success, filter set to %s! Welcome %s.%n", newFilter, user.getName());
@@ -1206,37 +2375,100 @@ public class SDDA_grp3 {
     }
 	
 	private static void viewAllProjects(Manager manager, Scanner scanner) {
-        List<Project> allProjects = FileHandler.readProjectsFromCSV("ProjectList.csv");
-        List<EligibleEntry> entries = new ArrayList<>();
-        String filter = manager.getFilter();
+        FilterExpression filter = manager.getCompiledFilter();
+        KeysetCursor<EligibleEntry> cursor = new KeysetCursor<>(
+                () -> FileHandler.selectionKeyIndexes("ProjectList.csv", filter, false, SDDA_grp3::catalogKeyIndex),
+                e -> true,
+                e -> new EligibleEntry(e.project.copy(), e.typeDesignation), KeysetCursor.DEFAULT_PAGE_SIZE);
+        browsePages(cursor, cursor.first(), scanner, "Current filter: " + manager.getFilter(),
+                new String[]{"Project Name", "Type", "Price"}, (i, entry) -> entry.cells(), null);
+    }
 
-        for (Project project : allProjects) {
-            String type1 = project.getType1();
-            if (applyFilter(project, "Type1", filter)) {
-                String displayStr = String.format("%s\t\t%s\t\t%d", project.getProjectName(), type1, project.getPriceType1());
-                entries.add(new EligibleEntry(project, "Type1", displayStr));
-            }
-            String type2 = project.getType2();
-            if (applyFilter(project, "Type2", filter)) {
-                String displayStr = String.format("%s\t\t%s\t\t%d", project.getProjectName(), type2, project.getPriceType2());
-                entries.add(new EligibleEntry(project, "Type2", displayStr));
+    private static String projectKey(Project project) {
+        return project.getProjectName().toLowerCase();
+    }
+
+    private static NavigableMap<String, EligibleEntry> catalogKeyIndex(List<CatalogEntry> selected) {
+        List<EligibleEntry> entries = new ArrayList<>(selected.size());
+        for (CatalogEntry entry : selected) {
+            entries.add(new EligibleEntry(entry.getProject(), entry.getTypeDesignation()));
+        }
+        return KeysetCursor.index(entries, e -> projectKey(e.project) + "\0" + e.typeDesignation);
+    }
+
+    private static Project findProject(List<Project> projects, String projectName) {
+        for (Project project : projects) {
+            if (project.getProjectName().equalsIgnoreCase(projectName)) {
+                return project;
             }
         }
+        return null;
+    }
 
-        System.out.println("=============================================================");
-        System.out.printf("Current filter: %s%n", manager.getFilter());
-        System.out.println("Project Name\t\tType\t\tPrice");
-        for (EligibleEntry entry : entries) {
-            System.out.println(entry.displayString);
+    private static <T> void printPage(Page<T> page, String title, String[] headers, BiFunction<Integer, T, Object[]> format) {
+        table.begin(title, headers);
+        int index = 1;
+        for (T row : page.getRows()) {
+            table.row(format.apply(index++, row));
         }
-        System.out.println("=============================================================");
+        table.render();
     }
 
-    private static boolean applyFilter(Project project, String typeDesignation, String filter) {
-        if (filter.equals("None")) return true;
-        if (filter.equals("2-Room")) return typeDesignation.equals("Type1");
-        if (filter.equals("3-Room")) return typeDesignation.equals("Type2");
-        return project.getNeighborhood().equalsIgnoreCase(filter);
+    /**
+     * Shows a listing one page at a time, letting the user move between pages and pick a row.
+     *
+     * @param cursor  the cursor over the rows
+     * @param page    the page to show first
+     * @param scanner the scanner
+     * @param title   the line shown above the header, or null
+     * @param headers the column headers
+     * @param format  gives the cells of a row given its index on the page
+     * @param action  the verb used to prompt for a row, or null for a view only listing
+     * @return the selected row, or null if nothing was selected
+     */
+    private static <T> T browsePages(KeysetCursor<T> cursor, Page<T> page, Scanner scanner, String title, String[] headers,
+                                     BiFunction<Integer, T, Object[]> format, String action) {
+        while (true) {
+            printPage(page, title, headers, format);
+            if (action == null && !page.hasNext() && !page.hasPrevious()) {
+                return null;
+            }
+            StringJoiner options = new StringJoiner(", ");
+            if (page.hasNext()) {
+                options.add("n for next page");
+            }
+            if (page.hasPrevious()) {
+                options.add("p for previous page");
+            }
+            options.add(action == null ? "q to exit" : "c to cancel");
+            if (action == null) {
+                System.out.print("Choice (" + options + "): ");
+            } else {
+                System.out.print("Enter number to " + action + " (" + options + "): ");
+            }
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("n")) {
+                page = cursor.next();
+            } else if (input.equalsIgnoreCase("p")) {
+                page = cursor.previous();
+            } else if (input.equalsIgnoreCase("q") || input.equalsIgnoreCase("c")) {
+                return null;
+            } else if (action == null) {
+                System.out.println("Invalid choice.");
+            } else {
+                try {
+                    int selectedIndex = Integer.parseInt(input) - 1;
+                    if (selectedIndex < 0 || selectedIndex >= page.getRows().size()) {
+                        System.out.println("Invalid index.");
+                        return null;
+                    }
+                    return page.getRows().get(selectedIndex);
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid input. Please enter a number.");
+                    return null;
+                }
+            }
+        }
     }
 
 	
@@ -1267,7 +2499,7 @@ public class SDDA_grp3 {
 	private static void handleBookOwner(Officer officer, Scanner scanner) {
 		List<Project> allProjects = FileHandler.readProjectsFromCSV("ProjectList.csv");
 		List<Project> assignedProjects = allProjects.stream()
-				.filter(p -> p.getOfficers().contains(officer.getName()))
+				.filter(p -> p.isOfficer(officer.getName()))
 				.collect(Collectors.toList());
 
 		List<BookableEntry> bookableEntries = new ArrayList<>();
@@ -1287,14 +2519,13 @@ public class SDDA_grp3 {
 			return;
 		}
 
-		System.out.println("=============================================================");
-		System.out.println("Index\tProject Name\tType\tOwner");
+		table.begin(null, "Index", "Project Name", "Type", "Owner");
 		int index = 1;
 		for (BookableEntry entry : bookableEntries) {
 			String type = entry.type.equals("Type1") ? entry.project.getType1() : entry.project.getType2();
-			System.out.printf("%d\t\t%s\t\t%s\t\t%s%n", index++, entry.project.getProjectName(), type, entry.name);
+			table.row(index++, entry.project.getProjectName(), type, entry.name);
 		}
-		System.out.println("=============================================================");
+		table.render();
 
 		System.out.print("Enter index of Owner to Book (enter c to cancel): ");
 		String input = scanner.nextLine().trim();
@@ -1310,50 +2541,18 @@ public class SDDA_grp3 {
 			}
 
 			BookableEntry selectedEntry = bookableEntries.get(selectedIndex);
-			Project project = selectedEntry.project;
-			String type = selectedEntry.type;
-			String name = selectedEntry.name;
-
-			int unitCount;
-			if (type.equals("Type1")) {
-				unitCount = project.getNumUnitsType1();
-				if (unitCount <= 0) {
-					System.out.println("No available units for booking.");
-					return;
-				}
-				project.setNumUnitsType1(unitCount - 1);
-
-				List<String> type1Successful = new ArrayList<>(project.getType1OwnerSuccessful());
-				type1Successful.remove(name);
-				project.setType1OwnerSuccessful(type1Successful);
-
-				List<String> type1Booked = new ArrayList<>(project.getType1OwnerBooked());
-				type1Booked.add(name);
-				project.setType1OwnerBooked(type1Booked);
-			} else {
-				unitCount = project.getNumUnitsType2();
-				if (unitCount <= 0) {
-					System.out.println("No available units for booking.");
-					return;
-				}
-				project.setNumUnitsType2(unitCount - 1);
-
-				List<String> type2Successful = new ArrayList<>(project.getType2OwnerSuccessful());
-				type2Successful.remove(name);
-				project.setType2OwnerSuccessful(type2Successful);
-
-				List<String> type2Booked = new ArrayList<>(project.getType2OwnerBooked());
-				type2Booked.add(name);
-				project.setType2OwnerBooked(type2Booked);
+			int position;
+			try {
+				position = bookFlat(officer, selectedEntry.project.getProjectName(), selectedEntry.name);
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				System.out.println(e.getMessage());
+				return;
 			}
-
-			boolean success = FileHandler.writeProjectsToCSV("ProjectList.csv", allProjects);
-			if (success) {
-				generateReceipt(selectedEntry);
-				System.out.printf("Success, generated receipt! Welcome %s.%n", officer.getName());
-			} else {
-				System.out.println("Failed to update project.");
+			if (position > 0) {
+				System.out.printf("No available units, %s is number %d on the waitlist.%n", selectedEntry.name, position);
+				return;
 			}
+			System.out.printf("Success, generated receipt! Welcome %s.%n", officer.getName());
 		} catch (NumberFormatException e) {
 			System.out.println("Invalid input.");
 		}
@@ -1380,7 +2579,7 @@ public class SDDA_grp3 {
 		String dateStr = currentDate.format(DateTimeFormatter.BASIC_ISO_DATE);
 		String fileName = String.format("receipt-%s-%s.txt", dateStr, applicant.getNric());
 
-		try (PrintWriter pw = new PrintWriter(fileName)) {
+		try (PrintWriter pw = new PrintWriter(FileHandler.dataFile(fileName))) {
 			pw.printf("Applicant’s Name: %s%n", applicant.getName());
 			pw.printf("NRIC: %s%n", applicant.getNric());
 			pw.printf("Age: %d%n", applicant.getAge());
@@ -1394,7 +2593,7 @@ public class SDDA_grp3 {
 		}
 	}
 	
-    private static class EligibleEntry {
+    static class EligibleEntry {
         /**
          * The eligible project
          */
@@ -1403,22 +2602,27 @@ public class SDDA_grp3 {
          * The flat type designation
          */
         String typeDesignation;
-        /**
-         * Display string for the project
-         */
-        String displayString;
 
         /**
          * Instantiates a new Eligible entry.
          *
          * @param project         Eligible Project
          * @param typeDesignation Flat type
-         * @param displayString   Formatted display information
          */
-        EligibleEntry(Project project, String typeDesignation, String displayString) {
+        EligibleEntry(Project project, String typeDesignation) {
             this.project = project;
             this.typeDesignation = typeDesignation;
-            this.displayString = displayString;
+        }
+
+        /**
+         * Gets the project name, flat type and price shown for the entry.
+         *
+         * @return the table cells
+         */
+        Object[] cells() {
+            boolean type1 = typeDesignation.equals("Type1");
+            return new Object[]{project.getProjectName(), type1 ? project.getType1() : project.getType2(),
+                    type1 ? project.getPriceType1() : project.getPriceType2()};
         }
     }
 
@@ -1498,18 +2702,34 @@ public class SDDA_grp3 {
 			return;
 		}
 
-		System.out.println("=============================================================");
-		System.out.println("Index\tProject Name\tType\tOwner");
+		table.begin(null, "Index", "Project Name", "Type", "Owner");
 		int index = 1;
 		for (WithdrawalEntry entry : withdrawalEntries) {
 			String type = entry.type.equals("Type1") ? entry.project.getType1() : entry.project.getType2();
-			System.out.printf("%d\t%s\t%s\t%s%n", index++, entry.project.getProjectName(), type, entry.name);
+			table.row(index++, entry.project.getProjectName(), type, entry.name);
 		}
-		System.out.println("=============================================================");
+		table.render();
 
-		System.out.print("Enter index of Owner to Withdraw (enter c to cancel): ");
+		System.out.print("Enter index of Owner to Withdraw (enter a to approve several, c to cancel): ");
 		String input = scanner.nextLine().trim();
 		if (input.equalsIgnoreCase("c")) return;
+		if (input.equalsIgnoreCase("a")) {
+			System.out.print("Project name (blank for all): ");
+			String projectName = scanner.nextLine().trim();
+			System.out.print("Flat type (blank for all): ");
+			String flatType = scanner.nextLine().trim();
+			try {
+				WithdrawalSettlement settlement = settleWithdrawals(manager, projectName.isEmpty() ? null : projectName,
+						flatType.isEmpty() ? null : flatType);
+				System.out.printf("Success, %s.%n", settlement);
+				if (!settlement.promoted.isEmpty()) {
+					System.out.printf("Promoted from the waitlist: %s.%n", String.join(", ", settlement.promoted));
+				}
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				System.out.println(e.getMessage());
+			}
+			return;
+		}
 
 		try {
 			int selectedIndex = Integer.parseInt(input) - 1;
@@ -1522,32 +2742,17 @@ public class SDDA_grp3 {
 			Project project = entry.project;
 			String name = entry.name;
 
-			if (entry.type.equals("Type1")) {
-
-				List<String> newWithdrawalPending = new ArrayList<>(project.getType1WithdrawalPending());
-				newWithdrawalPending.remove(name);
-				project.setType1WithdrawalPending(newWithdrawalPending);
-
-				List<String> newUnsuccessful = new ArrayList<>(project.getType1OwnerUnsuccessful());
-				newUnsuccessful.add(name);
-				project.setType1OwnerUnsuccessful(newUnsuccessful);
-			} else {
-
-				List<String> newWithdrawalPending = new ArrayList<>(project.getType2WithdrawalPending());
-				newWithdrawalPending.remove(name);
-				project.setType2WithdrawalPending(newWithdrawalPending);
-
-				List<String> newUnsuccessful = new ArrayList<>(project.getType2OwnerUnsuccessful());
-				newUnsuccessful.add(name);
-				project.setType2OwnerUnsuccessful(newUnsuccessful);
+			List<String> promoted;
+			try {
+				promoted = approveWithdrawal(manager, project.getProjectName(), name);
+			} catch (IllegalArgumentException | IllegalStateException e) {
+				System.out.println(e.getMessage());
+				return;
 			}
-
-			boolean success = FileHandler.writeProjectsToCSV("ProjectList.csv", allProjects);
-			if (success) {
-				System.out.printf("Success, withdrew %s from %s! Welcome %s.%n",
-						name, project.getProjectName(), manager.getName());
-			} else {
-				System.out.println("Failed to save changes.");
+			System.out.printf("Success, withdrew %s from %s! Welcome %s.%n",
+					name, project.getProjectName(), manager.getName());
+			if (!promoted.isEmpty()) {
+				System.out.printf("Promoted from the waitlist: %s.%n", String.join(", ", promoted));
 			}
 		} catch (NumberFormatException e) {
 			System.out.println("Invalid input.");
@@ -1568,324 +2773,883 @@ public class SDDA_grp3 {
                     pendingEntries.add(new PendingEntry(project, "Type2", owner)));
         }
 
-        if (pendingEntries.isEmpty()) {
-            System.out.println("No pending applications to approve.");
-            return;
+        if (pendingEntries.isEmpty()) {
+            System.out.println("No pending applications to approve.");
+            return;
+        }
+
+        printPendingEntries(pendingEntries);
+
+        while (true) {
+            System.out.print("Enter number to approve (q to exit): ");
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("q")) break;
+
+            try {
+                int selectedIndex = Integer.parseInt(input) - 1;
+                if (selectedIndex < 0 || selectedIndex >= pendingEntries.size()) {
+                    System.out.println("Invalid index.");
+                    continue;
+                }
+
+                PendingEntry entry = pendingEntries.get(selectedIndex);
+                Project project = entry.project;
+                String owner = entry.ownerName;
+
+                try {
+                    approveApplication(manager, project.getProjectName(), owner);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    System.out.println(e.getMessage());
+                    continue;
+                }
+                System.out.printf("Success! %s approved for %s type %s.%n", owner,
+                        project.getProjectName(), entry.type.equals("Type1") ? project.getType1() : project.getType2());
+                project.approveOwner(entry.type, owner);
+
+                pendingEntries.clear();
+                managedProjects.forEach(p -> {
+                    p.getType1OwnerPending().forEach(o -> pendingEntries.add(new PendingEntry(p, "Type1", o)));
+                    p.getType2OwnerPending().forEach(o -> pendingEntries.add(new PendingEntry(p, "Type2", o)));
+                });
+
+                if (pendingEntries.isEmpty()) {
+                    System.out.println("No more pending applications.");
+                    break;
+                }
+
+                printPendingEntries(pendingEntries);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number or 'q'.");
+            }
+        }
+    }
+
+    private static void printPendingEntries(List<PendingEntry> pendingEntries) {
+        table.begin("Pending Applications", "Index", "Project Name", "Type", "Owner");
+        int index = 1;
+        for (PendingEntry entry : pendingEntries) {
+            String type = entry.type.equals("Type1") ? entry.project.getType1() : entry.project.getType2();
+            table.row(index++, entry.project.getProjectName(), type, entry.ownerName);
+        }
+        table.render();
+    }
+
+    private static boolean isEligibleForRoomType(User user, String roomType) {
+        String maritalStatus = user.getMaritalStatus().toLowerCase();
+        int age = user.getAge();
+        String rt = roomType.toLowerCase();
+
+        if (rt.equals("2-room")) {
+            return (maritalStatus.equals("single") && age >= 35) || (maritalStatus.equals("married") && age >= 21);
+        } else if (rt.equals("3-room")) {
+            return maritalStatus.equals("married") && age >= 21;
+        }
+        return false;
+    }
+
+    private static boolean isUserInOfficerOrPending(User user, List<Project> projects) {
+        for (Project project : projects) {
+            if (project.isOfficerOrPending(user.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUserInApplicationLists(User user, List<Project> projects) {
+        for (Project project : projects) {
+            if (project.hasApplication(user.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String findPendingApplicationMessage(User user, List<Project> projects) {
+        for (Project p : projects) {
+            if (p.getType1OwnerPending().contains(user.getName())) {
+                return String.format("You cannot apply for any projects, you are PENDING for %s type %s", p.getProjectName(), p.getType1());
+            }
+            if (p.getType1OwnerSuccessful().contains(user.getName())) {
+                return String.format("You cannot apply for any projects, you are SUCCESSFUL for %s type %s", p.getProjectName(), p.getType1());
+            }
+            if (p.getType1OwnerBooked().contains(user.getName())) {
+                return String.format("You cannot apply for any projects, you are BOOKED for %s type %s", p.getProjectName(), p.getType1());
+            }
+            if (p.isWaitlisted("Type1", user.getName())) {
+                return String.format("You cannot apply for any projects, you are WAITLISTED for %s type %s", p.getProjectName(), p.getType1());
+            }
+			if (p.getType1WithdrawalPending().contains(user.getName())) {
+                return String.format("You cannot apply or withdraw any projects, you are PENDING WITHDRAWAL for %s", p.getProjectName(), p.getType1());
+            }
+            if (p.getType2OwnerPending().contains(user.getName())) {
+                return String.format("You cannot apply for any projects, you are PENDING for %s type %s", p.getProjectName(), p.getType2());
+            }
+            if (p.getType2OwnerSuccessful().contains(user.getName())) {
+                return String.format("You cannot apply for any projects, you are SUCCESSFUL for %s type %s", p.getProjectName(), p.getType2());
+            }
+            if (p.getType2OwnerBooked().contains(user.getName())) {
+                return String.format("You cannot apply for any projects, you are BOOKED for %s type %s", p.getProjectName(), p.getType2());
+            }
+            if (p.isWaitlisted("Type2", user.getName())) {
+                return String.format("You cannot apply for any projects, you are WAITLISTED for %s type %s", p.getProjectName(), p.getType2());
+            }
+			if (p.getType2WithdrawalPending().contains(user.getName())) {
+                return String.format("You cannot apply or withdraw any projects, you are PENDING WITHDRAWAL for %s", p.getProjectName(), p.getType2());
+            }
+        }
+        return "You cannot apply for any projects due to an existing application.";
+    }
+
+    private static void writeEnquiry(String name, String project, String enquiry) {
+        List<Enquiry> existingEnquiries = FileHandler.readEnquiries();
+        existingEnquiries.add(new Enquiry(name, project, enquiry, ""));
+        if (!FileHandler.writeEnquiries(existingEnquiries)) {
+            throw new IllegalStateException("Error saving enquiry.");
+        }
+    }
+
+    private static void handleWithdrawal(User user) {
+        try {
+            withdrawApplication(user);
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        System.out.printf("Withdrawal Request Sent! Welcome %s, %d, %s %s.%n",
+                user.getName(), user.getAge(), user.getMaritalStatus(),
+                user instanceof Officer ? "Officer" : "Applicant");
+    }
+
+    private static void handleEnquiry(User user, List<EligibleEntry> eligibleEntries, Scanner scanner) {
+        System.out.print("Select project to enquire (enter index number): ");
+        String indexInput = scanner.nextLine().trim();
+        try {
+            int index = Integer.parseInt(indexInput) - 1;
+            if (index < 0 || index >= eligibleEntries.size()) {
+                System.out.println("Invalid index.");
+                return;
+            }
+            EligibleEntry entry = eligibleEntries.get(index);
+            String projectName = entry.project.getProjectName();
+            System.out.print("Enter enquiry for " + projectName + ": ");
+            String enquiry = scanner.nextLine().trim();
+
+            try {
+                submitEnquiry(user, projectName, enquiry);
+            } catch (IllegalStateException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+            System.out.printf("Success Project Enquired! Welcome %s, %d, %s %s.%n",
+                    user.getName(), user.getAge(), user.getMaritalStatus(),
+                    user instanceof Officer ? "Officer" : "Applicant");
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input.");
+        }
+    }
+
+    /**
+     * Gets the visible projects matching the filter of a user, one entry per flat type the user is
+     * eligible for.
+     *
+     * @param user the user
+     * @return the entries in catalog order
+     */
+    static List<EligibleEntry> eligibleEntries(User user) {
+        List<EligibleEntry> eligibleEntries = new ArrayList<>();
+        for (CatalogEntry catalogEntry : FileHandler.selectProjects("ProjectList.csv", user.getCompiledFilter(), true)) {
+            if (isEligibleForRoomType(user, catalogEntry.getFlatType())) {
+                eligibleEntries.add(new EligibleEntry(catalogEntry.getProject(), catalogEntry.getTypeDesignation()));
+            }
+        }
+        return eligibleEntries;
+    }
+
+    private static String applyBlockedReason(User user, List<Project> projects) {
+        if (user instanceof Officer && isUserInOfficerOrPending(user, projects)) {
+            return "You cannot apply because you are assigned as an officer in a project.";
+        }
+        if (isUserInApplicationLists(user, projects)) {
+            return findPendingApplicationMessage(user, projects);
+        }
+        return null;
+    }
+
+    private static Project requireProject(List<Project> projects, String projectName) {
+        Project project = findProject(projects, projectName);
+        if (project == null) {
+            throw new IllegalArgumentException("Project " + projectName + " does not exist.");
+        }
+        return project;
+    }
+
+    private static void requireManagerOf(Manager manager, Project project) {
+        if (!project.getManagerName().equalsIgnoreCase(manager.getName())) {
+            throw new IllegalStateException("You do not manage " + project.getProjectName() + ".");
         }
+    }
 
-        System.out.println("=============================================================");
-        System.out.println("Pending Applications");
-        System.out.println("Index\tProject Name\t\tType\tOwner");
-        int index = 1;
-        for (PendingEntry entry : pendingEntries) {
-            String type = entry.type.equals("Type1") ? entry.project.getType1() : entry.project.getType2();
-            System.out.printf("%d\t\t%s\t\t%s\t\t%s%n", index++, entry.project.getProjectName(), type, entry.ownerName);
+    private static void saveProjects(List<Project> projects, String failureMessage) {
+        saveProjects(projects, failureMessage, WriteBehind.DEFAULT_DURABILITY);
+    }
+
+    private static void saveProjects(List<Project> projects, String failureMessage, WriteBehind.Durability durability) {
+        if (!FileHandler.writeProjectsToCSV("ProjectList.csv", projects, durability)) {
+            throw new IllegalStateException(failureMessage);
         }
-        System.out.println("=============================================================");
+    }
 
-        while (true) {
-            System.out.print("Enter number to approve (q to exit): ");
-            String input = scanner.nextLine().trim();
-            if (input.equalsIgnoreCase("q")) break;
+    private static void saveProject(List<Project> projects, Project changed, String failureMessage) {
+        saveProject(projects, changed, failureMessage, WriteBehind.DEFAULT_DURABILITY);
+    }
 
-            try {
-                int selectedIndex = Integer.parseInt(input) - 1;
-                if (selectedIndex < 0 || selectedIndex >= pendingEntries.size()) {
-                    System.out.println("Invalid index.");
-                    continue;
-                }
+    private static void saveProject(List<Project> projects, Project changed, String failureMessage,
+                                    WriteBehind.Durability durability) {
+        if (!FileHandler.writeProjectsToCSV("ProjectList.csv", projects, changed, durability)) {
+            throw new IllegalStateException(failureMessage);
+        }
+    }
 
-                PendingEntry entry = pendingEntries.get(selectedIndex);
-                Project project = entry.project;
-                String owner = entry.ownerName;
+    /**
+     * Applies for a flat type of a project.
+     *
+     * @param user        the applicant or officer
+     * @param projectName the project name
+     * @param flatType    the flat type, such as 2-Room, or its designation Type1 or Type2
+     * @throws IllegalArgumentException if the project or flat type does not exist
+     * @throws IllegalStateException    if the user cannot apply for it
+     */
+    static void applyForProject(User user, String projectName, String flatType) {
+        try (TimedOperation operation = TimedOperation.begin("apply", user, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            Project project = requireProject(allProjects, projectName);
+            String typeDesignation;
+            if (flatType.equals("Type1") || flatType.equalsIgnoreCase(project.getType1())) {
+                typeDesignation = "Type1";
+            } else if (flatType.equals("Type2") || flatType.equalsIgnoreCase(project.getType2())) {
+                typeDesignation = "Type2";
+            } else {
+                throw new IllegalArgumentException(project.getProjectName() + " has no " + flatType + " flats.");
+            }
+            String roomType = typeDesignation.equals("Type1") ? project.getType1() : project.getType2();
+            if (!project.getVisibility() || !isEligibleForRoomType(user, roomType)) {
+                throw new IllegalStateException("You are not eligible for " + project.getProjectName() + " type " + roomType + ".");
+            }
+            String blockedReason = applyBlockedReason(user, allProjects);
+            if (blockedReason != null) {
+                throw new IllegalStateException(blockedReason);
+            }
+            if (!project.isOpenOn((int) LocalDate.now().toEpochDay())) {
+                throw new IllegalStateException(String.format("Applications for %s are not open, the application period is %s to %s.",
+                        project.getProjectName(), project.getOpeningDate(), project.getClosingDate()));
+            }
+            project.applyOwner(typeDesignation, user.getName());
+            saveProject(allProjects, project, "Error applying to project.");
+            operation.succeeded();
+        }
+    }
 
-                if (entry.type.equals("Type1")) {
-                    List<String> newPending = new ArrayList<>(project.getType1OwnerPending());
-                    newPending.remove(owner);
-                    project.setType1OwnerPending(newPending);
+    /**
+     * Requests withdrawal of every application of a user.
+     *
+     * @param user the applicant or officer
+     * @throws IllegalStateException if the user has no application
+     */
+    static void withdrawApplication(User user) {
+        try (TimedOperation operation = TimedOperation.begin("withdraw", user, null);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            boolean anyChanges = false;
+            for (Project project : allProjects) {
+                anyChanges |= project.requestWithdrawal(user.getName());
+            }
+            if (!anyChanges) {
+                throw new IllegalStateException("No applications found to withdraw.");
+            }
+            saveProjects(allProjects, "Error saving withdrawal.");
+            operation.succeeded();
+        }
+    }
 
-                    List<String> newSuccessful = new ArrayList<>(project.getType1OwnerSuccessful());
-                    newSuccessful.add(owner);
-                    project.setType1OwnerSuccessful(newSuccessful);
-                } else {
-                    List<String> newPending = new ArrayList<>(project.getType2OwnerPending());
-                    newPending.remove(owner);
-                    project.setType2OwnerPending(newPending);
+    /**
+     * Submits an enquiry about a project.
+     *
+     * @param user        the user
+     * @param projectName the project name
+     * @param enquiry     the enquiry
+     * @throws IllegalStateException if the user already made the same enquiry, or it cannot be saved
+     */
+    static void submitEnquiry(User user, String projectName, String enquiry) {
+        try (TimedOperation operation = TimedOperation.begin("writeEnquiry", user, projectName)) {
+            boolean duplicate = FileHandler.readEnquiries().stream()
+                    .anyMatch(e -> e.getName().equals(user.getName())
+                            && e.getProject().equals(projectName)
+                            && e.getEnquiry().equals(enquiry));
+            if (duplicate) {
+                throw new IllegalStateException("Error! Duplicate enquiry.");
+            }
+            writeEnquiry(user.getName(), projectName, enquiry);
+            operation.succeeded();
+        }
+    }
 
-                    List<String> newSuccessful = new ArrayList<>(project.getType2OwnerSuccessful());
-                    newSuccessful.add(owner);
-                    project.setType2OwnerSuccessful(newSuccessful);
+    /**
+     * Replies to the first unanswered enquiry of an applicant about a project.
+     *
+     * @param user          the manager, or an officer assigned to the project
+     * @param applicantName the name of the applicant who made the enquiry
+     * @param projectName   the project name
+     * @param enquiry       the enquiry text, or null for any
+     * @param reply         the reply
+     * @throws IllegalArgumentException if there is no such enquiry
+     * @throws IllegalStateException    if the user may not reply to it
+     */
+    static void replyToEnquiry(User user, String applicantName, String projectName, String enquiry, String reply) {
+        try (TimedOperation operation = TimedOperation.begin("replyToEnquiry", user, projectName)) {
+            List<Enquiry> allEnquiries = FileHandler.readEnquiries();
+            Enquiry target = allEnquiries.stream()
+                    .filter(e -> e.getReply().isEmpty()
+                            && e.getName().equals(applicantName)
+                            && e.getProject().equals(projectName)
+                            && (enquiry == null || e.getEnquiry().equals(enquiry)))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "No pending enquiry from " + applicantName + " about " + projectName + "."));
+            if (user instanceof Officer) {
+                Project project = findProject(FileHandler.readProjectsFromCSV("ProjectList.csv"), projectName);
+                if (project == null || !project.isOfficer(user.getName())) {
+                    throw new IllegalStateException("You are not assigned to " + projectName + ".");
                 }
+            } else if (!(user instanceof Manager)) {
+                throw new IllegalStateException("Only managers and officers can reply to enquiries.");
+            }
+            target.setReply(reply);
+            if (!FileHandler.writeEnquiries(allEnquiries)) {
+                throw new IllegalStateException("Failed to save reply.");
+            }
+            operation.succeeded();
+        }
+    }
 
-                if (FileHandler.writeProjectsToCSV("ProjectList.csv", allProjects)) {
-                    System.out.printf("Success! %s approved for %s type %s.%n", owner,
-                            project.getProjectName(), entry.type.equals("Type1") ? project.getType1() : project.getType2());
+    /**
+     * Approves a pending application.
+     *
+     * @param manager       the manager of the project
+     * @param projectName   the project name
+     * @param applicantName the name of the applicant
+     * @throws IllegalArgumentException if the project or application does not exist
+     * @throws IllegalStateException    if the manager does not manage the project
+     */
+    static void approveApplication(Manager manager, String projectName, String applicantName) {
+        try (TimedOperation operation = TimedOperation.begin("approveOwner", manager, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            Project project = requireProject(allProjects, projectName);
+            requireManagerOf(manager, project);
+            if (!project.approveOwner("Type1", applicantName) && !project.approveOwner("Type2", applicantName)) {
+                throw new IllegalArgumentException(applicantName + " has no pending application for " + project.getProjectName() + ".");
+            }
+            saveProject(allProjects, project, "Failed to save changes.");
+            operation.succeeded();
+        }
+    }
 
-                    pendingEntries.clear();
-                    managedProjects.forEach(p -> {
-                        p.getType1OwnerPending().forEach(o -> pendingEntries.add(new PendingEntry(p, "Type1", o)));
-                        p.getType2OwnerPending().forEach(o -> pendingEntries.add(new PendingEntry(p, "Type2", o)));
-                    });
+    /**
+     * Books a flat for a successful applicant and writes the receipt. If no unit is left the applicant
+     * is moved to the waitlist of the flat type instead. The project list is forced to disk before this
+     * returns.
+     *
+     * @param officer       an officer assigned to the project
+     * @param projectName   the project name
+     * @param applicantName the name of the applicant
+     * @return 0 if the flat was booked, otherwise the position of the applicant on the waitlist
+     * @throws IllegalArgumentException if the project does not exist or the applicant is not successful
+     * @throws IllegalStateException    if the officer is not assigned
+     */
+    static int bookFlat(Officer officer, String projectName, String applicantName) {
+        try (TimedOperation operation = TimedOperation.begin("bookOwner", officer, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            Project project = requireProject(allProjects, projectName);
+            if (!project.isOfficer(officer.getName())) {
+                throw new IllegalStateException("You are not assigned to " + project.getProjectName() + ".");
+            }
+            String type;
+            if (project.isSuccessful("Type1", applicantName)) {
+                type = "Type1";
+            } else if (project.isSuccessful("Type2", applicantName)) {
+                type = "Type2";
+            } else {
+                throw new IllegalArgumentException(applicantName + " is not successful for " + project.getProjectName() + ".");
+            }
+            if (!project.bookOwner(type, applicantName)) {
+                project.waitlistOwner(type, applicantName, System.currentTimeMillis());
+                saveProject(allProjects, project, "Failed to update project.", WriteBehind.Durability.FSYNC);
+                operation.succeeded();
+                return project.getWaitlistPosition(type, applicantName);
+            }
+            saveProject(allProjects, project, "Failed to update project.", WriteBehind.Durability.FSYNC);
+            generateReceipt(new BookableEntry(project, type, applicantName));
+            operation.succeeded();
+            return 0;
+        }
+    }
 
-                    if (pendingEntries.isEmpty()) {
-                        System.out.println("No more pending applications.");
-                        break;
-                    }
+    /**
+     * Approves a pending withdrawal. A unit the applicant had booked goes back to the project, and the
+     * first applicants on the waitlist of the flat type are promoted to successful in the same save,
+     * which is forced to disk before this returns.
+     *
+     * @param manager       the manager of the project
+     * @param projectName   the project name
+     * @param applicantName the name of the applicant
+     * @return the names promoted from the waitlist
+     * @throws IllegalArgumentException if the project or withdrawal does not exist
+     * @throws IllegalStateException    if the manager does not manage the project
+     */
+    static List<String> approveWithdrawal(Manager manager, String projectName, String applicantName) {
+        try (TimedOperation operation = TimedOperation.begin("approveWithdrawal", manager, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            Project project = requireProject(allProjects, projectName);
+            requireManagerOf(manager, project);
+            String type;
+            if (project.approveWithdrawal("Type1", applicantName)) {
+                type = "Type1";
+            } else if (project.approveWithdrawal("Type2", applicantName)) {
+                type = "Type2";
+            } else {
+                throw new IllegalArgumentException(applicantName + " has no pending withdrawal for " + project.getProjectName() + ".");
+            }
+            List<String> promoted = project.promoteWaitlisted(type);
+            saveProject(allProjects, project, "Failed to save changes.", WriteBehind.Durability.FSYNC);
+            operation.succeeded();
+            return promoted;
+        }
+    }
 
-                    System.out.println("=============================================================");
-                    System.out.println("Pending Applications");
-                    System.out.println("Index\tProject Name\t\tType\tOwner");
-                    index = 1;
-                    for (PendingEntry e : pendingEntries) {
-                        String type = e.type.equals("Type1") ? e.project.getType1() : e.project.getType2();
-                        System.out.printf("%d\t\t%s\t\t%s\t\t%s%n", index++, e.project.getProjectName(), type, e.ownerName);
+    /**
+     * Approves the pending withdrawals of the projects of a manager in one pass, optionally only those of
+     * one project or flat type. Booked units go back to their projects, waitlisted applicants are promoted
+     * into them, and every change is saved in one write, forced to disk before this returns.
+     *
+     * @param manager     the manager
+     * @param projectName the project name, or null for every project of the manager
+     * @param flatType    the flat type, such as 2-Room, or null for both
+     * @return the outcome
+     * @throws IllegalArgumentException if the project does not exist
+     * @throws IllegalStateException    if the manager does not manage the project, or nothing is pending
+     */
+    static WithdrawalSettlement settleWithdrawals(Manager manager, String projectName, String flatType) {
+        try (TimedOperation operation = TimedOperation.begin("settleWithdrawals", manager, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            long start = System.nanoTime();
+            List<Project> allProjects = edit.projects();
+            if (projectName != null) {
+                requireManagerOf(manager, requireProject(allProjects, projectName));
+            }
+            WithdrawalSettlement settlement = new WithdrawalSettlement();
+            for (Project project : allProjects) {
+                if (!project.getManagerName().equalsIgnoreCase(manager.getName())
+                        || projectName != null && !project.getProjectName().equalsIgnoreCase(projectName)) {
+                    continue;
+                }
+                for (String type : new String[]{"Type1", "Type2"}) {
+                    String roomType = type.equals("Type1") ? project.getType1() : project.getType2();
+                    if (flatType != null && !flatType.equalsIgnoreCase(roomType) && !flatType.equals(type)) {
+                        continue;
                     }
-                    System.out.println("=============================================================");
-                } else {
-                    System.out.println("Failed to save changes.");
+                    int units = type.equals("Type1") ? project.getNumUnitsType1() : project.getNumUnitsType2();
+                    int approved = project.approveAllWithdrawals(type);
+                    if (approved == 0) {
+                        continue;
+                    }
+                    settlement.approved += approved;
+                    settlement.released += (type.equals("Type1") ? project.getNumUnitsType1() : project.getNumUnitsType2()) - units;
+                    settlement.promoted.addAll(project.promoteWaitlisted(type));
+                    settlement.projects++;
                 }
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a number or 'q'.");
             }
+            if (settlement.approved == 0) {
+                throw new IllegalStateException("No pending withdrawals to approve.");
+            }
+            saveProjects(allProjects, "Failed to save changes.", WriteBehind.Durability.FSYNC);
+            settlement.nanos = System.nanoTime() - start;
+            operation.succeeded();
+            return settlement;
         }
     }
 
-    private static boolean isEligibleForRoomType(User user, String roomType) {
-        String maritalStatus = user.getMaritalStatus().toLowerCase();
-        int age = user.getAge();
-        String rt = roomType.toLowerCase();
+    /**
+     * The outcome of settling withdrawals in bulk.
+     */
+    static class WithdrawalSettlement {
+        /**
+         * The number of withdrawals approved
+         */
+        int approved;
+        /**
+         * The number of flat types of projects that had withdrawals approved
+         */
+        int projects;
+        /**
+         * The number of booked units released
+         */
+        int released;
+        /**
+         * The names promoted from the waitlists
+         */
+        final List<String> promoted = new ArrayList<>();
+        /**
+         * The time taken, including the read and the write
+         */
+        long nanos;
 
-        if (rt.equals("2-room")) {
-            return (maritalStatus.equals("single") && age >= 35) || (maritalStatus.equals("married") && age >= 21);
-        } else if (rt.equals("3-room")) {
-            return maritalStatus.equals("married") && age >= 21;
+        /**
+         * Gets the number of withdrawals approved per second.
+         *
+         * @return the throughput
+         */
+        double perSecond() {
+            return nanos == 0 ? 0 : approved * 1e9 / nanos;
         }
-        return false;
-    }
 
-    private static boolean isUserInOfficerOrPending(User user, List<Project> projects) {
-        for (Project project : projects) {
-            if (project.getOfficers().contains(user.getName()) || project.getOfficerPending().contains(user.getName())) {
-                return true;
-            }
+        @Override
+        public String toString() {
+            return String.format("%d withdrawals approved in %d flat types, %d units released, %d promoted, in %.1f ms (%.0f per second)",
+                    approved, projects, released, promoted.size(), nanos / 1e6, perSecond());
         }
-        return false;
     }
 
-    private static boolean isUserInApplicationLists(User user, List<Project> projects) {
-        for (Project project : projects) {
-            List<String> type1Lists = new ArrayList<>();
-            type1Lists.addAll(project.getType1OwnerPending());
-            type1Lists.addAll(project.getType1OwnerUnsuccessful());
-            type1Lists.addAll(project.getType1OwnerSuccessful());
-            type1Lists.addAll(project.getType1OwnerBooked());
-            List<String> type2Lists = new ArrayList<>();
-            type2Lists.addAll(project.getType2OwnerPending());
-            type2Lists.addAll(project.getType2OwnerUnsuccessful());
-            type2Lists.addAll(project.getType2OwnerSuccessful());
-            type2Lists.addAll(project.getType2OwnerBooked());
-            if (type1Lists.contains(user.getName()) || type2Lists.contains(user.getName())) {
-                return true;
-            }
+    /**
+     * Shows a hidden project or hides a visible one, and schedules its transitions again so that a
+     * project shown after its window closed is closed again.
+     *
+     * @param manager     the manager making the change
+     * @param projectName the project name
+     * @return the updated project
+     * @throws IllegalArgumentException if the project does not exist
+     */
+    static Project toggleProjectVisibility(Manager manager, String projectName) {
+        try (TimedOperation operation = TimedOperation.begin("toggleVisibility", manager, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> projects = edit.projects();
+            Project project = requireProject(projects, projectName);
+            project.setVisibility(!project.getVisibility());
+            saveProject(projects, project, "Failed to update project visibility.");
+            reschedule(project);
+            operation.succeeded();
+            return project;
         }
-        return false;
     }
 
-    private static String findPendingApplicationMessage(User user, List<Project> projects) {
-        for (Project p : projects) {
-            if (p.getType1OwnerPending().contains(user.getName())) {
-                return String.format("You cannot apply for any projects, you are PENDING for %s type %s", p.getProjectName(), p.getType1());
-            }
-            if (p.getType1OwnerSuccessful().contains(user.getName())) {
-                return String.format("You cannot apply for any projects, you are SUCCESSFUL for %s type %s", p.getProjectName(), p.getType1());
+    /**
+     * Registers an officer to handle a project, taking one of its officer slots. The project is read,
+     * checked and saved under the mutation lock of the project list, so registrations made at the same
+     * time are all kept and together never take more slots than the project has.
+     *
+     * @param officer     the officer
+     * @param projectName the project name
+     * @throws IllegalArgumentException if the project does not exist
+     * @throws IllegalStateException    if the officer may not register or no slot is left
+     */
+    static void registerOfficer(Officer officer, String projectName) {
+        try (TimedOperation operation = TimedOperation.begin("registerOfficer", officer, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            Project project = requireProject(allProjects, projectName);
+            String name = officer.getName();
+            if (project.isOfficerOrPending(name)) {
+                throw new IllegalStateException("You are already registered for " + project.getProjectName() + ".");
             }
-            if (p.getType1OwnerBooked().contains(user.getName())) {
-                return String.format("You cannot apply for any projects, you are BOOKED for %s type %s", p.getProjectName(), p.getType1());
+            if (project.hasApplication(name) || project.isWithdrawalPending(name)) {
+                throw new IllegalStateException("You cannot handle " + project.getProjectName() + " as you applied for it.");
             }
-			if (p.getType1WithdrawalPending().contains(user.getName())) {
-                return String.format("You cannot apply or withdraw any projects, you are PENDING WITHDRAWAL for %s", p.getProjectName(), p.getType1());
+            Project clash = findClashingAssignment(name, project);
+            if (clash != null) {
+                throw new IllegalStateException(String.format("You already handle %s (%s to %s), which overlaps %s.",
+                        clash.getProjectName(), clash.getOpeningDate(), clash.getClosingDate(), project.getProjectName()));
             }
-            if (p.getType2OwnerPending().contains(user.getName())) {
-                return String.format("You cannot apply for any projects, you are PENDING for %s type %s", p.getProjectName(), p.getType2());
+            if (project.getTakenOfficerSlots() >= project.getOfficerSlots()) {
+                throw new IllegalStateException("No officer slots left for " + project.getProjectName() + ".");
             }
-            if (p.getType2OwnerSuccessful().contains(user.getName())) {
-                return String.format("You cannot apply for any projects, you are SUCCESSFUL for %s type %s", p.getProjectName(), p.getType2());
+            project.registerOfficer(name);
+            saveProject(allProjects, project, "Failed to save registration.");
+            operation.succeeded();
+        }
+    }
+
+    /**
+     * Approves a pending officer registration.
+     *
+     * @param manager     the manager of the project
+     * @param projectName the project name
+     * @param officerName the name of the officer
+     * @throws IllegalArgumentException if the project or registration does not exist
+     * @throws IllegalStateException    if the manager does not manage the project, or the officer now
+     *                                  handles a project with an overlapping application period
+     */
+    static void approveOfficer(Manager manager, String projectName, String officerName) {
+        try (TimedOperation operation = TimedOperation.begin("approveOfficer", manager, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            Project project = requireProject(allProjects, projectName);
+            requireManagerOf(manager, project);
+            if (project.isOfficer(officerName) || !project.isOfficerOrPending(officerName)) {
+                throw new IllegalArgumentException(officerName + " has no pending registration for " + project.getProjectName() + ".");
             }
-            if (p.getType2OwnerBooked().contains(user.getName())) {
-                return String.format("You cannot apply for any projects, you are BOOKED for %s type %s", p.getProjectName(), p.getType2());
+            Project clash = findClashingAssignment(officerName, project);
+            if (clash != null) {
+                throw new IllegalStateException(String.format("%s already handles %s (%s to %s), which overlaps %s.",
+                        officerName, clash.getProjectName(), clash.getOpeningDate(), clash.getClosingDate(), project.getProjectName()));
             }
-			if (p.getType2WithdrawalPending().contains(user.getName())) {
-                return String.format("You cannot apply or withdraw any projects, you are PENDING WITHDRAWAL for %s", p.getProjectName(), p.getType2());
+            project.approveOfficer(officerName);
+            saveProject(allProjects, project, "Failed to save changes.");
+            operation.succeeded();
+        }
+    }
+
+    /**
+     * Rejects a pending officer registration, giving its slot back.
+     *
+     * @param manager     the manager of the project
+     * @param projectName the project name
+     * @param officerName the name of the officer
+     * @throws IllegalArgumentException if the project or registration does not exist
+     * @throws IllegalStateException    if the manager does not manage the project
+     */
+    static void rejectOfficer(Manager manager, String projectName, String officerName) {
+        try (TimedOperation operation = TimedOperation.begin("rejectOfficer", manager, projectName);
+             ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> allProjects = edit.projects();
+            Project project = requireProject(allProjects, projectName);
+            requireManagerOf(manager, project);
+            if (!project.rejectOfficer(officerName)) {
+                throw new IllegalArgumentException(officerName + " has no pending registration for " + project.getProjectName() + ".");
             }
+            saveProject(allProjects, project, "Failed to save changes.");
+            operation.succeeded();
         }
-        return "You cannot apply for any projects due to an existing application.";
     }
 
-    private static List<Enquiry> readEnquiries() {
-        List<Enquiry> enquiries = new ArrayList<>();
-        File file = new File("EnquiryList.csv");
-        if (!file.exists()) {
-            return enquiries;
+    private static Project findClashingAssignment(String officerName, Project project) {
+        if (!project.hasValidWindow()) {
+            return null;
         }
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean firstLine = true;
-            while ((line = br.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue;
-                }
-                String[] parts = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-                if (parts.length < 4) continue;
-                String name = parts[0].trim();
-                String project = parts[1].trim();
-                String enquiryStr = parts[2].trim();
-                String reply = parts[3].trim();
-                enquiries.add(new Enquiry(name, project, enquiryStr, reply));
+        for (Project other : FileHandler.readProjectsOverlapping("ProjectList.csv", project.getOpeningDay(), project.getClosingDay())) {
+            if (other.isOfficer(officerName) && !other.getProjectName().equalsIgnoreCase(project.getProjectName())) {
+                return other;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
-        return enquiries;
+        return null;
     }
 
-    private static void writeEnquiry(String name, String project, String enquiry) {
-        List<Enquiry> existingEnquiries = readEnquiries();
-        existingEnquiries.add(new Enquiry(name, project, enquiry, ""));
-        try (PrintWriter pw = new PrintWriter("EnquiryList.csv")) {
-            pw.println("Name,Project,String,Reply");
-            for (Enquiry e : existingEnquiries) {
-                pw.printf("%s,%s,%s,%s%n", e.getName(), e.getProject(), e.getEnquiry(), e.getReply());
+    private static void handleOfficerRegistration(Officer officer, Scanner scanner) {
+        List<Project> projects = FileHandler.readProjectsFromCSV("ProjectList.csv");
+        if (projects.isEmpty()) {
+            System.out.println("No projects found.");
+            return;
+        }
+        table.begin(null, "Index", "Project Name", "Application Period", "Free Slots", "Status");
+        int index = 1;
+        for (Project project : projects) {
+            String status = project.isOfficer(officer.getName()) ? "Assigned"
+                    : project.getOfficerPending().contains(officer.getName()) ? "Pending"
+                    : project.getOfficerUnsuccessful().contains(officer.getName()) ? "Unsuccessful" : "";
+            table.row(index++, project.getProjectName(), project.getOpeningDate() + " to " + project.getClosingDate(),
+                    project.getFreeOfficerSlots(), status);
+        }
+        table.render();
+
+        System.out.print("Enter index of Project to register for (enter c to cancel): ");
+        String input = scanner.nextLine().trim();
+        if (input.equalsIgnoreCase("c")) {
+            return;
+        }
+        try {
+            int selectedIndex = Integer.parseInt(input) - 1;
+            if (selectedIndex < 0 || selectedIndex >= projects.size()) {
+                System.out.println("Invalid index.");
+                return;
             }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
+            Project project = projects.get(selectedIndex);
+            try {
+                registerOfficer(officer, project.getProjectName());
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+            System.out.printf("Registered for %s, pending approval by %s.%n", project.getProjectName(), project.getManagerName());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input.");
         }
     }
 
-    private static void handleWithdrawal(User user) {
-        List<Project> allProjects = FileHandler.readProjectsFromCSV("ProjectList.csv");
-        boolean anyChanges = false;
-
-        for (Project project : allProjects) {
-			boolean modifiedType1 = false;
-			boolean modifiedType2 = false;
-			modifiedType1 |= removeFromList(project.getType1OwnerPending(), user.getName(), project::setType1OwnerPending);
-			modifiedType2 |= removeFromList(project.getType2OwnerPending(), user.getName(), project::setType2OwnerPending);
-			modifiedType1 |= removeFromList(project.getType1OwnerUnsuccessful(), user.getName(), project::setType1OwnerUnsuccessful);
-			modifiedType2 |= removeFromList(project.getType2OwnerUnsuccessful(), user.getName(), project::setType2OwnerUnsuccessful);
-			modifiedType1 |= removeFromList(project.getType1OwnerSuccessful(), user.getName(), project::setType1OwnerSuccessful);
-			modifiedType2 |= removeFromList(project.getType2OwnerSuccessful(), user.getName(), project::setType2OwnerSuccessful);
-			modifiedType1 |= removeFromList(project.getType1OwnerBooked(), user.getName(), project::setType1OwnerBooked);
-			modifiedType2 |= removeFromList(project.getType2OwnerBooked(), user.getName(), project::setType2OwnerBooked);			
-
-			if (modifiedType1) {
-				project.getType1WithdrawalPending().add(user.getName());
-				anyChanges = true;
-			}
-			if (modifiedType2) {
-				project.getType2WithdrawalPending().add(user.getName());
-				anyChanges = true;
-			}
+    private static void approveOfficers(Manager manager, Scanner scanner) {
+        while (true) {
+            List<PendingEntry> pendingEntries = new ArrayList<>();
+            FileHandler.forEachProject("ProjectList.csv", p -> {
+                if (p.getManagerName().equalsIgnoreCase(manager.getName())) {
+                    p.getOfficerPending().forEach(o -> pendingEntries.add(new PendingEntry(p, "Officer", o)));
+                }
+            });
+            if (pendingEntries.isEmpty()) {
+                System.out.println("No pending officer registrations.");
+                return;
+            }
+            table.begin("Pending Officer Registrations", "Index", "Project Name", "Free Slots", "Officer");
+            int index = 1;
+            for (PendingEntry entry : pendingEntries) {
+                table.row(index++, entry.project.getProjectName(), entry.project.getFreeOfficerSlots(), entry.ownerName);
+            }
+            table.render();
+
+            System.out.print("Enter number, then a to approve or r to reject (q to exit): ");
+            String[] input = scanner.nextLine().trim().split("\\s+");
+            if (input[0].equalsIgnoreCase("q")) {
+                return;
+            }
+            try {
+                int selectedIndex = Integer.parseInt(input[0]) - 1;
+                if (selectedIndex < 0 || selectedIndex >= pendingEntries.size()) {
+                    System.out.println("Invalid index.");
+                    continue;
+                }
+                PendingEntry entry = pendingEntries.get(selectedIndex);
+                boolean reject = input.length > 1 && input[1].equalsIgnoreCase("r");
+                try {
+                    if (reject) {
+                        rejectOfficer(manager, entry.project.getProjectName(), entry.ownerName);
+                    } else {
+                        approveOfficer(manager, entry.project.getProjectName(), entry.ownerName);
+                    }
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    System.out.println(e.getMessage());
+                    continue;
+                }
+                System.out.printf("Success! %s %s for %s.%n", entry.ownerName, reject ? "rejected" : "approved",
+                        entry.project.getProjectName());
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number or 'q'.");
+            }
         }
+    }
 
-        if (anyChanges) {
-            boolean success = FileHandler.writeProjectsToCSV("ProjectList.csv", allProjects);
-            if (success) {
-                System.out.printf("Withdrawal Request Sent! Welcome %s, %d, %s %s.%n",
-                        user.getName(), user.getAge(), user.getMaritalStatus(),
-                        user instanceof Officer ? "Officer" : "Applicant");
-            } else {
-                System.out.println("Error saving withdrawal.");
+    /**
+     * Renders the number of distinct applicants pending or booked in any project.
+     *
+     * @param table the renderer
+     */
+    static void renderApplicants(TableRenderer table) {
+        List<Project> projects = FileHandler.readProjectsFromCSV("ProjectList.csv");
+        StatusSet pending = Project.pendingAnywhere(projects);
+        StatusSet booked = Project.bookedAnywhere(projects);
+        StatusSet pendingOnly = pending.copy();
+        pendingOnly.andNot(booked);
+        table.begin("Applicants", "Status", "Applicants");
+        table.row("Pending anywhere", pending.cardinality());
+        table.row("Booked anywhere", booked.cardinality());
+        table.row("Pending and booked", pending.cardinality() - pendingOnly.cardinality());
+        table.render();
+    }
+
+    /**
+     * Gets the counters of the projects of a manager. The counters of a project list are only taken
+     * again after the list changed.
+     *
+     * @param manager the manager
+     * @return the counters, in list order within each shard
+     */
+    static List<ProjectCounters> dashboard(Manager manager) {
+        try (TimedOperation operation = TimedOperation.begin("dashboard", manager, null)) {
+            ProjectShards shards = ProjectShards.forList("ProjectList.csv");
+            List<DataModel.Store<Project>> stores = shards != null
+                    ? shards.stores(Collections.emptySet())
+                    : Collections.singletonList(DataModel.projects("ProjectList.csv"));
+            List<ProjectCounters> counters = new ArrayList<>();
+            for (DataModel.Store<Project> store : stores) {
+                List<ProjectCounters> all = store.derived("counters",
+                        rows -> rows.stream().map(Project::getCounters).collect(Collectors.toList()));
+                for (ProjectCounters project : all) {
+                    if (project.getManagerName().equalsIgnoreCase(manager.getName())) {
+                        counters.add(project);
+                    }
+                }
             }
-        } else {
-            System.out.println("No applications found to withdraw.");
+            operation.succeeded();
+            return counters;
         }
     }
 
-	
-    private static boolean removeFromList(List<String> list, String name, Consumer<List<String>> setter) {
-        if (list.contains(name)) {
-            List<String> newList = new ArrayList<>(list);
-            newList.remove(name);
-            setter.accept(newList);
-            return true;
+    /**
+     * Writes the report of the owners who booked a flat.
+     *
+     * @param manager the manager asking for the report
+     * @param filter  the selection, see {@link BookingReport}
+     * @param format  csv or json
+     * @param out     the output, flushed but not closed
+     * @return the number of rows written
+     * @throws IllegalArgumentException if the selection or format is not valid
+     * @throws IllegalStateException    if the output cannot be written
+     */
+    static long exportBookingReport(Manager manager, String filter, String format, Writer out) {
+        try (TimedOperation operation = TimedOperation.begin("bookingReport", manager, null)) {
+            BookingReport report = BookingReport.parse(filter);
+            long rows;
+            try {
+                rows = report.write(out, ReportFormat.forName(format));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write report: " + e.getMessage());
+            }
+            operation.succeeded();
+            return rows;
         }
-        return false;
     }
 
-    private static void handleEnquiry(User user, List<EligibleEntry> eligibleEntries, Scanner scanner) {
-        System.out.print("Select project to enquire (enter index number): ");
-        String indexInput = scanner.nextLine().trim();
+    private static void bookingReport(Manager manager, Scanner scanner) {
+        System.out.print("Enter selection, e.g. type:2-Room age:21-35 (blank for all): ");
+        String filter = scanner.nextLine().trim();
+        System.out.print("Enter format (csv or json): ");
+        String format = scanner.nextLine().trim();
+        System.out.print("Enter file to write (blank to print): ");
+        String filename = scanner.nextLine().trim();
         try {
-            int index = Integer.parseInt(indexInput) - 1;
-            if (index < 0 || index >= eligibleEntries.size()) {
-                System.out.println("Invalid index.");
-                return;
-            }
-            EligibleEntry entry = eligibleEntries.get(index);
-            String projectName = entry.project.getProjectName();
-            System.out.print("Enter enquiry for " + projectName + ": ");
-            String enquiry = scanner.nextLine().trim();
-
-            List<Enquiry> existingEnquiries = readEnquiries();
-            boolean duplicate = existingEnquiries.stream()
-                    .anyMatch(e -> e.getName().equals(user.getName())
-                            && e.getProject().equals(projectName)
-                            && e.getEnquiry().equals(enquiry));
-            if (duplicate) {
-                System.out.println("Error! Duplicate enquiry.");
+            if (filename.isEmpty()) {
+                Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+                long rows = exportBookingReport(manager, filter, format, out);
+                System.out.printf("%d rows.%n", rows);
             } else {
-                writeEnquiry(user.getName(), projectName, enquiry);
-                System.out.printf("Success Project Enquired! Welcome %s, %d, %s %s.%n",
-                        user.getName(), user.getAge(), user.getMaritalStatus(),
-                        user instanceof Officer ? "Officer" : "Applicant");
+                ReportFormat.forName(format);
+                BookingReport.parse(filter);
+                long rows;
+                try (Writer out = new BufferedWriter(new FileWriter(filename))) {
+                    rows = exportBookingReport(manager, filter, format, out);
+                }
+                System.out.printf("%d rows written to %s.%n", rows, filename);
             }
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input.");
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            System.out.println(e.getMessage());
         }
     }
 
     private static void viewEligibleProjects(User user, Scanner scanner) {
-        List<Project> allProjects = FileHandler.readProjectsFromCSV("ProjectList.csv");
-        List<Project> visibleProjects = allProjects.stream()
-                .filter(Project::getVisibility)
-                .collect(Collectors.toList());
-        List<EligibleEntry> eligibleEntries = new ArrayList<>();
-        String filter = user.getFilter();
-
-        for (Project project : visibleProjects) {
-            String type1 = project.getType1();
-            if (isEligibleForRoomType(user, type1) && applyFilter(project, "Type1", filter)) {
-                String displayStr = String.format("%s\t\t%s\t\t%d", project.getProjectName(), type1, project.getPriceType1());
-                eligibleEntries.add(new EligibleEntry(project, "Type1", displayStr));
-            }
-            String type2 = project.getType2();
-            if (isEligibleForRoomType(user, type2) && applyFilter(project, "Type2", filter)) {
-                String displayStr = String.format("%s\t\t%s\t\t%d", project.getProjectName(), type2, project.getPriceType2());
-                eligibleEntries.add(new EligibleEntry(project, "Type2", displayStr));
-            }
+        // only the projects naming the user can block an application or allow a withdrawal
+        List<Project> userProjects;
+        List<EligibleEntry> eligibleEntries;
+        try (TimedOperation operation = TimedOperation.begin("viewEligibleProjects", user, null)) {
+            userProjects = FileHandler.readProjectsNaming("ProjectList.csv", user.getName());
+            eligibleEntries = eligibleEntries(user);
+            operation.succeeded();
         }
 
         System.out.printf("Current filter: %s%n", user.getFilter());
 
-        boolean canApply = true;
-        String pendingMessage = null;
-
-        if (user instanceof Officer) {
-            if (isUserInOfficerOrPending(user, allProjects)) {
-                canApply = false;
-                pendingMessage = "You cannot apply because you are assigned as an officer in a project.";
-            }
-        }
-
-        if (canApply) {
-            if (isUserInApplicationLists(user, allProjects)) {
-                canApply = false;
-                pendingMessage = findPendingApplicationMessage(user, allProjects);
-            }
-        }
+        String pendingMessage = applyBlockedReason(user, userProjects);
+        boolean canApply = pendingMessage == null;
 
-        boolean canWithdraw = isUserInApplicationLists(user, allProjects) && !isUserInWithdrawalPending(user, allProjects);
+        boolean canWithdraw = isUserInApplicationLists(user, userProjects) && !isUserInWithdrawalPending(user, userProjects);
         boolean canEnquire = true;
 
         if (eligibleEntries.isEmpty()) {
@@ -1893,12 +3657,13 @@ public class SDDA_grp3 {
                     user.getName(), user.getAge(), user.getMaritalStatus(),
                     user instanceof Officer ? "Officer" : "Applicant");
         } else {
-            System.out.println("=============================================================");
-            System.out.println("Project Name\t\tType\t\tPrice");
+            table.begin(null, "Index", "Project Name", "Type", "Price");
+            int row = 1;
             for (EligibleEntry entry : eligibleEntries) {
-                System.out.println(entry.displayString);
+                Object[] cells = entry.cells();
+                table.row(row++, cells[0], cells[1], cells[2]);
             }
-            System.out.println("=============================================================");
+            table.render();
             if (!canApply) {
                 System.out.println(pendingMessage);
             }
@@ -1926,27 +3691,15 @@ public class SDDA_grp3 {
                             return;
                         }
                         EligibleEntry selectedEntry = eligibleEntries.get(selectedIndex);
-                        Project selectedProject = selectedEntry.project;
-                        String typeDesignation = selectedEntry.typeDesignation;
-
-                        if (typeDesignation.equals("Type1")) {
-                            List<String> newPending = new ArrayList<>(selectedProject.getType1OwnerPending());
-                            newPending.add(user.getName());
-                            selectedProject.setType1OwnerPending(newPending);
-                        } else {
-                            List<String> newPending = new ArrayList<>(selectedProject.getType2OwnerPending());
-                            newPending.add(user.getName());
-                            selectedProject.setType2OwnerPending(newPending);
-                        }
-
-                        boolean success = FileHandler.writeProjectsToCSV("ProjectList.csv", allProjects);
-                        if (success) {
-                            System.out.printf("Success Project Applied! Welcome %s, %d, %s %s.%n",
-                                    user.getName(), user.getAge(), user.getMaritalStatus(),
-                                    user instanceof Officer ? "Officer" : "Applicant");
-                        } else {
-                            System.out.println("Error applying to project.");
+                        try {
+                            applyForProject(user, selectedEntry.project.getProjectName(), selectedEntry.typeDesignation);
+                        } catch (IllegalArgumentException | IllegalStateException e) {
+                            System.out.println(e.getMessage());
+                            return;
                         }
+                        System.out.printf("Success Project Applied! Welcome %s, %d, %s %s.%n",
+                                user.getName(), user.getAge(), user.getMaritalStatus(),
+                                user instanceof Officer ? "Officer" : "Applicant");
                     } catch (NumberFormatException e) {
                         System.out.println("Invalid input.");
                     }
@@ -1967,10 +3720,7 @@ public class SDDA_grp3 {
 
     private static boolean isUserInWithdrawalPending(User user, List<Project> projects) {
         for (Project p : projects) {
-            if (p.getType1WithdrawalPending().contains(user.getName())) {
-                return true;
-            }
-			if (p.getType2WithdrawalPending().contains(user.getName())) {
+            if (p.isWithdrawalPending(user.getName())) {
                 return true;
             }
         }
@@ -2033,15 +3783,17 @@ public class SDDA_grp3 {
 
         String openingDate;
         String closingDate;
+        boolean validDates;
         do {
             System.out.print("Application opening date: ");
             openingDate = scanner.nextLine().trim();
             System.out.print("Application closing date: ");
             closingDate = scanner.nextLine().trim();
-            if (closingDate.compareTo(openingDate) < 0) {
-                System.out.println("Error! Closing date can't be earlier than opening date!");
-            }
-        } while (closingDate.compareTo(openingDate) < 0);
+            validDates = isValidWindow(openingDate, closingDate);
+        } while (!validDates);
+        int openingDay = Project.parseEpochDay(openingDate);
+        int closingDay = Project.parseEpochDay(closingDate);
+        List<Project> overlapping = FileHandler.readProjectsOverlapping("ProjectList.csv", openingDay, closingDay);
 
         int officerSlots;
         do {
@@ -2064,6 +3816,12 @@ public class SDDA_grp3 {
                 String officerName = scanner.nextLine().trim();
 
                 if (validOfficerNames.contains(officerName)) {
+                    Project clash = findOverlappingAssignment(overlapping, officerName);
+                    if (clash != null) {
+                        System.out.printf("%s already handles %s (%s to %s), which overlaps this application period!%n",
+                                officerName, clash.getProjectName(), clash.getOpeningDate(), clash.getClosingDate());
+                        continue;
+                    }
                     AssignedOfficers.add(officerName);
                     break;
                 } else {
@@ -2073,250 +3831,313 @@ public class SDDA_grp3 {
         }
 
         Project newProject = new Project(projectName, neighborhood, "2-Room", numUnitsType1, priceType1, "3-Room", numUnitsType2, priceType2, openingDate, closingDate, manager.getName(), officerSlots, AssignedOfficers, false, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
-        projects.add(newProject);
-
-        boolean success = FileHandler.writeProjectsToCSV("ProjectList.csv", projects);
+        boolean success;
+        try (ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> latest = edit.projects();
+            if (findProject(latest, projectName) != null) {
+                System.out.println("Error! Project already exists");
+                return;
+            }
+            latest.add(newProject);
+            success = FileHandler.writeProjectsToCSV("ProjectList.csv", latest);
+        }
         if (success) {
+            reschedule(newProject);
             System.out.println("Project Created! Welcome " + manager.getName() + ", " + manager.getAge() + ", " + manager.getMaritalStatus() + " Manager.");
         } else {
             System.out.println("Error creating project.");
         }
     }
 
+    /**
+     * Copies the fields a manager changed while editing a project onto the project as it is now, leaving
+     * the fields changed meanwhile by other sessions, such as units booked, as they are.
+     */
+    private static void applyEdits(Project original, Project edited, Project latest) {
+        if (!Objects.equals(edited.getNeighborhood(), original.getNeighborhood())) {
+            latest.setNeighborhood(edited.getNeighborhood());
+        }
+        if (edited.getNumUnitsType1() != original.getNumUnitsType1()) {
+            latest.setNumUnitsType1(edited.getNumUnitsType1());
+        }
+        if (edited.getPriceType1() != original.getPriceType1()) {
+            latest.setPriceType1(edited.getPriceType1());
+        }
+        if (edited.getNumUnitsType2() != original.getNumUnitsType2()) {
+            latest.setNumUnitsType2(edited.getNumUnitsType2());
+        }
+        if (edited.getPriceType2() != original.getPriceType2()) {
+            latest.setPriceType2(edited.getPriceType2());
+        }
+        if (!Objects.equals(edited.getOpeningDate(), original.getOpeningDate())) {
+            latest.setOpeningDate(edited.getOpeningDate());
+        }
+        if (!Objects.equals(edited.getClosingDate(), original.getClosingDate())) {
+            latest.setClosingDate(edited.getClosingDate());
+        }
+        if (edited.getOfficerSlots() != original.getOfficerSlots()) {
+            latest.setOfficerSlots(edited.getOfficerSlots());
+        }
+    }
+
+    private static KeysetCursor<Project> projectCursor() {
+        return new KeysetCursor<>(() -> FileHandler.projectKeyIndexes("ProjectList.csv", Collections.emptySet(), "projectKeys",
+                projects -> KeysetCursor.index(projects, SDDA_grp3::projectKey)), p -> true, Project::copy,
+                KeysetCursor.DEFAULT_PAGE_SIZE);
+    }
+
+    private static final String[] VISIBILITY_HEADERS = {"Index", "Project Name", "Visibility"};
+
+    private static Object[] visibilityCells(int index, Project p) {
+        return new Object[]{index, p.getProjectName(), p.getVisibility() ? "True" : "False"};
+    }
+
+    private static void reschedule(Project project) {
+        if (scheduler != null) {
+            scheduler.schedule(project);
+        }
+    }
+
+    private static boolean isValidWindow(String openingDate, String closingDate) {
+        int openingDay = Project.parseEpochDay(openingDate);
+        int closingDay = Project.parseEpochDay(closingDate);
+        if (openingDay == Project.INVALID_DAY || closingDay == Project.INVALID_DAY) {
+            System.out.println("Error! Dates must be in yyyy-MM-dd format!");
+            return false;
+        }
+        if (closingDay < openingDay) {
+            System.out.println("Error! Closing date can't be earlier than opening date!");
+            return false;
+        }
+        return true;
+    }
+
+    private static Project findOverlappingAssignment(List<Project> overlapping, String officerName) {
+        for (Project project : overlapping) {
+            if (project.isOfficer(officerName)) {
+                return project;
+            }
+        }
+        return null;
+    }
+
     private static void toggleVisibility(Manager manager, Scanner scanner) {
-        List<Project> projects = FileHandler.readProjectsFromCSV("ProjectList.csv");
-        if (projects.isEmpty()) {
+        KeysetCursor<Project> cursor = projectCursor();
+        Page<Project> firstPage = cursor.first();
+        if (firstPage.isEmpty()) {
             System.out.println("No projects to toggle.");
             return;
         }
-        System.out.println("=============================================================");
-        System.out.println("Index\tProject Name\t\tVisibility");
-        int index = 1;
-        for (Project p : projects) {
-            System.out.printf("%d\t\t%s\t\t%s%n", index, p.getProjectName(), p.getVisibility() ? "True" : "False");
-            index++;
+        Project selected = browsePages(cursor, firstPage, scanner, null, VISIBILITY_HEADERS,
+                SDDA_grp3::visibilityCells, "toggle");
+        if (selected == null) {
+            return;
         }
-        System.out.println("=============================================================");
-        System.out.print("Enter number to toggle: ");
-        String input = scanner.nextLine().trim();
+        Project project;
         try {
-            int selectedIndex = Integer.parseInt(input) - 1;
-            if (selectedIndex < 0 || selectedIndex >= projects.size()) {
-                System.out.println("Invalid index.");
-                return;
-            }
-            Project project = projects.get(selectedIndex);
-            project.setVisibility(!project.getVisibility());
-            boolean success = FileHandler.writeProjectsToCSV("ProjectList.csv", projects);
-            if (success) {
-                System.out.println("=============================================================");
-                System.out.println("Index\tProject Name\t\tVisibility");
-                index = 1;
-                for (Project p : projects) {
-                    System.out.printf("%d\t\t%s\t\t%s%n", index, p.getProjectName(), p.getVisibility() ? "True" : "False");
-                    index++;
-                }
-                System.out.println("=============================================================");
-                System.out.printf("Success, %s is now %s! Welcome %s, %d, %s Manager.%n",
-                        project.getProjectName(),
-                        project.getVisibility() ? "Visible" : "Hidden",
-                        manager.getName(),
-                        manager.getAge(),
-                        manager.getMaritalStatus());
-            } else {
-                System.out.println("Failed to update project visibility.");
-            }
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input. Please enter a number.");
+            project = toggleProjectVisibility(manager, selected.getProjectName());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.out.println(e.getMessage());
+            return;
         }
+        printPage(cursor.current(), null, VISIBILITY_HEADERS, SDDA_grp3::visibilityCells);
+        System.out.printf("Success, %s is now %s! Welcome %s, %d, %s Manager.%n",
+                project.getProjectName(),
+                project.getVisibility() ? "Visible" : "Hidden",
+                manager.getName(),
+                manager.getAge(),
+                manager.getMaritalStatus());
     }
 
     private static void editProject(Manager manager, Scanner scanner) {
-        List<Project> projects = FileHandler.readProjectsFromCSV("ProjectList.csv");
-        if (projects.isEmpty()) {
+        KeysetCursor<Project> cursor = projectCursor();
+        Page<Project> firstPage = cursor.first();
+        if (firstPage.isEmpty()) {
             System.out.println("No projects to edit.");
             return;
         }
 
-        System.out.println("=============================================================");
-        System.out.println("Index\tProject Name\t\tVisibility");
-        int index = 1;
-        for (Project p : projects) {
-            System.out.printf("%d\t\t%s\t\t%s%n", index, p.getProjectName(), p.getVisibility() ? "True" : "False");
-            index++;
+        Project selected = browsePages(cursor, firstPage, scanner, null, VISIBILITY_HEADERS,
+                SDDA_grp3::visibilityCells, "edit");
+        if (selected == null) {
+            return;
         }
-        System.out.println("=============================================================");
+        List<Project> projects = FileHandler.readProjectsFromCSV("ProjectList.csv");
+        Project project = findProject(projects, selected.getProjectName());
+        if (project == null) {
+            System.out.println("Project no longer exists.");
+            return;
+        }
+        Project original = project.copy();
 
-        System.out.print("Enter number to edit: ");
-        String input = scanner.nextLine().trim();
-        try {
-            int selectedIndex = Integer.parseInt(input) - 1;
-            if (selectedIndex < 0 || selectedIndex >= projects.size()) {
-                System.out.println("Invalid index.");
-                return;
-            }
-            Project project = projects.get(selectedIndex);
+        System.out.print("Neighbourhood (" + project.getNeighborhood() + ", empty to keep): ");
+        String neighborhoodInput = scanner.nextLine().trim();
+        if (!neighborhoodInput.isEmpty()) {
+            project.setNeighborhood(neighborhoodInput);
+        }
 
-            System.out.print("Neighbourhood (" + project.getNeighborhood() + ", empty to keep): ");
-            String neighborhoodInput = scanner.nextLine().trim();
-            if (!neighborhoodInput.isEmpty()) {
-                project.setNeighborhood(neighborhoodInput);
+        int numUnitsType1 = project.getNumUnitsType1();
+        boolean validUnitsType1 = false;
+        do {
+            System.out.print("Number of 2-room units (" + numUnitsType1 + ", empty to keep): ");
+            String unitsInput = scanner.nextLine().trim();
+            if (unitsInput.isEmpty()) {
+                validUnitsType1 = true;
+                break;
             }
-
-            int numUnitsType1 = project.getNumUnitsType1();
-            boolean validUnitsType1 = false;
-            do {
-                System.out.print("Number of 2-room units (" + numUnitsType1 + ", empty to keep): ");
-                String unitsInput = scanner.nextLine().trim();
-                if (unitsInput.isEmpty()) {
-                    validUnitsType1 = true;
-                    break;
-                }
-                try {
-                    int newUnits = Integer.parseInt(unitsInput);
-                    if (newUnits < 0) {
-                        System.out.println("Error! Number of units cannot be negative");
-                        continue;
-                    }
-                    project.setNumUnitsType1(newUnits);
-                    validUnitsType1 = true;
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid input. Please enter a valid number.");
-                }
-            } while (!validUnitsType1);
-
-            int priceType1 = project.getPriceType1();
-            boolean validPriceType1 = false;
-            do {
-                System.out.print("Selling price of 2-room units (" + priceType1 + ", empty to keep): ");
-                String priceInput = scanner.nextLine().trim();
-                if (priceInput.isEmpty()) {
-                    validPriceType1 = true;
-                    break;
-                }
-                try {
-                    int newPrice = Integer.parseInt(priceInput);
-                    if (newPrice <= 0) {
-                        System.out.println("Error! Selling price must be positive");
-                        continue;
-                    }
-                    project.setPriceType1(newPrice);
-                    validPriceType1 = true;
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid input. Please enter a valid number.");
-                }
-            } while (!validPriceType1);
-
-            int numUnitsType2 = project.getNumUnitsType2();
-            boolean validUnitsType2 = false;
-            do {
-                System.out.print("Number of 3-room units (" + numUnitsType2 + ", empty to keep): ");
-                String unitsInput = scanner.nextLine().trim();
-                if (unitsInput.isEmpty()) {
-                    validUnitsType2 = true;
-                    break;
+            try {
+                int newUnits = Integer.parseInt(unitsInput);
+                if (newUnits < 0) {
+                    System.out.println("Error! Number of units cannot be negative");
+                    continue;
                 }
-                try {
-                    int newUnits = Integer.parseInt(unitsInput);
-                    if (newUnits < 0) {
-                        System.out.println("Error! Number of units cannot be negative");
-                        continue;
-                    }
-                    project.setNumUnitsType2(newUnits);
-                    validUnitsType2 = true;
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid input. Please enter a valid number.");
+                project.setNumUnitsType1(newUnits);
+                validUnitsType1 = true;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a valid number.");
+            }
+        } while (!validUnitsType1);
+
+        int priceType1 = project.getPriceType1();
+        boolean validPriceType1 = false;
+        do {
+            System.out.print("Selling price of 2-room units (" + priceType1 + ", empty to keep): ");
+            String priceInput = scanner.nextLine().trim();
+            if (priceInput.isEmpty()) {
+                validPriceType1 = true;
+                break;
+            }
+            try {
+                int newPrice = Integer.parseInt(priceInput);
+                if (newPrice <= 0) {
+                    System.out.println("Error! Selling price must be positive");
+                    continue;
                 }
-            } while (!validUnitsType2);
-
-            int priceType2 = project.getPriceType2();
-            boolean validPriceType2 = false;
-            do {
-                System.out.print("Selling price of 3-room units (" + priceType2 + ", empty to keep): ");
-                String priceInput = scanner.nextLine().trim();
-                if (priceInput.isEmpty()) {
-                    validPriceType2 = true;
-                    break;
+                project.setPriceType1(newPrice);
+                validPriceType1 = true;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a valid number.");
+            }
+        } while (!validPriceType1);
+
+        int numUnitsType2 = project.getNumUnitsType2();
+        boolean validUnitsType2 = false;
+        do {
+            System.out.print("Number of 3-room units (" + numUnitsType2 + ", empty to keep): ");
+            String unitsInput = scanner.nextLine().trim();
+            if (unitsInput.isEmpty()) {
+                validUnitsType2 = true;
+                break;
+            }
+            try {
+                int newUnits = Integer.parseInt(unitsInput);
+                if (newUnits < 0) {
+                    System.out.println("Error! Number of units cannot be negative");
+                    continue;
                 }
-                try {
-                    int newPrice = Integer.parseInt(priceInput);
-                    if (newPrice <= 0) {
-                        System.out.println("Error! Selling price must be positive");
-                        continue;
-                    }
-                    project.setPriceType2(newPrice);
-                    validPriceType2 = true;
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid input. Please enter a valid number.");
+                project.setNumUnitsType2(newUnits);
+                validUnitsType2 = true;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a valid number.");
+            }
+        } while (!validUnitsType2);
+
+        int priceType2 = project.getPriceType2();
+        boolean validPriceType2 = false;
+        do {
+            System.out.print("Selling price of 3-room units (" + priceType2 + ", empty to keep): ");
+            String priceInput = scanner.nextLine().trim();
+            if (priceInput.isEmpty()) {
+                validPriceType2 = true;
+                break;
+            }
+            try {
+                int newPrice = Integer.parseInt(priceInput);
+                if (newPrice <= 0) {
+                    System.out.println("Error! Selling price must be positive");
+                    continue;
                 }
-            } while (!validPriceType2);
+                project.setPriceType2(newPrice);
+                validPriceType2 = true;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a valid number.");
+            }
+        } while (!validPriceType2);
 
-            String newOpeningDate = project.getOpeningDate();
+        String newOpeningDate = project.getOpeningDate();
+        String newClosingDate = project.getClosingDate();
+        boolean validDates;
+        do {
             System.out.print("Application opening date (" + newOpeningDate + ", empty to keep): ");
             String openingInput = scanner.nextLine().trim();
             if (!openingInput.isEmpty()) {
                 newOpeningDate = openingInput;
             }
 
-            String newClosingDate = project.getClosingDate();
-            boolean validDates = false;
-            do {
-                System.out.print("Application closing date (" + newClosingDate + ", empty to keep): ");
-                String closingInput = scanner.nextLine().trim();
-                if (!closingInput.isEmpty()) {
-                    newClosingDate = closingInput;
-                }
+            System.out.print("Application closing date (" + newClosingDate + ", empty to keep): ");
+            String closingInput = scanner.nextLine().trim();
+            if (!closingInput.isEmpty()) {
+                newClosingDate = closingInput;
+            }
 
-                if (newClosingDate.compareTo(newOpeningDate) < 0) {
-                    System.out.println("Error! Closing date can't be earlier than opening date!");
-                } else {
-                    validDates = true;
-                }
-            } while (!validDates);
-
-            project.setOpeningDate(newOpeningDate);
-            project.setClosingDate(newClosingDate);
-
-            int officerSlots = project.getOfficerSlots();
-            int currentOfficersCount = project.getOfficers().size();
-            boolean validSlots = false;
-            do {
-                System.out.print("HDB Officer Slots (" + officerSlots + ", empty to keep): ");
-                String slotsInput = scanner.nextLine().trim();
-                if (slotsInput.isEmpty()) {
-                    validSlots = true;
-                    break;
+            validDates = isValidWindow(newOpeningDate, newClosingDate);
+        } while (!validDates);
+
+        project.setOpeningDate(newOpeningDate);
+        project.setClosingDate(newClosingDate);
+
+        int officerSlots = project.getOfficerSlots();
+        int currentOfficersCount = project.getOfficers().size();
+        boolean validSlots = false;
+        do {
+            System.out.print("HDB Officer Slots (" + officerSlots + ", empty to keep): ");
+            String slotsInput = scanner.nextLine().trim();
+            if (slotsInput.isEmpty()) {
+                validSlots = true;
+                break;
+            }
+            try {
+                int newSlots = Integer.parseInt(slotsInput);
+                if (newSlots < 0 || newSlots > 10) {
+                    System.out.println("Error! Officer slots cannot be negative or more than 10");
+                    continue;
                 }
-                try {
-                    int newSlots = Integer.parseInt(slotsInput);
-                    if (newSlots < 0 || newSlots > 10) {
-                        System.out.println("Error! Officer slots cannot be negative or more than 10");
-                        continue;
-                    }
-                    if (newSlots < currentOfficersCount) {
-                        System.out.println("Error! Officer slots is less than current amount of officers");
-                        continue;
-                    }
-                    project.setOfficerSlots(newSlots);
-                    validSlots = true;
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid input. Please enter a valid number.");
+                if (newSlots < currentOfficersCount) {
+                    System.out.println("Error! Officer slots is less than current amount of officers");
+                    continue;
                 }
-            } while (!validSlots);
-
-            boolean success = FileHandler.writeProjectsToCSV("ProjectList.csv", projects);
-            if (success) {
-                System.out.println("Success! Welcome " + manager.getName() + ", " + manager.getAge() + ", " + manager.getMaritalStatus() + " Manager.");
-            } else {
-                System.out.println("Error saving project changes.");
+                project.setOfficerSlots(newSlots);
+                validSlots = true;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a valid number.");
             }
-
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input. Please enter a number.");
+        } while (!validSlots);
+
+        boolean success;
+        Project saved;
+        try (ProjectEdit edit = ProjectEdit.begin("ProjectList.csv")) {
+            List<Project> latest = edit.projects();
+            saved = findProject(latest, project.getProjectName());
+            if (saved == null) {
+                System.out.println("Project no longer exists.");
+                return;
+            }
+            if (project.getOfficerSlots() != original.getOfficerSlots() && project.getOfficerSlots() < saved.getOfficers().size()) {
+                System.out.println("Error! Officer slots is less than current amount of officers");
+                return;
+            }
+            applyEdits(original, project, saved);
+            success = FileHandler.writeProjectsToCSV("ProjectList.csv", latest);
+        }
+        if (success) {
+            reschedule(saved);
+            System.out.println("Success! Welcome " + manager.getName() + ", " + manager.getAge() + ", " + manager.getMaritalStatus() + " Manager.");
+        } else {
+            System.out.println("Error saving project changes.");
         }
     }
        public static void main(String[] args) {
-        File enquiryFile = new File("EnquiryList.csv");
+        File enquiryFile = FileHandler.dataFile("EnquiryList.csv");
         if (!enquiryFile.exists()) {
             try (PrintWriter pw = new PrintWriter(enquiryFile)) {
                 pw.println("Name,Project,String,Reply");
@@ -2324,6 +4145,27 @@ public class SDDA_grp3 {
                 e.printStackTrace();
             }
         }
+        DataModel.preload();
+        if (args.length >= 1 && args[0].equals("--check-counters")) {
+            System.exit(ProjectCounters.checkAll(System.out) == 0 ? 0 : 1);
+        }
+        if (args.length >= 2 && args[0].equals("--script")) {
+            CommandRunner.runScript(args[1], args.length > 2 && args[2].equals("--quiet"));
+            WriteBehind.drain();
+            return;
+        }
+        if (Boolean.getBoolean("sdda.scheduler")) {
+            scheduler = new ProjectLifecycleScheduler("ProjectList.csv");
+            scheduler.start();
+        }
+        if (!"false".equals(System.getProperty("sdda.watch"))) {
+            watcher = new DataWatcher(FileHandler.dataFile(".").toPath());
+            ProjectShards shards = ProjectShards.forList("ProjectList.csv");
+            if (shards != null) {
+                watcher.watch(shards.directory().toPath());
+            }
+            watcher.start();
+        }
         Scanner scanner = new Scanner(System.in);
         while (true) {
             System.out.println("Welcome to SDDA-grp3 system.");
@@ -2331,6 +4173,13 @@ public class SDDA_grp3 {
             String nricInput = scanner.nextLine().trim();
             if (nricInput.equalsIgnoreCase("q")) {
                 System.out.println("Goodbye!");
+                if (scheduler != null) {
+                    scheduler.stop();
+                }
+                if (watcher != null) {
+                    watcher.stop();
+                }
+                WriteBehind.drain();
                 break;
             } else if (nricInput.equalsIgnoreCase("c")) {
                 createUserAccount(scanner);
@@ -2347,8 +4196,14 @@ public class SDDA_grp3 {
             }
             System.out.print("Password: ");
             String passwordInput = scanner.nextLine().trim();
-            String encodedInput = Base64.getEncoder().encodeToString(passwordInput.getBytes());
-            if (!user.getPassword().equals(encodedInput)) {
+            boolean authenticated;
+            try {
+                authenticated = LoginManager.authenticate(user, passwordInput);
+            } catch (RejectedExecutionException e) {
+                System.out.println("Too many logins in progress, please try again.");
+                continue;
+            }
+            if (!authenticated) {
                 System.out.println("Wrong password!");
                 continue;
             }
@@ -2356,6 +4211,9 @@ public class SDDA_grp3 {
                     user instanceof Officer ? "Officer" : "Applicant";
             System.out.printf("Success! Welcome %s, %d, %s %s.%n",
                     user.getName(), user.getAge(), user.getMaritalStatus(), userType);
+            if (user.isFilterInvalid()) {
+                System.out.printf("Saved filter \"%s\" is invalid, showing all projects.%n", user.getFilter());
+            }
             boolean logout = false;
             while (!logout) {
                 System.out.println("1) Logout");
@@ -2370,12 +4228,17 @@ public class SDDA_grp3 {
 					System.out.println("9) Approve Withdrawals");
 					System.out.println("10) Change Filter");
 					System.out.println("11) View all Projects");
+					System.out.println("12) View Stats");
+					System.out.println("13) Approve Officers");
+					System.out.println("14) Booking Report");
+					System.out.println("15) Dashboard");
                 } else if (user instanceof Officer) {
                     System.out.println("3) View Eligible Projects"); //Testing
                     System.out.println("4) Reply to Enquiries (Assigned Projects)"); //Testing
                     System.out.println("5) View Enquiries"); //Testing
 					System.out.println("6) Book Owner");
 					System.out.println("7) Change Filter");
+					System.out.println("8) Register as Officer");
                 } else if (user instanceof Applicant) {
                     System.out.println("3) View Eligible Projects"); // Testing
                     System.out.println("4) View Enquiries"); //Testing
@@ -2396,7 +4259,7 @@ public class SDDA_grp3 {
                                 System.out.println("Password cannot be empty! Please Enter a new password: ");
                             }
                         } while (newPassword.isEmpty());
-                        String encodedNewPassword = Base64.getEncoder().encodeToString(newPassword.getBytes());
+                        String encodedNewPassword = PasswordHasher.hash(newPassword);
                         user.setPassword(encodedNewPassword);
                         boolean success = PasswordChanger.changePassword(user);
                         if (success) {
@@ -2417,9 +4280,9 @@ public class SDDA_grp3 {
                         if (user instanceof Manager) {
                             toggleVisibility((Manager) user, scanner);
                         } else if (user instanceof Officer) { //Testing
-                            replyToEnquiriesForOfficer((Officer) user);
+                            replyToEnquiriesForOfficer((Officer) user, scanner);
                         } else if (user instanceof Applicant) { // Testing view for applicants
-                            viewEnquiries(user);
+                            viewEnquiries(user, scanner);
                         } else {
                             System.out.println("Invalid Choice!");
                         }
@@ -2428,7 +4291,7 @@ public class SDDA_grp3 {
                         if (user instanceof Manager) {
                             editProject((Manager) user, scanner);
                         } else if (user instanceof Officer) { //Testing view for officer
-                            viewEnquiries(user);
+                            viewEnquiries(user, scanner);
 						} else if (user instanceof Applicant) {
 							changeFilter(user, scanner);
                         } else {
@@ -2446,15 +4309,18 @@ public class SDDA_grp3 {
                         break;
                     case "7": //Testing reply
                         if (user instanceof Manager) {
-                            replyToEnquiriesForManager((Manager) user);
+                            replyToEnquiriesForManager((Manager) user, scanner);
                         } else if (user instanceof Officer) {
 							changeFilter(user, scanner);
 						}
                         break;
                     case "8": //Testing view
                         if (user instanceof Manager) {
-                            viewEnquiries(user);;
+                            viewEnquiries(user, scanner);
+                        } else if (user instanceof Officer) {
+                            handleOfficerRegistration((Officer) user, scanner);
                         }
+                        break;
 					case "9":
 						if (user instanceof Manager) {
 							approveWithdrawals((Manager) user, scanner);
@@ -2470,6 +4336,29 @@ public class SDDA_grp3 {
 							viewAllProjects((Manager) user, scanner);
 						}
 						break;
+					case "12":
+						if (user instanceof Manager) {
+							renderApplicants(table);
+							DataModel.render(table);
+							WriteBehind.render(table);
+							Metrics.render(table);
+						}
+						break;
+					case "13":
+						if (user instanceof Manager) {
+							approveOfficers((Manager) user, scanner);
+						}
+						break;
+					case "14":
+						if (user instanceof Manager) {
+							bookingReport((Manager) user, scanner);
+						}
+						break;
+					case "15":
+						if (user instanceof Manager) {
+							ProjectCounters.render(table, dashboard((Manager) user));
+						}
+						break;
                     default:
                         System.out.println("Invalid choice.");
                 }
@@ -2479,47 +4368,42 @@ public class SDDA_grp3 {
     }
 
     // Testing (Manager Reply eveything)
-    private static void replyToEnquiriesForManager(Manager manager) {
-        List<Enquiry> allEnquiries = FileHandler.readEnquiries();
-        List<Enquiry> pendingEnquiries = allEnquiries.stream()
+    private static void replyToEnquiriesForManager(Manager manager, Scanner scanner) {
+        List<Enquiry> pendingEnquiries = FileHandler.readEnquiries().stream()
                 .filter(e -> e.getReply().isEmpty())
                 .collect(Collectors.toList());
 
-        handleEnquiryReply(manager, pendingEnquiries, allEnquiries);
+        handleEnquiryReply(manager, pendingEnquiries, scanner);
     }
 
     // Officer (Officer reply assigned)
-    private static void replyToEnquiriesForOfficer(Officer officer) {
+    private static void replyToEnquiriesForOfficer(Officer officer, Scanner scanner) {
         List<Project> allProjects = FileHandler.readProjectsFromCSV("ProjectList.csv");
         List<String> assignedProjects = allProjects.stream()
-                .filter(p -> p.getOfficers().contains(officer.getName()))
+                .filter(p -> p.isOfficer(officer.getName()))
                 .map(Project::getProjectName)
                 .collect(Collectors.toList());
 
-        List<Enquiry> allEnquiries = FileHandler.readEnquiries();
-        List<Enquiry> pendingEnquiries = allEnquiries.stream()
+        List<Enquiry> pendingEnquiries = FileHandler.readEnquiries().stream()
                 .filter(e -> e.getReply().isEmpty() && assignedProjects.contains(e.getProject()))
                 .collect(Collectors.toList());
 
-        handleEnquiryReply(officer, pendingEnquiries, allEnquiries);
+        handleEnquiryReply(officer, pendingEnquiries, scanner);
     }
 
-    private static void handleEnquiryReply(User user, List<Enquiry> pendingEnquiries, List<Enquiry> allEnquiries) {
+    private static void handleEnquiryReply(User user, List<Enquiry> pendingEnquiries, Scanner scanner) {
         if (pendingEnquiries.isEmpty()) {
             System.out.println("No pending enquiries for your projects.");
             return;
         }
 
-        System.out.println("=============================================================");
-        System.out.println("Pending Enquiries");
-        System.out.println("Index\tProject\t\tEnquiry");
+        table.begin("Pending Enquiries", "Index", "Project", "Enquiry");
         for (int i = 0; i < pendingEnquiries.size(); i++) {
             Enquiry e = pendingEnquiries.get(i);
-            System.out.printf("%d\t%s\t\t%s%n", i + 1, e.getProject(), e.getEnquiry());
+            table.row(i + 1, e.getProject(), e.getEnquiry());
         }
-        System.out.println("=============================================================");
+        table.render();
 
-        Scanner scanner = new Scanner(System.in);
         System.out.print("Enter enquiry index to reply (q to exit): ");
         String input = scanner.nextLine().trim();
         if (input.equalsIgnoreCase("q")) return;
@@ -2535,56 +4419,62 @@ public class SDDA_grp3 {
             System.out.print("Enter your reply: ");
             String reply = scanner.nextLine().trim();
 
-            selectedEnquiry.setReply(reply);
-            boolean success = FileHandler.writeEnquiries(allEnquiries);
-
-            if (success) {
-                System.out.printf("Reply saved! Welcome %s.%n", user.getName());
-            } else {
-                System.out.println("Failed to save reply.");
+            try {
+                replyToEnquiry(user, selectedEnquiry.getName(), selectedEnquiry.getProject(),
+                        selectedEnquiry.getEnquiry(), reply);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                System.out.println(e.getMessage());
+                return;
             }
+            System.out.printf("Reply saved! Welcome %s.%n", user.getName());
         } catch (NumberFormatException e) {
             System.out.println("Invalid input.");
         }
     }
 
-    private static void viewEnquiries(User user) {
-        List<Enquiry> allEnquiries = FileHandler.readEnquiries();
-        List<Enquiry> filteredEnquiries = new ArrayList<>();
-
-        // Testing, user see own, officer see assigned, manager see all
+    /**
+     * Gets the enquiries a user may see: applicants see their own, officers those of their assigned
+     * projects and managers all of them.
+     *
+     * @param user the user
+     * @return the predicate
+     */
+    static Predicate<Enquiry> enquiryVisibility(User user) {
         if (user instanceof Applicant) {
-            filteredEnquiries = allEnquiries.stream()
-                    .filter(e -> e.getName().equalsIgnoreCase(user.getName()))
-                    .collect(Collectors.toList());
+            return e -> e.getName().equalsIgnoreCase(user.getName());
         } else if (user instanceof Officer) {
-            List<Project> projects = FileHandler.readProjectsFromCSV("ProjectList.csv");
-            List<String> assignedProjects = projects.stream()
-                    .filter(p -> p.getOfficers().contains(user.getName()))
-                    .map(Project::getProjectName)
-                    .collect(Collectors.toList());
-
-            filteredEnquiries = allEnquiries.stream()
-                    .filter(e -> assignedProjects.contains(e.getProject()))
-                    .collect(Collectors.toList());
+            Set<String> assignedProjects = new HashSet<>();
+            FileHandler.forEachProject("ProjectList.csv", p -> {
+                if (p.isOfficer(user.getName())) {
+                    assignedProjects.add(p.getProjectName());
+                }
+            });
+            return e -> assignedProjects.contains(e.getProject());
         } else if (user instanceof Manager) {
-            filteredEnquiries = allEnquiries;
+            return e -> true;
         }
+        return e -> false;
+    }
 
-        if (filteredEnquiries.isEmpty()) {
+    private static void viewEnquiries(User user, Scanner scanner) {
+        Predicate<Enquiry> filter = enquiryVisibility(user);
+        KeysetCursor<Enquiry> cursor = new KeysetCursor<>(() -> Collections.singletonList(FileHandler.enquiryKeyIndex("enquiryKeys",
+                enquiries -> KeysetCursor.index(enquiries, SDDA_grp3::enquiryKey))),
+                filter, Enquiry::copy, KeysetCursor.DEFAULT_PAGE_SIZE);
+        Page<Enquiry> firstPage = cursor.first();
+        if (firstPage.isEmpty()) {
             System.out.println("No enquiries found.");
             return;
         }
 
-        System.out.println("=============================================================");
-        System.out.println("Enquiries");
-        System.out.println("Project\t\tEnquiry\t\tReply");
-        for (Enquiry e : filteredEnquiries) {
-            System.out.printf("%s\t\t%s\t\t%s%n",
-                    e.getProject(),
-                    e.getEnquiry(),
-                    e.getReply().isEmpty() ? "[Pending]" : e.getReply());
-        }
-        System.out.println("=============================================================");
+        browsePages(cursor, firstPage, scanner, "Enquiries", new String[]{"Project", "Enquiry", "Reply"},
+                (i, e) -> new Object[]{
+                        e.getProject(),
+                        e.getEnquiry(),
+                        e.getReply().isEmpty() ? "[Pending]" : e.getReply()}, null);
+    }
+
+    private static String enquiryKey(Enquiry e) {
+        return String.join("\0", e.getProject().toLowerCase(), e.getName().toLowerCase(), e.getEnquiry(), e.getReply());
     }
 }
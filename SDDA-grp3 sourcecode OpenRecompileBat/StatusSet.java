@@ -0,0 +1,563 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Class representing a set of user IDs, such as the applicants on one status list of a project.
+ * <p>
+ * IDs are kept as a compressed bitmap in the way of Roaring bitmaps: the upper 16 bits of an ID select a
+ * container holding the lower 16 bits, as a sorted array while it has at most 4096 IDs and as a 65536-bit
+ * bitmap beyond that. Membership is a binary search or one word test, and unions, differences and
+ * intersections of bitmap containers work a 64-bit word at a time. IDs come from {@link UserIds}, so
+ * iterating a set visits names in the order they were first seen.
+ * <p>
+ * Most status lists of most projects are empty, so an empty set holds no arrays of its own, and
+ * {@link #EMPTY} stands for every empty list that has not been added to yet.
+ */
+final class StatusSet {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final char[] NO_KEYS = new char[0];
+    private static final Container[] NO_CONTAINERS = new Container[0];
+
+    /**
+     * The empty set shared by every empty status list. IDs can be removed from it, which does nothing,
+     * but adding one throws.
+     */
+    static final StatusSet EMPTY = new StatusSet();
+
+    private char[] keys = NO_KEYS;
+    private Container[] containers = NO_CONTAINERS;
+    private int size;
+    private int count;
+
+    /**
+     * Instantiates a new empty Status set.
+     */
+    StatusSet() {
+    }
+
+    /**
+     * Creates the set of the IDs of some names.
+     *
+     * @param names the names, or null for none
+     * @return the set, {@link #EMPTY} if there are no names
+     */
+    static StatusSet of(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EMPTY;
+        }
+        StatusSet set = new StatusSet();
+        for (String name : names) {
+            set.add(UserIds.id(name));
+        }
+        return set;
+    }
+
+    /**
+     * Gets a set that can be added to: the set itself, or a new set in place of {@link #EMPTY}.
+     *
+     * @param set the set
+     * @return the set to add to
+     */
+    static StatusSet writable(StatusSet set) {
+        return set == EMPTY ? new StatusSet() : set;
+    }
+
+    /**
+     * Gets a copy of a set that can be changed without changing it, or {@link #EMPTY} if it is empty.
+     *
+     * @param set the set
+     * @return the copy
+     */
+    static StatusSet copyOf(StatusSet set) {
+        return set.size == 0 ? EMPTY : set.copy();
+    }
+
+    /**
+     * Adds an ID.
+     *
+     * @param id the ID
+     * @return false if the set already had it
+     */
+    boolean add(int id) {
+        char high = (char) (id >>> 16);
+        int i = Arrays.binarySearch(keys, 0, size, high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new ArrayContainer());
+        }
+        if (containers[i].contains((char) id)) {
+            return false;
+        }
+        containers[i] = containers[i].add((char) id);
+        count++;
+        return true;
+    }
+
+    /**
+     * Removes an ID.
+     *
+     * @param id the ID
+     * @return false if the set did not have it
+     */
+    boolean remove(int id) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+        if (i < 0 || !containers[i].contains((char) id)) {
+            return false;
+        }
+        containers[i] = containers[i].remove((char) id);
+        count--;
+        if (containers[i].cardinality() == 0) {
+            delete(i);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the set has an ID.
+     *
+     * @param id the ID, -1 for a name that has none
+     * @return true if it does
+     */
+    boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+        return i >= 0 && containers[i].contains((char) id);
+    }
+
+    /**
+     * Checks whether the set has the ID of a name.
+     *
+     * @param name the name
+     * @return true if it does
+     */
+    boolean contains(String name) {
+        return contains(UserIds.find(name));
+    }
+
+    /**
+     * Checks whether the set is empty.
+     *
+     * @return true if it is
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of IDs, which is kept up to date by every change rather than counted.
+     *
+     * @return the cardinality
+     */
+    int cardinality() {
+        return count;
+    }
+
+    /**
+     * Counts the IDs container by container, to check the kept number.
+     *
+     * @return the cardinality
+     */
+    int recount() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Creates a copy that can be changed without changing this set.
+     *
+     * @return the copy
+     */
+    StatusSet copy() {
+        StatusSet copy = new StatusSet();
+        if (size == 0) {
+            return copy;
+        }
+        copy.keys = Arrays.copyOf(keys, size);
+        copy.containers = new Container[size];
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * Adds every ID of another set.
+     *
+     * @param other the other set, which is not changed
+     */
+    void or(StatusSet other) {
+        for (int j = 0; j < other.size; j++) {
+            int i = Arrays.binarySearch(keys, 0, size, other.keys[j]);
+            if (i >= 0) {
+                int before = containers[i].cardinality();
+                containers[i] = containers[i].or(other.containers[j]);
+                count += containers[i].cardinality() - before;
+            } else {
+                insert(-i - 1, other.keys[j], other.containers[j].copy());
+                count += other.containers[j].cardinality();
+            }
+        }
+    }
+
+    /**
+     * Removes every ID of another set.
+     *
+     * @param other the other set, which is not changed
+     */
+    void andNot(StatusSet other) {
+        for (int j = 0; j < other.size; j++) {
+            int i = Arrays.binarySearch(keys, 0, size, other.keys[j]);
+            if (i >= 0) {
+                int before = containers[i].cardinality();
+                containers[i] = containers[i].andNot(other.containers[j]);
+                count -= before - containers[i].cardinality();
+                if (containers[i].cardinality() == 0) {
+                    delete(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the set shares an ID with another set.
+     *
+     * @param other the other set
+     * @return true if it does
+     */
+    boolean intersects(StatusSet other) {
+        for (int j = 0; j < other.size; j++) {
+            int i = Arrays.binarySearch(keys, 0, size, other.keys[j]);
+            if (i >= 0 && containers[i].intersects(other.containers[j])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes every ID to an action in ascending order.
+     *
+     * @param action the action
+     */
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Gets the names of the IDs in ascending order of ID.
+     *
+     * @return the names
+     */
+    List<String> names() {
+        List<String> names = new ArrayList<>();
+        forEach(id -> names.add(UserIds.name(id)));
+        return names;
+    }
+
+    private void insert(int i, char key, Container container) {
+        if (this == EMPTY) {
+            throw new UnsupportedOperationException("The shared empty set cannot be added to");
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(1, size * 2));
+            containers = Arrays.copyOf(containers, keys.length);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        size++;
+    }
+
+    private void delete(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * The lower 16 bits of the IDs that share their upper 16 bits.
+     */
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        abstract Container copy();
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract boolean intersects(Container other);
+
+        abstract void forEach(int high, IntConsumer action);
+    }
+
+    /**
+     * A container of at most 4096 values, as a sorted array.
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            char[] merged = new char[cardinality + array.cardinality];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < cardinality && j < array.cardinality) {
+                char a = values[i];
+                char b = array.values[j];
+                merged[n++] = a <= b ? a : b;
+                if (a <= b) {
+                    i++;
+                }
+                if (b <= a) {
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                merged[n++] = values[i++];
+            }
+            while (j < array.cardinality) {
+                merged[n++] = array.values[j++];
+            }
+            ArrayContainer result = new ArrayContainer(merged, n);
+            return n > ARRAY_LIMIT ? result.toBitmap() : result;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] kept = new char[Math.max(4, cardinality)];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    kept[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(kept, n);
+        }
+
+        @Override
+        boolean intersects(Container other) {
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * A container of more than 4096 values, as one bit per value.
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long word = words[low >>> 6];
+            long bit = 1L << low;
+            if ((word & bit) == 0) {
+                words[low >>> 6] = word | bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long word = words[low >>> 6];
+            long bit = 1L << low;
+            if ((word & bit) != 0) {
+                words[low >>> 6] = word & ~bit;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_LIMIT ? toArray() : this;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            if (other instanceof BitmapContainer) {
+                long[] others = ((BitmapContainer) other).words;
+                for (int i = 0; i < result.length; i++) {
+                    result[i] |= others[i];
+                }
+            } else {
+                other.forEach(0, low -> result[low >>> 6] |= 1L << low);
+            }
+            return new BitmapContainer(result, count(result));
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof BitmapContainer) {
+                long[] others = ((BitmapContainer) other).words;
+                for (int i = 0; i < result.length; i++) {
+                    result[i] &= ~others[i];
+                }
+            } else {
+                other.forEach(0, low -> result[low >>> 6] &= ~(1L << low));
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, count(result));
+            return bitmap.cardinality <= ARRAY_LIMIT ? bitmap.toArray() : bitmap;
+        }
+
+        @Override
+        boolean intersects(Container other) {
+            if (other instanceof BitmapContainer) {
+                long[] others = ((BitmapContainer) other).words;
+                for (int i = 0; i < words.length; i++) {
+                    if ((words[i] & others[i]) != 0) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return other.intersects(this);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int[] n = {0};
+            forEach(0, low -> values[n[0]++] = (char) low);
+            return new ArrayContainer(values, cardinality);
+        }
+
+        private static int count(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return cardinality;
+        }
+    }
+}
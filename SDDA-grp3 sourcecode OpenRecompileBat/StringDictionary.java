@@ -0,0 +1,40 @@
+/**
+ * Class representing the dictionary of the strings that repeat across projects: flat types,
+ * neighbourhoods and manager names.
+ * <p>
+ * A string is given the next free code the first time it is seen and keeps it while the system runs, so a
+ * project holds an int per string and every project shares one copy of it, however many times it was
+ * parsed. Codes are not stored; the files still hold the strings, as the codes of a run depend on the
+ * order the lists were read in.
+ */
+final class StringDictionary {
+    /**
+     * The code of a null string.
+     */
+    static final int NULL = -1;
+
+    private static final Interner strings = new Interner();
+
+    private StringDictionary() {
+    }
+
+    /**
+     * Gets the code of a string, giving it a new one if it has none yet.
+     *
+     * @param string the string, or null
+     * @return the code, {@link #NULL} for null
+     */
+    static int code(String string) {
+        return string == null ? NULL : strings.intern(string);
+    }
+
+    /**
+     * Gets the string of a code.
+     *
+     * @param code the code
+     * @return the string, or null for {@link #NULL}
+     */
+    static String string(int code) {
+        return code == NULL ? null : strings.get(code);
+    }
+}
@@ -0,0 +1,148 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class representing a table renderer for listing screens.
+ * <p>
+ * Rows are collected first so that column widths can be computed, then the whole table is built in a
+ * reused {@link StringBuilder} and handed to the writer in a single write and flush. The writer can wrap
+ * standard output or the output stream of a network session.
+ */
+class TableRenderer {
+    private static final int MIN_RULE_WIDTH = 61;
+    private static final String COLUMN_GAP = "  ";
+
+    private final Writer out;
+    private final StringBuilder buffer = new StringBuilder(4096);
+    private final List<String[]> rows = new ArrayList<>();
+    private String title;
+    private String[] headers = new String[0];
+
+    /**
+     * Instantiates a new Table renderer.
+     *
+     * @param out The writer tables are written to
+     */
+    public TableRenderer(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates a renderer writing to an output stream, such as the one of a socket.
+     *
+     * @param stream the output stream
+     * @return the renderer
+     */
+    public static TableRenderer forStream(OutputStream stream) {
+        return new TableRenderer(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16));
+    }
+
+    /**
+     * Creates a renderer writing to standard output.
+     *
+     * @return the renderer
+     */
+    public static TableRenderer console() {
+        return forStream(System.out);
+    }
+
+    /**
+     * Starts a new table, discarding any rows of the previous one.
+     *
+     * @param title   the line shown above the column headers, or null
+     * @param headers the column headers
+     * @return this renderer
+     */
+    public TableRenderer begin(String title, String... headers) {
+        this.title = title;
+        this.headers = headers;
+        rows.clear();
+        return this;
+    }
+
+    /**
+     * Adds a row, one cell per column.
+     *
+     * @param cells the cells
+     * @return this renderer
+     */
+    public TableRenderer row(Object... cells) {
+        String[] row = new String[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            row[i] = String.valueOf(cells[i]);
+        }
+        rows.add(row);
+        return this;
+    }
+
+    /**
+     * Writes the table with a rule above and below it and flushes the writer.
+     */
+    public void render() {
+        int columns = headers.length;
+        for (String[] row : rows) {
+            columns = Math.max(columns, row.length);
+        }
+        int[] widths = new int[columns];
+        measure(headers, widths);
+        for (String[] row : rows) {
+            measure(row, widths);
+        }
+        int tableWidth = Arrays.stream(widths).sum() + COLUMN_GAP.length() * Math.max(0, columns - 1);
+
+        buffer.setLength(0);
+        appendRule(Math.max(MIN_RULE_WIDTH, tableWidth));
+        if (title != null) {
+            buffer.append(title).append(System.lineSeparator());
+        }
+        if (headers.length > 0) {
+            appendRow(headers, widths);
+        }
+        for (String[] row : rows) {
+            appendRow(row, widths);
+        }
+        appendRule(Math.max(MIN_RULE_WIDTH, tableWidth));
+        rows.clear();
+
+        try {
+            out.append(buffer);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void measure(String[] cells, int[] widths) {
+        for (int i = 0; i < cells.length; i++) {
+            widths[i] = Math.max(widths[i], cells[i].length());
+        }
+    }
+
+    private void appendRule(int width) {
+        for (int i = 0; i < width; i++) {
+            buffer.append('=');
+        }
+        buffer.append(System.lineSeparator());
+    }
+
+    private void appendRow(String[] cells, int[] widths) {
+        for (int i = 0; i < cells.length; i++) {
+            buffer.append(cells[i]);
+            if (i < cells.length - 1) {
+                for (int pad = cells[i].length(); pad < widths[i]; pad++) {
+                    buffer.append(' ');
+                }
+                buffer.append(COLUMN_GAP);
+            }
+        }
+        buffer.append(System.lineSeparator());
+    }
+}
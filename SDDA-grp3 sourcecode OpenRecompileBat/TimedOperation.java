@@ -0,0 +1,80 @@
+/**
+ * Class representing one run of a business operation.
+ * <p>
+ * Records the latency in {@link Metrics} and emits an {@link OperationEvent} when closed. The outcome is
+ * "failed" unless the operation reaches {@link #succeeded()} or sets another one, so an exception thrown
+ * out of the try-with-resources block is reported as a failure.
+ * <pre>
+ * try (TimedOperation operation = TimedOperation.begin("apply", user, projectName)) {
+ *     ...
+ *     operation.succeeded();
+ * }
+ * </pre>
+ */
+final class TimedOperation implements AutoCloseable {
+    private final String name;
+    private final long start;
+    private final OperationEvent event = new OperationEvent();
+    private User user;
+    private String project;
+    private String outcome = "failed";
+
+    private TimedOperation(String name, User user, String project) {
+        this.name = name;
+        this.user = user;
+        this.project = project;
+        this.start = Metrics.start();
+        event.begin();
+    }
+
+    /**
+     * Starts an operation.
+     *
+     * @param name    the operation name
+     * @param user    the user running it, or null if not known yet
+     * @param project the project it concerns, or null
+     * @return the operation
+     */
+    static TimedOperation begin(String name, User user, String project) {
+        return new TimedOperation(name, user, project);
+    }
+
+    /**
+     * Sets the user once known, such as after a lookup.
+     *
+     * @param user the user
+     */
+    void user(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Marks the operation as successful.
+     */
+    void succeeded() {
+        outcome = "ok";
+    }
+
+    /**
+     * Sets the outcome of an operation that ends without an exception but did not succeed.
+     *
+     * @param outcome the outcome
+     */
+    void outcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    @Override
+    public void close() {
+        Metrics.record(name, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = name;
+            event.role = user == null ? null
+                    : user instanceof Manager ? "Manager" : user instanceof Officer ? "Officer" : "Applicant";
+            event.project = project;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Class representing the dense int IDs of the applicants and officers named in the project lists.
+ * <p>
+ * A name is given the next free ID the first time it is seen and keeps it while the system runs, so the
+ * status lists of every project can be held as {@link StatusSet}s of small ints. IDs are not stored;
+ * the files still name users, as the IDs of a run depend on the order the lists were read in.
+ */
+final class UserIds {
+    private static final Interner names = new Interner();
+
+    private UserIds() {
+    }
+
+    /**
+     * Gets the ID of a name, giving it a new one if it has none yet.
+     *
+     * @param name the name
+     * @return the ID
+     */
+    static int id(String name) {
+        return names.intern(name);
+    }
+
+    /**
+     * Gets the ID of a name without giving it one.
+     *
+     * @param name the name
+     * @return the ID, or -1 if the name was never seen
+     */
+    static int find(String name) {
+        return names.find(name);
+    }
+
+    /**
+     * Gets the name of an ID.
+     *
+     * @param id the ID
+     * @return the name
+     */
+    static String name(int id) {
+        return names.get(id);
+    }
+}
@@ -0,0 +1,43 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class representing an index from users to the projects naming them.
+ * <p>
+ * Every officer, application, withdrawal and waitlist of every project is walked once, so that the
+ * projects of one user are found without reading the whole list. Users are keyed by their
+ * {@link UserIds} ID and their projects are kept in list order.
+ */
+class UserProjectIndex {
+    private final Map<Integer, List<Project>> byUser = new HashMap<>();
+
+    /**
+     * Instantiates a new User project index.
+     *
+     * @param projects the projects to index
+     */
+    public UserProjectIndex(List<Project> projects) {
+        for (Project project : projects) {
+            project.forEachNamedId(id -> {
+                List<Project> named = byUser.computeIfAbsent(id, k -> new ArrayList<>(1));
+                if (named.isEmpty() || named.get(named.size() - 1) != project) {
+                    named.add(project);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the projects naming a user.
+     *
+     * @param name the name of the user
+     * @return the projects, in list order
+     */
+    public List<Project> naming(String name) {
+        List<Project> named = byUser.get(UserIds.find(name));
+        return named != null ? Collections.unmodifiableList(named) : Collections.emptyList();
+    }
+}
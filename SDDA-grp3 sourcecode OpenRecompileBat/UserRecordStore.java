@@ -0,0 +1,185 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class representing the side store of password and filter changes for one user list.
+ * <p>
+ * Changing one field of one user used to rewrite the whole user list. Instead the current password and
+ * filter of the user are written as one fixed-width record next to the list (ApplicantList.csv keeps its
+ * records in ApplicantList.rec), at a slot found through an in-memory index, so a change costs a single
+ * positional write. Records are laid over the list whenever it is read, and the store is emptied when the
+ * whole list is written again, as the list then holds the same values.
+ */
+class UserRecordStore {
+    private static final int RECORD_SIZE = 512;
+    private static final int NRIC_SIZE = 16;
+    private static final int PASSWORD_SIZE = 160;
+    private static final int FILTER_SIZE = RECORD_SIZE - NRIC_SIZE - PASSWORD_SIZE - 2 * Short.BYTES;
+    private static final Map<String, UserRecordStore> stores = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Map<String, String[]> values = new HashMap<>();
+    private boolean loaded;
+
+    private UserRecordStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Gets the store of a user list.
+     *
+     * @param csvFilename the filename of the user list
+     * @return the store
+     */
+    public static UserRecordStore forList(String csvFilename) {
+        return stores.computeIfAbsent(csvFilename, name -> {
+            String base = name.endsWith(".csv") ? name.substring(0, name.length() - 4) : name;
+            return new UserRecordStore(FileHandler.dataFile(base + ".rec").toPath());
+        });
+    }
+
+    /**
+     * Replaces the password and filter of a user read from the list with the ones recorded in this store.
+     *
+     * @param user the user
+     */
+    public synchronized void apply(User user) {
+        load();
+        String[] record = values.get(key(user.getNric()));
+        if (record != null) {
+            user.setPassword(record[0]);
+            user.setFilter(record[1]);
+        }
+    }
+
+    /**
+     * Records the current password and filter of a user with a single write.
+     *
+     * @param user the user
+     * @return false if the values do not fit in a record or cannot be written, in which case the list
+     * has to be written instead
+     */
+    public synchronized boolean update(User user) {
+        String key = key(user.getNric());
+        byte[] nric = key.getBytes(StandardCharsets.UTF_8);
+        byte[] password = user.getPassword().getBytes(StandardCharsets.UTF_8);
+        byte[] filter = user.getFilter().getBytes(StandardCharsets.UTF_8);
+        if (nric.length > NRIC_SIZE || password.length > PASSWORD_SIZE || filter.length > FILTER_SIZE) {
+            return false;
+        }
+        load();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.put(nric).position(NRIC_SIZE);
+        record.putShort((short) password.length).put(password).position(NRIC_SIZE + Short.BYTES + PASSWORD_SIZE);
+        record.putShort((short) filter.length).put(filter);
+        record.clear();
+
+        Integer slot = slots.get(key);
+        int target = slot != null ? slot : slots.size();
+        FileIoEvent io = FileIoEvent.begin("UserRecordStore", path.toFile());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long position = (long) target * RECORD_SIZE;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        io.written(RECORD_SIZE, 1);
+        slots.put(key, target);
+        values.put(key, new String[]{user.getPassword(), user.getFilter()});
+        return true;
+    }
+
+    /**
+     * Gets the file records are kept in.
+     *
+     * @return the file
+     */
+    public File file() {
+        return path.toFile();
+    }
+
+    /**
+     * Forgets the records read so far, so that they are read again after another process changed them.
+     */
+    public synchronized void reload() {
+        slots.clear();
+        values.clear();
+        loaded = false;
+    }
+
+    /**
+     * Empties the store after the whole list has been written.
+     */
+    public synchronized void clear() {
+        slots.clear();
+        values.clear();
+        loaded = true;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(path)) {
+            return;
+        }
+        FileIoEvent io = FileIoEvent.begin("UserRecordStore", path.toFile());
+        try {
+            ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(path));
+            for (int slot = 0; records.remaining() >= RECORD_SIZE; slot++) {
+                int start = records.position();
+                String nric = readPadded(records, NRIC_SIZE);
+                String password = readString(records, PASSWORD_SIZE);
+                String filter = readString(records, FILTER_SIZE);
+                records.position(start + RECORD_SIZE);
+                if (!nric.isEmpty()) {
+                    slots.put(nric, slot);
+                    values.put(nric, new String[]{password, filter});
+                }
+            }
+            io.read(records.capacity() / RECORD_SIZE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String readPadded(ByteBuffer buffer, int size) {
+        byte[] bytes = new byte[size];
+        buffer.get(bytes);
+        int length = 0;
+        while (length < size && bytes[length] != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer, int size) {
+        int length = Math.min(buffer.getShort(), size);
+        byte[] bytes = new byte[size];
+        buffer.get(bytes);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String key(String nric) {
+        return nric.toUpperCase();
+    }
+}
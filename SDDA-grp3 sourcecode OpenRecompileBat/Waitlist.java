@@ -0,0 +1,199 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+
+/**
+ * Class representing the waitlist of one flat type of a project.
+ * <p>
+ * A successful applicant who cannot book because no unit is left waits here until a booked unit of the
+ * flat type is withdrawn. Applicants are ranked by the time they joined, then by name, and kept in a
+ * binary heap, so joining and promoting the first applicant take O(log n). The waitlist is stored in
+ * its own column of the project list as {@code name:rank} entries, in rank order. Nobody waits on most
+ * waitlists, so the heap is only made when the first applicant joins.
+ */
+final class Waitlist {
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingLong(e -> e.rank).thenComparing(e -> e.name);
+
+    private PriorityQueue<Entry> heap;
+    private StatusSet members;
+
+    /**
+     * Parses a waitlist from its stored entries.
+     *
+     * @param entries the {@code name:rank} entries, a name without a rank is ranked first
+     * @return the waitlist
+     */
+    static Waitlist parse(List<String> entries) {
+        Waitlist waitlist = new Waitlist();
+        for (String entry : entries) {
+            int colon = entry.lastIndexOf(':');
+            long rank = 0;
+            if (colon > 0) {
+                try {
+                    rank = Long.parseLong(entry.substring(colon + 1));
+                } catch (NumberFormatException e) {
+                    colon = -1;
+                }
+            }
+            waitlist.add(colon > 0 ? entry.substring(0, colon) : entry, rank);
+        }
+        return waitlist;
+    }
+
+    /**
+     * Adds an applicant.
+     *
+     * @param name the name of the applicant
+     * @param rank the rank, lower first, such as the time the applicant joined in epoch milliseconds
+     * @return false if the applicant was already waiting
+     */
+    boolean add(String name, long rank) {
+        if (heap == null) {
+            heap = new PriorityQueue<>(ORDER);
+            members = new StatusSet();
+        }
+        if (!members.add(UserIds.id(name))) {
+            return false;
+        }
+        heap.add(new Entry(name, rank));
+        return true;
+    }
+
+    /**
+     * Removes and returns the first applicant.
+     *
+     * @return the name, or null if nobody is waiting
+     */
+    String poll() {
+        Entry first = heap != null ? heap.poll() : null;
+        if (first == null) {
+            return null;
+        }
+        members.remove(UserIds.id(first.name));
+        return first.name;
+    }
+
+    /**
+     * Removes an applicant wherever it is in the waitlist.
+     *
+     * @param name the name of the applicant
+     * @return false if the applicant was not waiting
+     */
+    boolean remove(String name) {
+        if (heap == null || !members.remove(UserIds.find(name))) {
+            return false;
+        }
+        heap.removeIf(e -> e.name.equals(name));
+        return true;
+    }
+
+    /**
+     * Checks whether an applicant is waiting.
+     *
+     * @param name the name of the applicant
+     * @return true if it is
+     */
+    boolean contains(String name) {
+        return heap != null && members.contains(name);
+    }
+
+    /**
+     * Passes the {@link UserIds} ID of every applicant waiting to an action, in no particular order.
+     *
+     * @param action the action
+     */
+    void forEachId(IntConsumer action) {
+        if (members != null) {
+            members.forEach(action);
+        }
+    }
+
+    /**
+     * Gets the position of an applicant, counting from 1.
+     *
+     * @param name the name of the applicant
+     * @return the position, or 0 if the applicant is not waiting
+     */
+    int position(String name) {
+        List<Entry> ordered = ordered();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).name.equals(name)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the number of applicants waiting.
+     *
+     * @return the size
+     */
+    int size() {
+        return heap != null ? heap.size() : 0;
+    }
+
+    /**
+     * Gets the names in rank order.
+     *
+     * @return the names
+     */
+    List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (Entry entry : ordered()) {
+            names.add(entry.name);
+        }
+        return names;
+    }
+
+    /**
+     * Gets the entries as they are stored, in rank order.
+     *
+     * @return the {@code name:rank} entries
+     */
+    List<String> entries() {
+        List<String> entries = new ArrayList<>();
+        for (Entry entry : ordered()) {
+            entries.add(entry.name + ":" + entry.rank);
+        }
+        return entries;
+    }
+
+    /**
+     * Creates a copy that can be changed without changing this waitlist.
+     *
+     * @return the copy
+     */
+    Waitlist copy() {
+        Waitlist copy = new Waitlist();
+        if (heap != null) {
+            copy.heap = new PriorityQueue<>(heap);
+            copy.members = members.copy();
+        }
+        return copy;
+    }
+
+    private List<Entry> ordered() {
+        if (heap == null) {
+            return new ArrayList<>();
+        }
+        List<Entry> ordered = new ArrayList<>(heap);
+        ordered.sort(ORDER);
+        return ordered;
+    }
+
+    /**
+     * An applicant and its rank.
+     */
+    private static final class Entry {
+        private final String name;
+        private final long rank;
+
+        private Entry(String name, long rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+    }
+}
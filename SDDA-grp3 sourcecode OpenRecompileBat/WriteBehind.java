@@ -0,0 +1,221 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Class representing the write-behind queue that takes file writes off the path of the user.
+ * <p>
+ * With -Dsdda.writeBehind=true, writing a project list, a project shard or the enquiry list replaces the
+ * rows of its store in the in-memory model and queues the file to be written, then returns. One writer
+ * thread takes every queued task at once, groups them by file and writes each file once from the rows
+ * its store holds at that moment, so a burst of changes to one file costs one write of its latest state.
+ * The queue holds -Dsdda.writeBehind.capacity tasks (256 by default); a caller that finds it full waits
+ * for room. The queue is drained when the system quits, and by a shutdown hook otherwise.
+ * <p>
+ * How long a caller waits is passed with each write: {@link Durability#ASYNC} returns once the task is
+ * queued, {@link Durability#FSYNC} waits until the file is written and forced to disk. Writes that do not
+ * choose use {@link #DEFAULT_DURABILITY}, set with -Dsdda.durability. Without write-behind every write is
+ * made in the caller, and FSYNC forces it to disk before it is renamed into place.
+ * <p>
+ * Queueing and draining exclude each other, so a drain stops the writer only once every task queued
+ * before it is written, and a write queued after it starts a new writer. A write that fails, however it
+ * fails, completes its waiting callers with false and leaves the writer running.
+ */
+final class WriteBehind {
+    /**
+     * Whether writes are queued.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("sdda.writeBehind");
+
+    /**
+     * The durability of writes that do not choose one, FSYNC with -Dsdda.durability=fsync.
+     */
+    static final Durability DEFAULT_DURABILITY =
+            "fsync".equalsIgnoreCase(System.getProperty("sdda.durability")) ? Durability.FSYNC : Durability.ASYNC;
+
+    private static final int CAPACITY = Integer.getInteger("sdda.writeBehind.capacity", 256);
+    private static final BlockingQueue<Task> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private static final LongAdder queued = new LongAdder();
+    private static final LongAdder written = new LongAdder();
+    private static final LongAdder coalesced = new LongAdder();
+    private static final LongAdder waited = new LongAdder();
+    private static final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private static Thread writer;
+    private static Thread hook;
+
+    private WriteBehind() {
+    }
+
+    /**
+     * How long a write keeps its caller waiting.
+     */
+    enum Durability {
+        /**
+         * Return once the write is queued.
+         */
+        ASYNC,
+        /**
+         * Return once the file is written and forced to disk.
+         */
+        FSYNC
+    }
+
+    /**
+     * Queues a file to be written, waiting for room if the queue is full, and for the write itself if
+     * the durability is {@link Durability#FSYNC}.
+     *
+     * @param file       the file
+     * @param writer     writes the rows the model holds when the file is written
+     * @param committed  run under the write lock of the file once it is written
+     * @param durability how long to wait for the write
+     * @return false if the caller waited and the write failed
+     */
+    static boolean submit(File file, FileLocks.RowWriter writer, Runnable committed, Durability durability) {
+        Task task = new Task(file, writer, committed, durability == Durability.FSYNC);
+        gate.readLock().lock();
+        try {
+            start();
+            if (!queue.offer(task)) {
+                waited.increment();
+                try {
+                    queue.put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return FileLocks.replace(file, writer, committed, task.force);
+                }
+            }
+            queued.increment();
+        } finally {
+            gate.readLock().unlock();
+        }
+        return !task.force || task.done.join();
+    }
+
+    /**
+     * Writes every queued file and stops the writer thread. Writes submitted meanwhile wait until it
+     * stopped, and start it again.
+     */
+    static void drain() {
+        gate.writeLock().lock();
+        try {
+            Thread stopping;
+            synchronized (WriteBehind.class) {
+                stopping = writer;
+            }
+            if (stopping == null) {
+                return;
+            }
+            queue.put(Task.STOP);
+            stopping.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renders the number of writes queued, made and saved by coalescing.
+     *
+     * @param table the renderer
+     */
+    static void render(TableRenderer table) {
+        if (!ENABLED) {
+            return;
+        }
+        table.begin("Write-behind", "Queued", "Written", "Coalesced", "Waited for room", "In queue");
+        table.row(queued.sum(), written.sum(), coalesced.sum(), waited.sum(), queue.size());
+        table.render();
+    }
+
+    private static synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(WriteBehind::run, "write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        if (hook == null) {
+            hook = new Thread(WriteBehind::drain, "write-behind-drain");
+            Runtime.getRuntime().addShutdownHook(hook);
+        }
+    }
+
+    private static void run() {
+        try {
+            write();
+        } finally {
+            synchronized (WriteBehind.class) {
+                if (writer == Thread.currentThread()) {
+                    writer = null;
+                }
+            }
+        }
+    }
+
+    private static void write() {
+        List<Task> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            Map<String, List<Task>> byFile = new LinkedHashMap<>();
+            for (Task task : batch) {
+                if (task == Task.STOP) {
+                    stop = true;
+                } else {
+                    byFile.computeIfAbsent(task.file.getAbsolutePath(), k -> new ArrayList<>()).add(task);
+                }
+            }
+            for (List<Task> tasks : byFile.values()) {
+                Task last = tasks.get(tasks.size() - 1);
+                boolean force = tasks.stream().anyMatch(t -> t.force);
+                boolean success;
+                try {
+                    success = FileLocks.replace(last.file, last.writer, last.committed, force);
+                } catch (Throwable e) {
+                    // a row that cannot be formatted fails this file only, the writer keeps going
+                    e.printStackTrace();
+                    success = false;
+                }
+                written.increment();
+                coalesced.add(tasks.size() - 1);
+                for (Task task : tasks) {
+                    task.done.complete(success);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * One queued write.
+     */
+    private static final class Task {
+        private static final Task STOP = new Task(null, null, null, false);
+
+        private final File file;
+        private final FileLocks.RowWriter writer;
+        private final Runnable committed;
+        private final boolean force;
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+
+        private Task(File file, FileLocks.RowWriter writer, Runnable committed, boolean force) {
+            this.file = file;
+            this.writer = writer;
+            this.committed = committed;
+            this.force = force;
+        }
+    }
+}
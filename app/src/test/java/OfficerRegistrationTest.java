@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests officer registrations made by several sessions at the same time.
+ */
+class OfficerRegistrationTest {
+    @TempDir
+    Path dataDir;
+
+    @BeforeEach
+    void useDataDir() {
+        System.setProperty("sdda.data.dir", dataDir.toString());
+    }
+
+    @AfterEach
+    void clearDataDir() {
+        System.clearProperty("sdda.data.dir");
+    }
+
+    @Test
+    void concurrentRegistrationsAreAllSaved() throws Exception {
+        writeProject("Barrier Court", 10);
+
+        List<Boolean> registered = registerConcurrently("Barrier Court", 3);
+
+        assertEquals(List.of(true, true, true), registered);
+        Project saved = readSaved("Barrier Court");
+        assertEquals(3, saved.getOfficerPending().size());
+        assertEquals(7, saved.getFreeOfficerSlots());
+    }
+
+    @Test
+    void concurrentRegistrationsDoNotOverfillSlots() throws Exception {
+        writeProject("Crowded Court", 4);
+
+        List<Boolean> registered = registerConcurrently("Crowded Court", 8);
+
+        assertEquals(4, registered.stream().filter(ok -> ok).count());
+        Project saved = readSaved("Crowded Court");
+        assertEquals(4, saved.getOfficerPending().size());
+        assertEquals(0, saved.getFreeOfficerSlots());
+    }
+
+    private static void writeProject(String projectName, int officerSlots) {
+        List<Project> projects = new ArrayList<>();
+        projects.add(new Project(projectName, "Bedok", "2-Room", 5, 100000, "3-Room", 5, 200000,
+                "2030-01-01", "2030-02-01", "Jessica", officerSlots, new ArrayList<>(), false,
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(), new ArrayList<>()));
+        assertEquals(true, FileHandler.writeProjectsToCSV("ProjectList.csv", projects));
+    }
+
+    /**
+     * Registers officers for a project from one thread each, all released by a barrier at once.
+     *
+     * @return whether each registration succeeded, in officer order
+     */
+    private static List<Boolean> registerConcurrently(String projectName, int officers) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(officers);
+        CyclicBarrier barrier = new CyclicBarrier(officers);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < officers; i++) {
+                Officer officer = new Officer(projectName + " Officer " + i, "T000000" + i + "A", 30, "Married",
+                        "password", "None");
+                results.add(pool.submit(() -> {
+                    barrier.await();
+                    try {
+                        SDDA_grp3.registerOfficer(officer, projectName);
+                        return true;
+                    } catch (IllegalStateException e) {
+                        return false;
+                    }
+                }));
+            }
+            List<Boolean> registered = new ArrayList<>();
+            for (Future<Boolean> result : results) {
+                registered.add(result.get(30, TimeUnit.SECONDS));
+            }
+            return registered;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses the project back from the file rather than the in-memory model.
+     */
+    private Project readSaved(String projectName) {
+        List<Project> projects = new ArrayList<>();
+        FileHandler.parseProjects(new File(dataDir.toFile(), "ProjectList.csv"), projects::add);
+        Project saved = projects.stream()
+                .filter(p -> p.getProjectName().equals(projectName))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,85 @@
+package sdda.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Access to the application classes, which live in the unnamed package and cannot be imported.
+ * Handles are looked up once and kept in static final fields by the benchmarks so the JIT treats
+ * them as constants. Application types in a handle's signature are erased to Object so that it can
+ * be called with invokeExact.
+ */
+final class App {
+    private App() {
+    }
+
+    /**
+     * Looks up a static or instance method of an application class. The receiver of an instance method
+     * becomes the first parameter.
+     *
+     * @param className  the class name
+     * @param name       the method name
+     * @param parameters the parameter types
+     * @return the method handle
+     */
+    static MethodHandle method(String className, String name, Class<?>... parameters) {
+        try {
+            Method method = Class.forName(className).getDeclaredMethod(name, parameters);
+            method.setAccessible(true);
+            return erase(MethodHandles.lookup().unreflect(method));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot find " + className + "." + name, e);
+        }
+    }
+
+    /**
+     * Looks up a constructor of an application class.
+     *
+     * @param className  the class name
+     * @param parameters the parameter types
+     * @return the method handle
+     */
+    static MethodHandle constructor(String className, Class<?>... parameters) {
+        try {
+            Constructor<?> constructor = Class.forName(className).getDeclaredConstructor(parameters);
+            constructor.setAccessible(true);
+            return erase(MethodHandles.lookup().unreflectConstructor(constructor));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot find constructor of " + className, e);
+        }
+    }
+
+    /**
+     * Gets an application class.
+     *
+     * @param className the class name
+     * @return the class
+     */
+    static Class<?> type(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot find " + className, e);
+        }
+    }
+
+    private static MethodHandle erase(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isAppType(type.parameterType(i))) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        if (isAppType(type.returnType())) {
+            type = type.changeReturnType(Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    private static boolean isAppType(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && type.getPackageName().isEmpty();
+    }
+}
@@ -0,0 +1,66 @@
+package sdda.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checking flat type eligibility for every user of a list of 1k, 100k and 1M applicants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EligibilityBenchmark {
+    private static final MethodHandle APPLICANT = App.constructor("Applicant",
+            String.class, String.class, int.class, String.class, String.class, String.class);
+    private static final MethodHandle IS_ELIGIBLE =
+            App.method("SDDA_grp3", "isEligibleForRoomType", App.type("User"), String.class);
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Object[] users;
+
+    @Setup
+    public void setUp() throws Throwable {
+        users = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            String maritalStatus = i % 3 == 0 ? "Single" : "Married";
+            users[i] = (Object) APPLICANT.invokeExact("User" + i, Fixtures.nric('S', i, 'A'), 21 + i % 50,
+                    maritalStatus, Fixtures.PASSWORD, "None");
+        }
+    }
+
+    @Benchmark
+    public int twoRoom() throws Throwable {
+        return count("2-Room");
+    }
+
+    @Benchmark
+    public int threeRoom() throws Throwable {
+        return count("3-Room");
+    }
+
+    private int count(String roomType) throws Throwable {
+        int eligible = 0;
+        for (Object user : users) {
+            if ((boolean) IS_ELIGIBLE.invokeExact(user, roomType)) {
+                eligible++;
+            }
+        }
+        return eligible;
+    }
+}
@@ -0,0 +1,106 @@
+package sdda.bench;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading and writing the project and user lists at 1k, 100k and 1M rows. The read benchmarks get copies
+ * from the in-memory model, which parses each file once; the parse benchmarks measure that first load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FileHandlerBenchmark {
+    private static final MethodHandle READ_PROJECTS =
+            App.method("FileHandler", "readProjectsFromCSV", String.class);
+    private static final MethodHandle WRITE_PROJECTS =
+            App.method("FileHandler", "writeProjectsToCSV", String.class, List.class);
+    private static final MethodHandle READ_USERS =
+            App.method("FileHandler", "readUsersFromCSV", String.class, Class.class);
+    private static final MethodHandle PARSE_PROJECTS =
+            App.method("FileHandler", "parseProjects", File.class, Consumer.class);
+    private static final MethodHandle PARSE_USERS =
+            App.method("FileHandler", "parseUsers", File.class, String.class, Class.class);
+    private static final MethodHandle CLEAR_MODEL = App.method("DataModel", "clear");
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Path dir;
+    private Class<?> applicant;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Fixtures.dataDir();
+        Fixtures.writeProjects(dir.resolve("ProjectList.csv"), rows);
+        Fixtures.writeUsers(dir.resolve("ApplicantList.csv"), rows, 'S', 'A');
+        applicant = App.type("Applicant");
+    }
+
+    @TearDown
+    public void tearDown() throws Throwable {
+        CLEAR_MODEL.invokeExact();
+        Fixtures.delete(dir);
+    }
+
+    /**
+     * The projects written by {@link #writeProjects(Loaded)}, only held by that benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class Loaded {
+        List<?> projects;
+
+        @Setup
+        public void setUp(FileHandlerBenchmark benchmark) throws Throwable {
+            projects = (List<?>) READ_PROJECTS.invokeExact("ProjectList.csv");
+        }
+    }
+
+    @Benchmark
+    public List<?> readProjects() throws Throwable {
+        return (List<?>) READ_PROJECTS.invokeExact("ProjectList.csv");
+    }
+
+    @Benchmark
+    public boolean writeProjects(Loaded loaded) throws Throwable {
+        return (boolean) WRITE_PROJECTS.invokeExact("ProjectListOut.csv", (List) loaded.projects);
+    }
+
+    @Benchmark
+    public List<?> readUsers() throws Throwable {
+        return (List<?>) READ_USERS.invokeExact("ApplicantList.csv", applicant);
+    }
+
+    @Benchmark
+    public List<Object> parseProjects() throws Throwable {
+        List<Object> projects = new ArrayList<>();
+        Consumer<Object> add = projects::add;
+        PARSE_PROJECTS.invokeExact(dir.resolve("ProjectList.csv").toFile(), add);
+        return projects;
+    }
+
+    @Benchmark
+    public List<?> parseUsers() throws Throwable {
+        return (List<?>) PARSE_USERS.invokeExact(dir.resolve("ApplicantList.csv").toFile(), "ApplicantList.csv", applicant);
+    }
+}
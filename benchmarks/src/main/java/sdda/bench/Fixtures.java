@@ -0,0 +1,157 @@
+package sdda.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes data files in the formats read by FileHandler into a temporary directory, which the
+ * benchmarks select with the sdda.data.dir property.
+ */
+final class Fixtures {
+    static final String PROJECT_HEADER = "Project Name,Neighborhood,Type 1,Number of units for Type 1,"
+            + "Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,"
+            + "Application opening date,Application closing date,Manager,Officer Slot,Officer,Visibility,"
+            + "OfficerPending,OfficerUnsuccessful,Type1OwnerPending,Type1OwnerUnsuccessful,Type1OwnerSuccessful,"
+            + "Type1OwnerBooked,Type1WithdrawalPending,Type2OwnerPending,Type2OwnerUnsuccessful,"
+            + "Type2OwnerSuccessful,Type2OwnerBooked,Type2WithdrawalPending,Type1Waitlist,Type2Waitlist,"
+            + "Type1WithdrawalBooked,Type2WithdrawalBooked";
+    static final String USER_HEADER = "Name,NRIC,Age,Marital Status,Password,Filter";
+    static final String PASSWORD = Base64.getEncoder().encodeToString("password".getBytes(StandardCharsets.UTF_8));
+
+    private static final MethodHandle PROJECT = App.constructor("Project", String.class, String.class, String.class,
+            int.class, int.class, String.class, int.class, int.class, String.class, String.class, String.class,
+            int.class, List.class, boolean.class, List.class, List.class, List.class, List.class, List.class,
+            List.class, List.class, List.class, List.class, List.class, List.class, List.class);
+    private static final String[] NEIGHBOURHOODS = {
+            "Yishun", "Hougang", "Sengkang", "Punggol", "Tampines", "Bedok", "Jurong", "Woodlands"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates an empty data directory and points the application at it.
+     *
+     * @return the directory
+     */
+    static Path dataDir() throws IOException {
+        Path dir = Files.createTempDirectory("sdda-bench");
+        System.setProperty("sdda.data.dir", dir.toString());
+        return dir;
+    }
+
+    /**
+     * Deletes a data directory created by {@link #dataDir()}.
+     *
+     * @param dir the directory
+     */
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the NRIC of the n-th generated user of a list.
+     *
+     * @param prefix S or T
+     * @param n      the row number
+     * @param suffix the check letter
+     * @return the NRIC
+     */
+    static String nric(char prefix, int n, char suffix) {
+        return String.format("%c%07d%c", prefix, n, suffix);
+    }
+
+    /**
+     * Writes a user list.
+     *
+     * @param file   the file
+     * @param rows   the number of users
+     * @param prefix the NRIC prefix
+     * @param suffix the NRIC check letter
+     */
+    static void writeUsers(Path file, int rows, char prefix, char suffix) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(USER_HEADER);
+            out.newLine();
+            for (int i = 0; i < rows; i++) {
+                boolean married = i % 3 != 0;
+                out.write("User" + prefix + i + "," + nric(prefix, i, suffix) + "," + (21 + i % 50) + ","
+                        + (married ? "Married" : "Single") + "," + PASSWORD + ",None");
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes a project list where every project has a few names in each of its lists and one applicant
+     * on the waitlist of its first flat type.
+     *
+     * @param file the file
+     * @param rows the number of projects
+     */
+    static void writeProjects(Path file, int rows) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(PROJECT_HEADER);
+            out.newLine();
+            for (int i = 0; i < rows; i++) {
+                int month = 1 + i % 12;
+                out.write("Project " + i + "," + NEIGHBOURHOODS[i % NEIGHBOURHOODS.length]
+                        + ",2-Room," + (10 + i % 90) + "," + (200000 + (i % 200) * 1000)
+                        + ",3-Room," + (10 + i % 40) + "," + (300000 + (i % 300) * 1000)
+                        + String.format(",2025-%02d-01,2025-%02d-28", month, month)
+                        + ",Manager" + i % 100 + ",3,\"Officer" + i % 50 + ",Officer" + (i + 1) % 50 + "\",true,,"
+                        + ",\"A" + i + ",B" + i + "\",,C" + i + ",D" + i + ","
+                        + ",E" + i + ",,,,"
+                        + ",W" + i + ":" + i + ",,,");
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Creates a single project whose lists for the first flat type are large. Names are {@code P0..Pn}
+     * in pending, {@code S0..Sn} in successful and {@code W0..Wn} in withdrawal pending, and the project
+     * has a unit for every successful applicant. The project is built directly, as a row this long is
+     * not something the CSV reader is meant to be measured on.
+     *
+     * @param rows the number of names in each list
+     * @return the project
+     */
+    static Object crowdedProject(int rows) {
+        List<String> none = Collections.emptyList();
+        try {
+            return PROJECT.invokeWithArguments("Crowded", "Yishun", "2-Room", rows, 350000, "3-Room", 0, 450000,
+                    "2025-01-01", "2025-12-31", "Manager0", 3, List.of("Officer0"), true, none, none,
+                    names('P', rows), none, names('S', rows), none, names('W', rows),
+                    none, none, none, none, none);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> names(char prefix, int rows) {
+        List<String> names = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            names.add(prefix + Integer.toString(i));
+        }
+        return names;
+    }
+}
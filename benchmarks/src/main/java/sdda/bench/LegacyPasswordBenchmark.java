@@ -0,0 +1,44 @@
+package sdda.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Logins per second with the Base64 comparison used before hashing was introduced, the baseline for
+ * {@link PasswordHashingBenchmark}. It has no cost setting, so it runs once rather than per iteration count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LegacyPasswordBenchmark {
+    private static final MethodHandle VERIFY =
+            App.method("PasswordHasher", "verify", String.class, String.class);
+
+    private static final String PASSWORD = "password";
+
+    private String legacy;
+
+    @Setup
+    public void setUp() {
+        legacy = Base64.getEncoder().encodeToString(PASSWORD.getBytes());
+    }
+
+    @Benchmark
+    public boolean legacy() throws Throwable {
+        return (boolean) VERIFY.invokeExact(PASSWORD, legacy);
+    }
+}
@@ -0,0 +1,68 @@
+package sdda.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looking up a user by NRIC at 1k, 100k and 1M applicants, with a tenth as many officers and a
+ * hundredth as many managers. Managers are searched last, so finding one looks in every list. The lists
+ * are loaded into the in-memory model by the first lookup, during warmup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LoginBenchmark {
+    private static final MethodHandle FIND_USER =
+            App.method("LoginManager", "findUserByNRIC", String.class);
+    private static final MethodHandle CLEAR_MODEL = App.method("DataModel", "clear");
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Path dir;
+    private String applicantNric;
+    private String managerNric;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Fixtures.dataDir();
+        int managers = Math.max(1, rows / 100);
+        Fixtures.writeUsers(dir.resolve("ApplicantList.csv"), rows, 'S', 'A');
+        Fixtures.writeUsers(dir.resolve("OfficerList.csv"), Math.max(1, rows / 10), 'T', 'B');
+        Fixtures.writeUsers(dir.resolve("ManagerList.csv"), managers, 'T', 'C');
+        applicantNric = Fixtures.nric('S', rows - 1, 'A');
+        managerNric = Fixtures.nric('T', managers - 1, 'C');
+    }
+
+    @TearDown
+    public void tearDown() throws Throwable {
+        CLEAR_MODEL.invokeExact();
+        Fixtures.delete(dir);
+    }
+
+    @Benchmark
+    public Object findApplicant() throws Throwable {
+        return (Object) FIND_USER.invokeExact(applicantNric);
+    }
+
+    @Benchmark
+    public Object findManager() throws Throwable {
+        return (Object) FIND_USER.invokeExact(managerNric);
+    }
+}
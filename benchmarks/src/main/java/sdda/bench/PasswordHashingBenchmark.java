@@ -0,0 +1,56 @@
+package sdda.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Logins per second at each PBKDF2 cost setting. {@code verifyParallel} shows how far the cost scales
+ * across cores; {@link LegacyPasswordBenchmark} measures the comparison used before hashing was introduced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    private static final MethodHandle HASH =
+            App.method("PasswordHasher", "hash", String.class, int.class);
+    private static final MethodHandle VERIFY =
+            App.method("PasswordHasher", "verify", String.class, String.class);
+
+    private static final String PASSWORD = "password";
+
+    @Param({"10000", "60000", "120000", "310000"})
+    public int iterations;
+
+    private String stored;
+
+    @Setup
+    public void setUp() throws Throwable {
+        stored = (String) HASH.invokeExact(PASSWORD, iterations);
+    }
+
+    @Benchmark
+    public boolean verify() throws Throwable {
+        return (boolean) VERIFY.invokeExact(PASSWORD, stored);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean verifyParallel() throws Throwable {
+        return (boolean) VERIFY.invokeExact(PASSWORD, stored);
+    }
+}
@@ -0,0 +1,80 @@
+package sdda.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Approval, booking and withdrawal transitions on a project with 1k, 100k and 1M names in the list
+ * being moved from. Transitions consume their names, so every iteration starts from a fresh project
+ * and runs a fixed batch of transitions in list order; scores are the time per batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = TransitionBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = TransitionBenchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TransitionBenchmark {
+    static final int BATCH = 500;
+
+    private static final MethodHandle APPROVE_OWNER =
+            App.method("Project", "approveOwner", String.class, String.class);
+    private static final MethodHandle BOOK_OWNER =
+            App.method("Project", "bookOwner", String.class, String.class);
+    private static final MethodHandle APPROVE_WITHDRAWAL =
+            App.method("Project", "approveWithdrawal", String.class, String.class);
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Object project;
+    private String[] pending;
+    private String[] successful;
+    private String[] withdrawing;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void names() {
+        pending = new String[BATCH];
+        successful = new String[BATCH];
+        withdrawing = new String[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            pending[i] = "P" + i;
+            successful[i] = "S" + i;
+            withdrawing[i] = "W" + i;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        project = Fixtures.crowdedProject(rows);
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean approveOwner() throws Throwable {
+        return (boolean) APPROVE_OWNER.invokeExact(project, "Type1", pending[next++]);
+    }
+
+    @Benchmark
+    public boolean bookOwner() throws Throwable {
+        return (boolean) BOOK_OWNER.invokeExact(project, "Type1", successful[next++]);
+    }
+
+    @Benchmark
+    public boolean approveWithdrawal() throws Throwable {
+        return (boolean) APPROVE_WITHDRAWAL.invokeExact(project, "Type1", withdrawing[next++]);
+    }
+}